@@ -1,25 +1,178 @@
-#include <stdio.h>
+/*
+ * Runtime for MiniJava programs.
+ *
+ * Output is collected in a large buffer and only written when the buffer is
+ * full, on flush() and at exit (or at each newline if stdout is a terminal).
+ * Input is read in large blocks. The functions avoid stdio entirely, so that
+ * no locking or format parsing is involved.
+ *
+ * Objects and arrays may be allocated with mj_alloc, a bump pointer allocator
+ * that never frees memory, as MiniJava has no deallocation. The bounds of the
+ * current chunk are global, so that compiled code may bump the pointer inline
+ * and only call mj_alloc if the chunk is exhausted.
+ *
+ * As this file defines functions named read and write, the system calls are
+ * used directly instead of the declarations in unistd.h.
+ */
+
+#include <errno.h>
+#include <stddef.h>
+#include <stdlib.h>
+#include <sys/mman.h>
+#include <sys/syscall.h>
+
+extern long syscall(long number, ...);
+extern int isatty(int fd);
+
+#define BUFFER_SIZE (64 * 1024)
+
+static char output_buffer[BUFFER_SIZE];
+static int output_length = 0;
+static int line_buffered = 0;
+
+static unsigned char input_buffer[BUFFER_SIZE];
+static int input_position = 0;
+static int input_length = 0;
+
+#define CHUNK_SIZE ((size_t) 64 * 1024 * 1024)
+#define ALLOCATION_ALIGNMENT 8
+
+// accessed directly by compiled code, see IRExpressionVisitor
+char *mj_heap_top = NULL;
+char *mj_heap_end = NULL;
+
+static void flush_output(void)
+{
+    int written = 0;
+    while (written < output_length) {
+        long result = syscall(SYS_write, 1, output_buffer + written, (long) (output_length - written));
+        if (result < 0) {
+            if (errno == EINTR) {
+                continue;
+            }
+            break;
+        }
+        written += (int) result;
+    }
+    output_length = 0;
+}
+
+static void append(const char *data, int length)
+{
+    if (output_length + length > BUFFER_SIZE) {
+        flush_output();
+    }
+    for (int i = 0; i < length; ++i) {
+        output_buffer[output_length++] = data[i];
+    }
+}
+
+__attribute__((constructor))
+static void initialize(void)
+{
+    line_buffered = isatty(1);
+    atexit(flush_output);
+}
 
 int read()
 {
-    int c = getchar();
-    if (c == EOF) {
-        return -1;
+    if (input_position == input_length) {
+        // output is a terminal: show prompts before waiting for input
+        if (line_buffered) {
+            flush_output();
+        }
+
+        long result;
+        do {
+            result = syscall(SYS_read, 0, input_buffer, (long) BUFFER_SIZE);
+        } while (result < 0 && errno == EINTR);
+
+        if (result <= 0) {
+            return -1;
+        }
+        input_position = 0;
+        input_length = (int) result;
     }
-    return c;
+    return input_buffer[input_position++];
 }
 
 void print(int value)
 {
-    printf("%i\n", value);
+    // 10 digits, sign and newline
+    char digits[12];
+    int position = sizeof(digits);
+
+    digits[--position] = '\n';
+    unsigned int magnitude = value < 0 ? -(unsigned int) value : (unsigned int) value;
+    do {
+        digits[--position] = (char) ('0' + magnitude % 10);
+        magnitude /= 10;
+    } while (magnitude != 0);
+    if (value < 0) {
+        digits[--position] = '-';
+    }
+
+    append(digits + position, (int) sizeof(digits) - position);
+    if (line_buffered) {
+        flush_output();
+    }
 }
 
 void write(int byte)
 {
-    putchar(byte);
+    char c = (char) byte;
+    append(&c, 1);
+    if (line_buffered && c == '\n') {
+        flush_output();
+    }
 }
 
 void flush()
 {
-    fflush(stdout);
+    flush_output();
+}
+
+static void *map_zeroed(size_t size)
+{
+    void *memory = mmap(NULL, size, PROT_READ | PROT_WRITE,
+                        MAP_PRIVATE | MAP_ANONYMOUS | MAP_NORESERVE, -1, 0);
+    return memory == MAP_FAILED ? NULL : memory;
+}
+
+/*
+ * Allocate zeroed memory for nmemb elements of the given size (with the same
+ * signature as calloc). Memory is taken from large chunks obtained with mmap,
+ * which the kernel provides zeroed. Large allocations get a mapping of their
+ * own, so that the remainder of the current chunk is not wasted. Like calloc,
+ * NULL is returned if the memory can not be allocated.
+ */
+void *mj_alloc(int nmemb, int size)
+{
+    if (nmemb < 0 || size < 0) {
+        return NULL;
+    }
+
+    size_t bytes = (size_t) nmemb * (size_t) size;
+    // distinct allocations must have distinct addresses
+    if (bytes == 0) {
+        bytes = 1;
+    }
+    bytes = (bytes + ALLOCATION_ALIGNMENT - 1) & ~(size_t) (ALLOCATION_ALIGNMENT - 1);
+
+    if (bytes > (size_t) (mj_heap_end - mj_heap_top)) {
+        if (bytes > CHUNK_SIZE / 4) {
+            return map_zeroed(bytes);
+        }
+
+        char *chunk = map_zeroed(CHUNK_SIZE);
+        if (chunk == NULL) {
+            return NULL;
+        }
+        mj_heap_top = chunk;
+        mj_heap_end = chunk + CHUNK_SIZE;
+    }
+
+    void *result = mj_heap_top;
+    mj_heap_top += bytes;
+    return result;
 }
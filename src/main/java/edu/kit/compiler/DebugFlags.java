@@ -26,4 +26,27 @@ public class DebugFlags {
     @Setter
     private boolean noInline = false;
 
+    /**
+     * Whether the assembly should be written to a file and assembled with gcc
+     * instead of using the built-in assembler.
+     */
+    @Getter
+    @Setter
+    private boolean externalAssembler = false;
+
+    /**
+     * Amount of fuel of the optimizer, i.e. the maximum number of
+     * transformations made by optimizations (see OptimizationBudget).
+     */
+    @Getter
+    @Setter
+    private long optimizationFuel = Long.MAX_VALUE;
+
+    /**
+     * Time limit of the optimizer in milliseconds.
+     */
+    @Getter
+    @Setter
+    private long optimizationTimeLimit = Long.MAX_VALUE;
+
 }
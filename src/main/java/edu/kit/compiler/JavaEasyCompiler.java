@@ -1,6 +1,7 @@
 package edu.kit.compiler;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -8,18 +9,22 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import edu.kit.compiler.assembly.AssemblyOptimizer;
 import edu.kit.compiler.assembly.AssemblyWriter;
 import edu.kit.compiler.assembly.ElfAssemblyWriter;
+import edu.kit.compiler.assembly.ElfObjectWriter;
 import edu.kit.compiler.assembly.FunctionInstructions;
 import edu.kit.compiler.assembly.JumpInversion;
 import edu.kit.compiler.assembly.RemoveNop;
@@ -36,18 +41,26 @@ import edu.kit.compiler.data.Token;
 import edu.kit.compiler.data.TokenType;
 import edu.kit.compiler.data.ast_nodes.ProgramNode;
 import edu.kit.compiler.intermediate_lang.Block;
+import edu.kit.compiler.intermediate_lang.RegisterSize;
+import edu.kit.compiler.io.ByteSourceReader;
 import edu.kit.compiler.io.CommonUtil;
+import edu.kit.compiler.io.StandardLibraryCache;
 import edu.kit.compiler.lexer.Lexer;
+import edu.kit.compiler.lexer.ParallelLexer;
 import edu.kit.compiler.lexer.StringTable;
+import edu.kit.compiler.lexer.TokenBuffer;
 import edu.kit.compiler.logger.Logger;
+import edu.kit.compiler.logger.TimeReport;
 import edu.kit.compiler.logger.Logger.Verbosity;
 import edu.kit.compiler.optimizations.ArithmeticIdentitiesOptimization;
 import edu.kit.compiler.optimizations.ArithmeticReplacementOptimization;
 import edu.kit.compiler.optimizations.ConstantOptimization;
 import edu.kit.compiler.optimizations.LinearBlocksOptimization;
 import edu.kit.compiler.optimizations.LoopInvariantOptimization;
+import edu.kit.compiler.optimizations.OptimizationBudget;
 import edu.kit.compiler.optimizations.Optimizer;
 import edu.kit.compiler.optimizations.PureFunctionOptimization;
+import edu.kit.compiler.optimizations.ScalarReplacementOptimization;
 import edu.kit.compiler.optimizations.UnusedArgumentsOptimization;
 import edu.kit.compiler.optimizations.common_subexpression.CommonSubexpressionElimination;
 import edu.kit.compiler.optimizations.inlining.InliningOptimization;
@@ -62,7 +75,10 @@ import edu.kit.compiler.semantic.DetailedNameTypeAstVisitor;
 import edu.kit.compiler.semantic.ErrorHandler;
 import edu.kit.compiler.semantic.NamespaceGatheringVisitor;
 import edu.kit.compiler.semantic.NamespaceMapper;
+import edu.kit.compiler.semantic.PipelinedFrontEnd;
 import edu.kit.compiler.semantic.SemanticChecks;
+import edu.kit.compiler.server.CompileServer;
+import edu.kit.compiler.transform.AllocationStrategy;
 import edu.kit.compiler.transform.IRVisitor;
 import edu.kit.compiler.transform.JFirmSingleton;
 import edu.kit.compiler.transform.Lower;
@@ -102,7 +118,8 @@ public class JavaEasyCompiler {
      * @return Ok or FileInputError (in case of an IOException)
      */
     private static Result lextest(String filePath, Logger logger) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)))) {
+        try {
+            var reader = ByteSourceReader.fromFile(Path.of(filePath));
             Lexer lexer = new Lexer(reader, logger);
             StringTable stringTable = lexer.getStringTable();
 
@@ -132,7 +149,8 @@ public class JavaEasyCompiler {
      * @return Ok or an according error
      */
     private static Result parseTest(String filePath, Logger logger) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)))) {
+        try {
+            var reader = ByteSourceReader.fromFile(Path.of(filePath));
             Parser parser = new Parser(new Lexer(reader, logger));
             parser.parse();
 
@@ -156,7 +174,8 @@ public class JavaEasyCompiler {
      * @return Ok or an according error
      */
     private static Result printAst(String filePath, Logger logger) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)))) {
+        try {
+            var reader = ByteSourceReader.fromFile(Path.of(filePath));
             Lexer lexer = new Lexer(reader, logger);
             StringTable stringTable = lexer.getStringTable();
             ProgramNode ast = (new Parser(lexer)).parse();
@@ -182,7 +201,8 @@ public class JavaEasyCompiler {
      * @return Ok or an according error
      */
     private static Result prettyPrint(String filePath, Logger logger) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)))) {
+        try {
+            var reader = ByteSourceReader.fromFile(Path.of(filePath));
             Lexer lexer = new Lexer(reader, logger);
             StringTable stringTable = lexer.getStringTable();
             ProgramNode ast = (new Parser(lexer)).parse();
@@ -205,13 +225,15 @@ public class JavaEasyCompiler {
      *
      * @param filePath Path of the file (absolute or relative)
      * @param logger the logger
+     * @param timeReport the time report to record the compiler phases in
+     * @param jobs the number of threads used for lexing
      * @return Ok or an according error
      */
-    private static Result check(String filePath, Logger logger) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)))) {
-            Lexer lexer = new Lexer(reader);
+    private static Result check(String filePath, Logger logger, TimeReport timeReport, int jobs) {
+        try {
+            byte[] source = Files.readAllBytes(Path.of(filePath));
             NamespaceMapper namespaceMapper = new NamespaceMapper();
-            createAttributedAst(logger, lexer, namespaceMapper);
+            createAttributedAst(logger, source, new StringTable(), namespaceMapper, timeReport, jobs);
 
             return Result.Ok;
         } catch (CompilerException e) {
@@ -229,33 +251,30 @@ public class JavaEasyCompiler {
      * Parses the file and performs semantic analysis.
      *
      * @param filePath Path of the file (absolute or relative)
+     * @param workingDirectory the directory to write the output files to
+     * @param outputPath path of the executable, a.out in the working directory if empty
      * @param logger the logger
+     * @param timeReport the time report to record the compiler phases in
+     * @param jobs the number of threads used for lexing
      * @return Ok or an according error
      */
-    private static Result compileFirm(String filePath, Logger logger, Optimizer optimizer) {
+    private static Result compileFirm(String filePath, File workingDirectory, Optional<String> outputPath,
+                                      Logger logger, Optimizer optimizer, AllocationStrategy allocationStrategy,
+                                      TimeReport timeReport, int jobs) {
         try {
-            createOptimizedIR(filePath, logger, optimizer);
+            createOptimizedIR(filePath, logger, optimizer, allocationStrategy, timeReport, jobs);
 
             var sourceFile = new File(filePath).getName();
-            var assemblyFile = sourceFile + ".s";
+            var assemblyFile = getIntermediateFile(filePath, workingDirectory, outputPath, ".s");
             logger.info("assembling program: '%s'", assemblyFile);
-            Backend.createAssembler(assemblyFile, sourceFile);
-
-            var stdLibrary = System.getenv("STD_LIBRARY_PATH");
-            if (stdLibrary == null || !new File(stdLibrary).exists()) {
-                logger.error("standard library implementation not found");
-                return Result.StandardLibraryError;
+            var backendMeasurement = timeReport.measure("FirmBackend");
+            try {
+                Backend.createAssembler(assemblyFile, sourceFile);
+            } finally {
+                backendMeasurement.close();
             }
 
-            logger.info("compiling program: 'gcc \"%s\" \"%s\"'", assemblyFile, stdLibrary);
-            var process = Runtime.getRuntime().exec(new String[] { "gcc", assemblyFile, stdLibrary });
-
-            if (process.waitFor() != 0) {
-                logger.error("gcc failed with exit code %s", process.exitValue());
-                return Result.GccError;
-            }
-
-            return Result.Ok;
+            return link(assemblyFile, workingDirectory, outputPath, logger, timeReport);
         } catch (CompilerException e) {
             logger.withName(e.getCompilerStage().orElse(null)).exception(e);
 
@@ -275,56 +294,106 @@ public class JavaEasyCompiler {
      * Compiles the file. This includes parsing, semantic analysis, transformation and codegen.
      *
      * @param filePath Path of the file (absolute or relative)
+     * @param workingDirectory the directory to write the output files to
+     * @param outputPath path of the executable, a.out in the working directory if empty
      * @param logger the logger
+     * @param debugFlags the debug flags, selecting the assembler to use
+     * @param timeReport the time report to record the compiler phases in
+     * @param jobs the number of threads used for lexing and register allocation
      * @return Ok or an according error
      */
-    private static Result compile(String filePath, Logger logger, Optimizer optimizer,
-                                  RegisterAllocator allocator, AssemblyOptimizer asmOptimizer) {
+    private static Result compile(String filePath, File workingDirectory, Optional<String> outputPath,
+                                  Logger logger, Optimizer optimizer,
+                                  RegisterAllocator allocator, AssemblyOptimizer asmOptimizer,
+                                  AllocationStrategy allocationStrategy, DebugFlags debugFlags,
+                                  TimeReport timeReport, int jobs) {
         try {
-            var graphs = createOptimizedIR(filePath, logger, optimizer);
+            var graphs = createOptimizedIR(filePath, logger, optimizer, allocationStrategy, timeReport, jobs);
 
+            // instruction selection accesses the Firm graphs and must therefore
+            // run sequentially, it also assigns globally unique block labels
             PatternCollection coll = new PatternCollection();
-            List<FunctionInstructions> functions = new ArrayList<>();
+            List<SelectedFunction> selectedFunctions = new ArrayList<>();
             int blockId = 0;
             for (Graph graph : graphs) {
-                InstructionSelection selection = InstructionSelection.apply(graph, coll, blockId);
-                Map<Integer, Block> blockMapping = PhiResolver.apply(selection);
-                List<Block> il = ReversePostfixOrder.apply(blockMapping, selection.getBlocks().getStartBlock().getLabel());
+                InstructionSelection selection;
+                var selectionMeasurement = timeReport.measure("InstructionSelection");
+                try {
+                    selection = InstructionSelection.apply(graph, coll, blockId);
+                } finally {
+                    selectionMeasurement.close();
+                }
+                Map<Integer, Block> blockMapping;
+                var phiMeasurement = timeReport.measure("PhiResolver");
+                try {
+                    blockMapping = PhiResolver.apply(selection);
+                } finally {
+                    phiMeasurement.close();
+                }
                 blockId = selection.getBlocks().newLabel();
 
                 var type = (MethodType) graph.getEntity().getType();
-                int nArgs = type.getNParams();
-                List<String> instructions = allocator.performAllocation(
-                        nArgs, il, selection.getMatcher().getRegisterSizes());
-                List<String> optimizedInstructions = asmOptimizer.apply(instructions);
+                selectedFunctions.add(new SelectedFunction(
+                    graph.getEntity().getLdName(), type.getNParams(), blockMapping,
+                    selection.getBlocks().getStartBlock().getLabel(),
+                    selection.getMatcher().getRegisterSizes()
+                ));
+            }
+
+            // the remaining backend does not depend on Firm and is independent
+            // for each function
+            List<FunctionInstructions> functions;
+            if (jobs > 1 && selectedFunctions.size() > 1) {
+                functions = allocateRegistersParallel(
+                    selectedFunctions, allocator, asmOptimizer, timeReport, jobs);
+            } else {
+                functions = new ArrayList<>();
+                for (var function : selectedFunctions) {
+                    functions.add(allocateRegisters(function, allocator, asmOptimizer, timeReport));
+                }
+            }
 
-                functions.add(new FunctionInstructions(graph.getEntity().getLdName(), optimizedInstructions));
+            if (!debugFlags.isExternalAssembler()) {
+                var objectFile = getIntermediateFile(filePath, workingDirectory, outputPath, ".o");
+                logger.info("assembling program: '%s'", objectFile);
+
+                // encode the whole program before writing the file, so that
+                // no broken object file is left behind
+                var object = new ByteArrayOutputStream();
+                boolean encoded;
+                var writerMeasurement = timeReport.measure("ElfObjectWriter");
+                try {
+                    new ElfObjectWriter().writeAssembly(functions, object);
+                    encoded = true;
+                } catch (IllegalArgumentException e) {
+                    logger.warn("built-in assembler failed, falling back to gcc: %s", e.getMessage());
+                    encoded = false;
+                } finally {
+                    writerMeasurement.close();
+                }
+
+                if (encoded) {
+                    try (var out = new FileOutputStream(objectFile)) {
+                        object.writeTo(out);
+                    }
+
+                    return link(objectFile, workingDirectory, outputPath, logger, timeReport);
+                }
             }
 
             AssemblyWriter writer = new ElfAssemblyWriter();
 
-            var sourceFile = new File(filePath).getName();
-            var assemblyFile = sourceFile + ".s";
-            var out = new FileOutputStream(assemblyFile);
+            var assemblyFile = getIntermediateFile(filePath, workingDirectory, outputPath, ".s");
             logger.info("assembling program: '%s'", assemblyFile);
 
-            writer.writeAssembly(functions, out);
-
-            var stdLibrary = System.getenv("STD_LIBRARY_PATH");
-            if (stdLibrary == null || !new File(stdLibrary).exists()) {
-                logger.error("standard library implementation not found");
-                return Result.StandardLibraryError;
-            }
-
-            logger.info("compiling program: 'gcc \"%s\" \"%s\"'", assemblyFile, stdLibrary);
-            var process = Runtime.getRuntime().exec(new String[] { "gcc", assemblyFile, stdLibrary });
-
-            if (process.waitFor() != 0) {
-                logger.error("gcc failed with exit code %s", process.exitValue());
-                return Result.GccError;
+            var writerMeasurement = timeReport.measure("ElfAssemblyWriter");
+            try (var out = new FileOutputStream(assemblyFile)) {
+                writer.writeAssembly(functions, out);
+            } finally {
+                writerMeasurement.close();
             }
 
-            return Result.Ok;
+            return link(assemblyFile, workingDirectory, outputPath, logger, timeReport);
         } catch (CompilerException e) {
             logger.withName(e.getCompilerStage().orElse(null)).exception(e);
 
@@ -340,35 +409,184 @@ public class JavaEasyCompiler {
         }
     }
 
+    /**
+     * Links the given object file (or assembles the given assembly file) with
+     * the standard library using gcc. The standard library is compiled once and
+     * taken from the StandardLibraryCache afterwards. The executable is written
+     * to the given output path, or to a.out in the working directory.
+     *
+     * @param inputFile path of the object or assembly file
+     * @param workingDirectory the directory to run gcc in
+     * @param outputPath path of the executable, a.out in the working directory if empty
+     * @param logger the logger
+     * @param timeReport the time report to record the compiler phases in
+     * @return Ok or an according error
+     */
+    private static Result link(String inputFile, File workingDirectory, Optional<String> outputPath,
+                               Logger logger, TimeReport timeReport) throws IOException, InterruptedException {
+        var stdLibrary = System.getenv("STD_LIBRARY_PATH");
+        if (stdLibrary == null || !new File(stdLibrary).exists()) {
+            logger.error("standard library implementation not found");
+            return Result.StandardLibraryError;
+        }
+
+        String stdLibraryObject;
+        var cacheMeasurement = timeReport.measure("StandardLibraryCache");
+        try {
+            stdLibraryObject = StandardLibraryCache.getDefault(logger).getObject(new File(stdLibrary)).getPath();
+        } catch (IOException e) {
+            logger.warn("unable to use precompiled standard library: %s", e.getMessage());
+            stdLibraryObject = stdLibrary;
+        } finally {
+            cacheMeasurement.close();
+        }
+
+        var command = new ArrayList<>(List.of("gcc", inputFile, stdLibraryObject));
+        outputPath.ifPresent(path -> command.addAll(List.of("-o", path)));
+
+        logger.info("compiling program: '%s'", String.join(" ", command));
+        var gccMeasurement = timeReport.measure("gcc");
+        try {
+            var process = Runtime.getRuntime().exec(
+                command.toArray(new String[0]), null, workingDirectory);
+
+            if (process.waitFor() != 0) {
+                logger.error("gcc failed with exit code %s", process.exitValue());
+                return Result.GccError;
+            }
+        } finally {
+            gccMeasurement.close();
+        }
+
+        return Result.Ok;
+    }
+
+    /**
+     * Orders the blocks of the given function, allocates registers and
+     * applies the assembly optimizations.
+     */
+    private static FunctionInstructions allocateRegisters(SelectedFunction function,
+            RegisterAllocator allocator, AssemblyOptimizer asmOptimizer, TimeReport timeReport) {
+        List<Block> il;
+        var orderMeasurement = timeReport.measure("ReversePostfixOrder");
+        try {
+            il = ReversePostfixOrder.apply(function.getBlocks(), function.getStartBlock());
+        } finally {
+            orderMeasurement.close();
+        }
+        List<String> instructions;
+        var allocationMeasurement = timeReport.measure(allocator.getClass().getSimpleName());
+        try {
+            instructions = allocator.performAllocation(
+                function.getNArgs(), il, function.getRegisterSizes());
+        } finally {
+            allocationMeasurement.close();
+        }
+        List<String> optimizedInstructions;
+        var asmMeasurement = timeReport.measure("AssemblyOptimizer");
+        try {
+            optimizedInstructions = asmOptimizer.apply(instructions);
+        } finally {
+            asmMeasurement.close();
+        }
+
+        return new FunctionInstructions(function.getLdName(), optimizedInstructions);
+    }
+
+    /**
+     * Same as `allocateRegisters`, but processes all functions on a pool with
+     * the given number of threads. The order of the result corresponds to the
+     * order of the given functions.
+     */
+    private static List<FunctionInstructions> allocateRegistersParallel(List<SelectedFunction> functions,
+            RegisterAllocator allocator, AssemblyOptimizer asmOptimizer, TimeReport timeReport, int jobs) {
+        var pool = new ForkJoinPool(jobs);
+        try {
+            var tasks = functions.stream()
+                .map(function -> pool.submit(() -> allocateRegisters(function, allocator, asmOptimizer, timeReport)))
+                .collect(Collectors.toList());
+
+            var result = new ArrayList<FunctionInstructions>(tasks.size());
+            for (var task : tasks) {
+                result.add(task.join());
+            }
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * Parses the file into an AST and performs semantic analysis,
      * filling the provided namespace mapper.
      *
      * @param logger the logger
+     * @param source the content of the file
+     * @param stringTable empty string table
      * @param namespaceMapper empty namespace mapper
+     * @param timeReport the time report to record the compiler phases in
+     * @param jobs the number of threads used for lexing and semantic analysis
      * @return the AST
      * 
      * @throws CompilerException
      * @throws IOException
      */
-    private static ProgramNode createAttributedAst(Logger logger,
-            Lexer lexer, NamespaceMapper namespaceMapper) throws IOException {
+    private static ProgramNode createAttributedAst(Logger logger, byte[] source, StringTable stringTable,
+            NamespaceMapper namespaceMapper, TimeReport timeReport, int jobs) throws IOException {
         ErrorHandler errorHandler = new ErrorHandler(logger);
-        StringTable stringTable = lexer.getStringTable();
-        ProgramNode ast = (new Parser(lexer)).parse();
+        TokenBuffer tokens;
+        var lexerMeasurement = timeReport.measure("Lexer");
+        try {
+            if (jobs > 1) {
+                tokens = new ParallelLexer(source, stringTable, Logger.nullLogger()).getTokens(jobs);
+            } else {
+                var reader = new ByteSourceReader(source);
+                tokens = new Lexer(reader, stringTable, Logger.nullLogger()).getRemainingTokens();
+            }
+        } finally {
+            lexerMeasurement.close();
+        }
+        ProgramNode ast;
+        if (jobs > 1) {
+            // parse, collect classes and methods and analyze methods concurrently
+            ast = new PipelinedFrontEnd(namespaceMapper, stringTable, errorHandler, timeReport, jobs)
+                .parseAndAnalyze(new Parser(tokens));
+        } else {
+            var parserMeasurement = timeReport.measure("Parser");
+            try {
+                ast = (new Parser(tokens)).parse();
+            } finally {
+                parserMeasurement.close();
+            }
 
-        // collect classes and methods
-        NamespaceGatheringVisitor gatheringVisitor = new NamespaceGatheringVisitor(
-            namespaceMapper, stringTable, errorHandler
-        );
-        ast.accept(gatheringVisitor);
-        // name and type analysis
-        DetailedNameTypeAstVisitor nameTypeVisitor = new DetailedNameTypeAstVisitor(
-            namespaceMapper, stringTable, errorHandler
-        );
-        ast.accept(nameTypeVisitor);
-        // remaining semantic checks
-        SemanticChecks.applyChecks(ast, errorHandler, gatheringVisitor.getStringClass());
+            // collect classes and methods
+            NamespaceGatheringVisitor gatheringVisitor = new NamespaceGatheringVisitor(
+                namespaceMapper, stringTable, errorHandler
+            );
+            var gatheringMeasurement = timeReport.measure("NamespaceGatheringVisitor");
+            try {
+                ast.accept(gatheringVisitor);
+            } finally {
+                gatheringMeasurement.close();
+            }
+            // name and type analysis
+            DetailedNameTypeAstVisitor nameTypeVisitor = new DetailedNameTypeAstVisitor(
+                namespaceMapper, stringTable, errorHandler
+            );
+            var analysisMeasurement = timeReport.measure("DetailedNameTypeAstVisitor");
+            try {
+                ast.accept(nameTypeVisitor);
+            } finally {
+                analysisMeasurement.close();
+            }
+            // remaining semantic checks
+            var checksMeasurement = timeReport.measure("SemanticChecks");
+            try {
+                SemanticChecks.applyChecks(ast, errorHandler, gatheringVisitor.getStringClass());
+            } finally {
+                checksMeasurement.close();
+            }
+        }
 
         errorHandler.checkForErrors();
         return ast;
@@ -380,40 +598,127 @@ public class JavaEasyCompiler {
      * @param filePath Path of the file (absolute or relative)
      * @param logger the logger
      * @param optimizer the optimizer
+     * @param timeReport the time report to record the compiler phases in
+     * @param jobs the number of threads used for lexing
      * @return the set of living functions
      */
-    private static Set<Graph> createOptimizedIR(String filePath, Logger logger,
-                                                Optimizer optimizer) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath)));
-        Lexer lexer = new Lexer(reader);
-        StringTable stringTable = lexer.getStringTable();
+    private static Set<Graph> createOptimizedIR(String filePath, Logger logger, Optimizer optimizer,
+                                                AllocationStrategy allocationStrategy,
+                                                TimeReport timeReport, int jobs) throws IOException {
         NamespaceMapper namespaceMapper = new NamespaceMapper();
-        ProgramNode ast = createAttributedAst(logger, lexer, namespaceMapper);
+        StringTable stringTable = new StringTable();
+        byte[] source = Files.readAllBytes(Path.of(filePath));
+        ProgramNode ast = createAttributedAst(logger, source, stringTable, namespaceMapper, timeReport, jobs);
 
-        JFirmSingleton.initializeFirmLinux();
+        var initializationMeasurement = timeReport.measure("FirmInitialization");
+        try {
+            JFirmSingleton.initializeFirmLinux();
+        } finally {
+            initializationMeasurement.close();
+        }
         logger.info("Initialized libFirm Version: %s.%s",
                 Firm.getMinorVersion(), Firm.getMajorVersion()
         );
 
-        IRVisitor irv = new IRVisitor(namespaceMapper, stringTable);
-        ast.accept(irv);
-        Entity main = Lower.lower(irv.getTypeMapper());
+        IRVisitor irv = new IRVisitor(namespaceMapper, stringTable, allocationStrategy);
+        var irMeasurement = timeReport.measure("IRVisitor");
+        try {
+            ast.accept(irv);
+        } finally {
+            irMeasurement.close();
+        }
+        Entity main;
+        var lowerMeasurement = timeReport.measure("Lower");
+        try {
+            main = Lower.lower(irv.getTypeMapper());
+        } finally {
+            lowerMeasurement.close();
+        }
+
+        var optimizerMeasurement = timeReport.measure("Optimizer");
+        try {
+            return optimizer.optimize(main);
+        } finally {
+            optimizerMeasurement.close();
+        }
+    }
 
-        return optimizer.optimize(main);
+    /**
+     * Result of the instruction selection for a single function, containing
+     * everything needed by the Firm-independent part of the backend.
+     */
+    @AllArgsConstructor
+    @Getter
+    private static final class SelectedFunction {
+        private final String ldName;
+        private final int nArgs;
+        private final Map<Integer, Block> blocks;
+        private final int startBlock;
+        private final List<RegisterSize> registerSizes;
     }
 
     public static void main(String[] args) {
+        Result result = run(args, new File("").getAbsoluteFile(), true, false);
+
+        // return exit code from executed function
+        System.exit(result.getCode());
+    }
+
+    /**
+     * Executes the compiler with the given command line arguments. Relative
+     * paths are resolved against the given working directory, which is also
+     * where all output files are written to.
+     *
+     * @param args the command line arguments
+     * @param workingDirectory the absolute path of the working directory
+     * @return the result of the executed action
+     */
+    public static Result run(String[] args, File workingDirectory) {
+        return run(args, workingDirectory, false, false);
+    }
+
+    private static Result run(String[] args, File workingDirectory, boolean topLevel, boolean outputPerInput) {
         Cli cli = new Cli(
             Arrays
                 .stream(CliOptionGroups.values())
                 .map(group -> group.getOptionGroup())
                 .collect(Collectors.toList())
         );
-        CliCall cliCall = parseCliCall(cli, args);
+        Optional<CliCall> cliCall_ = cli.parse(args);
+        if (cliCall_.isEmpty()) {
+            System.err.println("Wrong command line arguments, see --help for supported commands.");
+
+            return Result.CliInputError;
+        }
+        CliCall cliCall = cliCall_.get();
 
         Logger logger = parseLogger(cliCall);
         OptimizationLevel optimizationLevel = parseOptimizationLevel(cliCall);
         DebugFlags debugFlags = parseDebugFlags(cliCall);
+        TimeReport timeReport = parseTimeReport(cliCall);
+        Optional<Integer> jobs_ = parseJobs(cliCall);
+        if (jobs_.isEmpty()) {
+            System.err.println("Wrong command line arguments, the number of jobs must be a positive integer.");
+
+            return Result.CliInputError;
+        }
+        int jobs = jobs_.get();
+        Optional<Long> optimizationFuel = parseOptimizationBudget(cliCall, CliOptions.OptimizationFuel);
+        Optional<Long> optimizationTimeLimit = parseOptimizationBudget(cliCall, CliOptions.OptimizationTimeLimit);
+        if (optimizationFuel.isEmpty() || optimizationTimeLimit.isEmpty()) {
+            System.err.println("Wrong command line arguments, the optimization fuel and time limit must be non-negative integers.");
+
+            return Result.CliInputError;
+        }
+        debugFlags.setOptimizationFuel(optimizationFuel.get());
+        debugFlags.setOptimizationTimeLimit(optimizationTimeLimit.get());
+        Optional<AllocationStrategy> allocationStrategy_ = parseAllocationStrategy(cliCall);
+        if (allocationStrategy_.isEmpty()) {
+            System.err.println("Wrong command line arguments, the allocator must be one of calloc, arena and inline-arena.");
+
+            return Result.CliInputError;
+        }
+        AllocationStrategy allocationStrategy = allocationStrategy_.get();
 
         Optimizer optimizer;
         RegisterAllocator allocator;
@@ -423,7 +728,7 @@ public class JavaEasyCompiler {
                 optimizer = new Optimizer(List.of(), List.of(
                     new ConstantOptimization(),
                     new ArithmeticIdentitiesOptimization()
-                ), debugFlags);
+                ), debugFlags, timeReport);
                 allocator = new DumbAllocator();
                 asmOptimizer = new AssemblyOptimizer(List.of());
                 break;
@@ -439,10 +744,11 @@ public class JavaEasyCompiler {
                 ), debugFlags.isNoInline() ? Stream.of() : Stream.of(
                     new InliningOptimization()
                 ), Stream.of(
+                    new ScalarReplacementOptimization(),
                     new PureFunctionOptimization(),
                     new LoopInvariantOptimization(),
                     new LoopUnrollingOptimization()
-                )).collect(Collectors.toList()), debugFlags);
+                )).collect(Collectors.toList()), debugFlags, timeReport);
                 allocator = new LinearScan();
                 asmOptimizer = new AssemblyOptimizer(List.of(
                     new RemoveNop(),
@@ -462,62 +768,211 @@ public class JavaEasyCompiler {
                 "for more information check out: https://github.com/larsk21/compiler-minijava"
             );
             result = Result.Ok;
+        } else if (cliCall.hasOption(CliOptions.Server.getOption())) {
+            if (topLevel) {
+                String port = cliCall.getOptionArg(CliOptions.Server.getOption());
+
+                result = CompileServer.run(port, logger);
+            } else {
+                logger.error("the compile server can only be started from the command line");
+
+                result = Result.CliInputError;
+            }
+        } else if (cliCall.hasOption(CliOptions.Batch.getOption())) {
+            if (topLevel) {
+                String manifest = cliCall.getOptionArg(CliOptions.Batch.getOption());
+                String manifestPath = manifest.equals("-") ? manifest : resolvePath(workingDirectory, manifest);
+
+                result = batch(manifestPath, workingDirectory, logger);
+            } else {
+                logger.error("batch mode can only be started from the command line");
+
+                result = Result.CliInputError;
+            }
         } else if (cliCall.hasOption(CliOptions.Echo.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.Echo.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.Echo.getOption()));
+
             result = echo(filePath, System.out, logger);
         } else if (cliCall.hasOption(CliOptions.LexTest.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.LexTest.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.LexTest.getOption()));
 
             result = lextest(filePath, logger);
         } else if (cliCall.hasOption(CliOptions.ParseTest.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.ParseTest.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.ParseTest.getOption()));
 
             result = parseTest(filePath, logger);
         } else if (cliCall.hasOption(CliOptions.PrintAstRaw.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.PrintAstRaw.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.PrintAstRaw.getOption()));
 
             result = printAst(filePath, logger);
         } else if (cliCall.hasOption(CliOptions.PrintAst.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.PrintAst.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.PrintAst.getOption()));
 
             result = prettyPrint(filePath, logger);
         } else if (cliCall.hasOption(CliOptions.Check.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.Check.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.Check.getOption()));
 
-            result = check(filePath, logger);
+            result = check(filePath, logger, timeReport, jobs);
         } else if (cliCall.hasOption(CliOptions.CompileFirm.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.CompileFirm.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.CompileFirm.getOption()));
 
-            result = compileFirm(filePath, logger, optimizer);
+            Optional<String> outputPath = getOutputPath(cliCall, workingDirectory, filePath, outputPerInput);
+
+            result = compileFirm(filePath, workingDirectory, outputPath, logger, optimizer, allocationStrategy,
+                    timeReport, jobs);
         } else if (cliCall.hasOption(CliOptions.Compile.getOption())) {
-            String filePath = cliCall.getOptionArg(CliOptions.Compile.getOption());
+            String filePath = resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.Compile.getOption()));
+            Optional<String> outputPath = getOutputPath(cliCall, workingDirectory, filePath, outputPerInput);
 
-            result = compile(filePath, logger, optimizer, allocator, asmOptimizer);
+            result = compile(filePath, workingDirectory, outputPath, logger, optimizer, allocator, asmOptimizer,
+                    allocationStrategy, debugFlags, timeReport, jobs);
         }  else {
             if (cliCall.getFreeArgs().length == 0) {
                 System.err.println("Wrong command line arguments, see --help for supported commands.");
 
                 result = Result.CliInputError;
             } else {
-                String filePath = cliCall.getFreeArgs()[0];
+                String filePath = resolvePath(workingDirectory, cliCall.getFreeArgs()[0]);
+                Optional<String> outputPath = getOutputPath(cliCall, workingDirectory, filePath, outputPerInput);
 
-                result = compile(filePath, logger, optimizer, allocator, asmOptimizer);
+                result = compile(filePath, workingDirectory, outputPath, logger, optimizer, allocator, asmOptimizer,
+                    allocationStrategy, debugFlags, timeReport, jobs);
             }
         }
 
-        // return exit code from executed function
-        System.exit(result.getCode());
+        if (cliCall.hasOption(CliOptions.TimeReportJson.getOption())) {
+            timeReport.printJson(System.err);
+        } else if (timeReport.isEnabled()) {
+            timeReport.printTable(System.err);
+        }
+
+        return result;
     }
 
-    private static CliCall parseCliCall(Cli cli, String[] args) {
-        Optional<CliCall> cliCall_ = cli.parse(args);
-        if (cliCall_.isPresent()) {
-            return cliCall_.get();
+    /**
+     * Executes one compiler call for each line of the given manifest in the
+     * same process and prints the result of each call. Each line contains the
+     * whitespace separated arguments of a call, e.g. only the path of a file
+     * to compile. Arguments containing whitespace can be quoted as in a shell
+     * (see Cli.splitArguments). Empty lines and lines starting with '#' are
+     * ignored.
+     *
+     * Unless a call specifies the output option, the executable of each call
+     * is written next to its source file (named after it without the .java
+     * extension), so that the calls do not overwrite each others output.
+     *
+     * Each call uses its own lexer, string table and semantic analysis state,
+     * and the Firm program is reset after each call.
+     *
+     * @param manifestPath Path of the manifest, or "-" to read from stdin
+     * @param workingDirectory the working directory of all calls
+     * @param logger the logger
+     * @return Ok if all calls succeeded, otherwise the result of the first
+     * failed call
+     */
+    private static Result batch(String manifestPath, File workingDirectory, Logger logger) {
+        List<String> lines;
+        try {
+            if (manifestPath.equals("-")) {
+                var reader = new BufferedReader(new InputStreamReader(System.in));
+                lines = reader.lines().collect(Collectors.toList());
+            } else {
+                lines = Files.readAllLines(Path.of(manifestPath));
+            }
+        } catch (IOException e) {
+            logger.error("unable to read file: %s", e.getMessage());
+
+            return Result.FileInputError;
+        }
+
+        Result batchResult = Result.Ok;
+        int calls = 0;
+        int failures = 0;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            Optional<String[]> args = Cli.splitArguments(trimmed);
+            if (args.isEmpty()) {
+                logger.error("unterminated quote or escape in batch line: %s", trimmed);
+            }
+
+            Result result;
+            try {
+                result = args.isEmpty()
+                    ? Result.CliInputError
+                    : run(args.get(), workingDirectory, false, true);
+            } catch (RuntimeException | AssertionError e) {
+                // a crash must not prevent the remaining calls
+                logger.error("internal compiler error: %s", e);
+                logger.stackTrace(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+
+                result = Result.InternalError;
+            } finally {
+                JFirmSingleton.resetProgram();
+            }
+
+            System.out.printf("[%s] %s%n", result, trimmed);
+
+            calls++;
+            if (result != Result.Ok) {
+                failures++;
+                if (batchResult == Result.Ok) {
+                    batchResult = result;
+                }
+            }
+        }
+
+        logger.info("batch finished: %d of %d calls failed", failures, calls);
+        return batchResult;
+    }
+
+    /**
+     * Returns the path of the intermediate file with the given extension. If
+     * an output path is given, the file is named after the executable,
+     * otherwise after the source file in the working directory.
+     */
+    private static String getIntermediateFile(String filePath, File workingDirectory,
+                                              Optional<String> outputPath, String extension) {
+        if (outputPath.isPresent()) {
+            return outputPath.get() + extension;
         } else {
-            System.err.println("Wrong command line arguments, see --help for supported commands.");
+            return new File(workingDirectory, new File(filePath).getName() + extension).getPath();
+        }
+    }
+
+    /**
+     * Returns the path of the executable for the given source file. If the
+     * output option is not given, the path is empty (i.e. a.out in the working
+     * directory), unless `outputPerInput` is set. In that case, the
+     * executable is written next to the source file, named after it without
+     * the .java extension.
+     */
+    private static Optional<String> getOutputPath(CliCall cliCall, File workingDirectory,
+                                                  String filePath, boolean outputPerInput) {
+        if (cliCall.hasOption(CliOptions.Output.getOption())) {
+            return Optional.of(resolvePath(workingDirectory, cliCall.getOptionArg(CliOptions.Output.getOption())));
+        } else if (outputPerInput) {
+            return Optional.of(filePath.endsWith(".java")
+                ? filePath.substring(0, filePath.length() - ".java".length())
+                : filePath + ".out");
+        } else {
+            return Optional.empty();
+        }
+    }
 
-            System.exit(Result.CliInputError.getCode());
-            return null; // never reached, necessary to please the Java compiler
+    /**
+     * Resolve the given path against the working directory, unless it is
+     * absolute.
+     */
+    private static String resolvePath(File workingDirectory, String path) {
+        var file = new File(path);
+        if (file.isAbsolute()) {
+            return path;
+        } else {
+            return new File(workingDirectory, path).getPath();
         }
     }
 
@@ -555,10 +1010,61 @@ public class JavaEasyCompiler {
         if (cliCall.hasOption(CliOptions.NoInline.getOption())) {
             debugFlags.setNoInline(true);
         }
+        if (cliCall.hasOption(CliOptions.ExternalAssembler.getOption())) {
+            debugFlags.setExternalAssembler(true);
+        }
 
         return debugFlags;
     }
 
+    private static Optional<Integer> parseJobs(CliCall cliCall) {
+        if (cliCall.hasOption(CliOptions.Jobs.getOption())) {
+            try {
+                int jobs = Integer.parseInt(cliCall.getOptionArg(CliOptions.Jobs.getOption()));
+                return jobs > 0 ? Optional.of(jobs) : Optional.empty();
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        } else {
+            return Optional.of(1);
+        }
+    }
+
+    private static Optional<Long> parseOptimizationBudget(CliCall cliCall, CliOptions option) {
+        if (cliCall.hasOption(option.getOption())) {
+            try {
+                long value = Long.parseLong(cliCall.getOptionArg(option.getOption()));
+                return value >= 0 ? Optional.of(value) : Optional.empty();
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        } else {
+            return Optional.of(OptimizationBudget.UNLIMITED);
+        }
+    }
+
+    private static Optional<AllocationStrategy> parseAllocationStrategy(CliCall cliCall) {
+        if (cliCall.hasOption(CliOptions.Allocator.getOption())) {
+            return switch (cliCall.getOptionArg(CliOptions.Allocator.getOption())) {
+                case "calloc" -> Optional.of(AllocationStrategy.Calloc);
+                case "arena" -> Optional.of(AllocationStrategy.Arena);
+                case "inline-arena" -> Optional.of(AllocationStrategy.InlineArena);
+                default -> Optional.empty();
+            };
+        } else {
+            return Optional.of(AllocationStrategy.Calloc);
+        }
+    }
+
+    private static TimeReport parseTimeReport(CliCall cliCall) {
+        if (cliCall.hasOption(CliOptions.TimeReport.getOption())
+                || cliCall.hasOption(CliOptions.TimeReportJson.getOption())) {
+            return new TimeReport();
+        } else {
+            return TimeReport.disabled();
+        }
+    }
+
     @AllArgsConstructor
     public static enum CliOptions {
         Echo(new CliOption("e", "echo", Optional.of("path"), "output file contents")),
@@ -569,15 +1075,28 @@ public class JavaEasyCompiler {
         Check(new CliOption("c", "check", Optional.of("path"), "try to parse the file contents and perform semantic analysis")),
         CompileFirm(new CliOption("f", "compile-firm", Optional.of("path"), "transform the file to Firm IR and compile it using the Firm backend")),
         Compile(new CliOption("co", "compile", Optional.of("path"), "compile the file (default)")),
+        Server(new CliOption("s", "server", Optional.of("port"), "run a compile server listening on the given local port")),
+        Batch(new CliOption("b", "batch", Optional.of("manifest"), "run one compiler call per line of the manifest (- for stdin)")),
 
         Optimize0(new CliOption("O0", "optimize0", Optional.empty(), "run (almost) no optimizations")),
         Optimize1(new CliOption("O1", "optimize1", Optional.empty(), "run standard optimizations (default)")),
 
+        Jobs(new CliOption("j", "jobs", Optional.of("count"), "number of threads used for compilation (default 1)")),
+
+        Output(new CliOption("o", "output", Optional.of("path"), "path of the executable (default a.out)")),
+
+        Allocator(new CliOption("al", "allocator", Optional.of("name"), "allocator for objects and arrays: calloc (default), arena or inline-arena")),
+
         Verbose(new CliOption("v", "verbose", Optional.empty(), "be more verbose")),
         Debug(new CliOption("d", "debug", Optional.empty(), "print debug information")),
 
         DumpGraphs(new CliOption("dg", "dump-graphs", Optional.empty(), "dump the Firm graphs of all methods")),
         NoInline(new CliOption("ni", "no-inline", Optional.empty(), "disable the inline optimization")),
+        ExternalAssembler(new CliOption("ea", "external-assembler", Optional.empty(), "write an assembly file and assemble it with gcc")),
+        TimeReport(new CliOption("tr", "time-report", Optional.empty(), "print the time spent in each compiler phase")),
+        TimeReportJson(new CliOption("trj", "time-report-json", Optional.empty(), "print the time spent in each compiler phase as JSON")),
+        OptimizationFuel(new CliOption("of", "optimization-fuel", Optional.of("count"), "stop optimizing after the given number of transformations")),
+        OptimizationTimeLimit(new CliOption("ot", "optimization-time-limit", Optional.of("ms"), "stop optimizing after the given number of milliseconds")),
 
         Help(new CliOption("h", "help", Optional.empty(), "print command line syntax help"));
 
@@ -596,19 +1115,35 @@ public class JavaEasyCompiler {
             CliOptions.PrintAst.getOption(),
             CliOptions.Check.getOption(),
             CliOptions.CompileFirm.getOption(),
-            CliOptions.Compile.getOption()
+            CliOptions.Compile.getOption(),
+            CliOptions.Server.getOption(),
+            CliOptions.Batch.getOption()
         ))),
         OptimizationLevel(new CliOptionGroup("Optimization Level", true, Arrays.asList(
             CliOptions.Optimize0.getOption(),
             CliOptions.Optimize1.getOption()
         ))),
+        Parallelism(new CliOptionGroup("Parallelism", false, Arrays.asList(
+            CliOptions.Jobs.getOption()
+        ))),
+        Output(new CliOptionGroup("Output", false, Arrays.asList(
+            CliOptions.Output.getOption()
+        ))),
+        RuntimeLibrary(new CliOptionGroup("Runtime", false, Arrays.asList(
+            CliOptions.Allocator.getOption()
+        ))),
         OutputVerbosity(new CliOptionGroup("Output Verbosity", true, Arrays.asList(
             CliOptions.Verbose.getOption(),
             CliOptions.Debug.getOption()
         ))),
         DebugOptions(new CliOptionGroup("Debug Options", false, Arrays.asList(
             CliOptions.DumpGraphs.getOption(),
-            CliOptions.NoInline.getOption()
+            CliOptions.NoInline.getOption(),
+            CliOptions.ExternalAssembler.getOption(),
+            CliOptions.TimeReport.getOption(),
+            CliOptions.TimeReportJson.getOption(),
+            CliOptions.OptimizationFuel.getOption(),
+            CliOptions.OptimizationTimeLimit.getOption()
         ))),
         Help(new CliOptionGroup("Help", false, Arrays.asList(
             CliOptions.Help.getOption()
@@ -12,7 +12,9 @@ public enum Result {
     SemanticError(1),
     StandardLibraryError(1),
     GccError(1),
-    TransformError(1);
+    TransformError(1),
+    ServerError(1),
+    InternalError(1);
 
     /**
      * @param code The exit code associated with this Result
@@ -0,0 +1,261 @@
+package edu.kit.compiler.assembly;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.compiler.assembly.X86Encoder.EncodedFunction;
+import edu.kit.compiler.assembly.X86Encoder.Relocation;
+
+/**
+ * Writes a relocatable x86-64 ELF object file containing the given functions,
+ * using the built-in X86Encoder instead of an external assembler.
+ *
+ * The object file contains a single text section with all functions, which
+ * are global symbols. Calls to other functions (including functions of the
+ * standard library) and accesses to global variables of the standard library
+ * are resolved by the linker.
+ */
+public class ElfObjectWriter implements AssemblyWriter {
+
+    private static final int FUNCTION_ALIGNMENT = 16;
+
+    private static final int ELF_HEADER_SIZE = 64;
+    private static final int SECTION_HEADER_SIZE = 64;
+    private static final int SYMBOL_SIZE = 24;
+    private static final int RELOCATION_SIZE = 24;
+
+    private static final int SHT_PROGBITS = 1;
+    private static final int SHT_SYMTAB = 2;
+    private static final int SHT_STRTAB = 3;
+    private static final int SHT_RELA = 4;
+    private static final int SHF_ALLOC = 0x2;
+    private static final int SHF_EXECINSTR = 0x4;
+    private static final int SHF_INFO_LINK = 0x40;
+
+    private static final int STB_LOCAL = 0;
+    private static final int STB_GLOBAL = 1;
+    private static final int STT_NOTYPE = 0;
+    private static final int STT_FUNC = 2;
+    private static final int STT_SECTION = 3;
+
+    private static final int R_X86_64_PC32 = 2;
+    private static final int R_X86_64_PLT32 = 4;
+
+    // section indices, in the order the sections are written
+    private static final int TEXT = 1;
+    private static final int RELA_TEXT = 2;
+    private static final int SYMTAB = 3;
+    private static final int STRTAB = 4;
+    private static final int NOTE_GNU_STACK = 5;
+    private static final int SHSTRTAB = 6;
+    private static final int SECTION_COUNT = 7;
+
+    /**
+     * Encode the given functions and write them to the given OutputStream as
+     * ELF object file.
+     *
+     * @throws IllegalArgumentException if an instruction can not be encoded
+     */
+    @Override
+    public void writeAssembly(Iterable<FunctionInstructions> functions, OutputStream writer) {
+        var encoder = new X86Encoder();
+        List<EncodedFunction> encoded = new ArrayList<>();
+        for (FunctionInstructions function : functions) {
+            encoded.add(encoder.encode(function));
+        }
+
+        try {
+            writer.write(writeObject(encoded));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] writeObject(List<EncodedFunction> functions) {
+        // lay out the text section
+        var text = new ByteArrayOutputStream();
+        Map<String, Integer> offsets = new LinkedHashMap<>();
+        for (EncodedFunction function : functions) {
+            while (text.size() % FUNCTION_ALIGNMENT != 0) {
+                text.write(0x90);
+            }
+            offsets.put(function.getLdName(), text.size());
+            text.writeBytes(function.getCode());
+        }
+
+        // symbols: null symbol, text section, defined functions, undefined symbols
+        var strtab = new StringTable();
+        Map<String, Integer> symbolIndices = new LinkedHashMap<>();
+        List<byte[]> symbols = new ArrayList<>();
+        symbols.add(symbol(0, STB_LOCAL, STT_NOTYPE, 0, 0, 0));
+        symbols.add(symbol(0, STB_LOCAL, STT_SECTION, TEXT, 0, 0));
+        int firstGlobal = symbols.size();
+        for (EncodedFunction function : functions) {
+            symbolIndices.put(function.getLdName(), symbols.size());
+            symbols.add(symbol(strtab.add(function.getLdName()), STB_GLOBAL, STT_FUNC, TEXT,
+                offsets.get(function.getLdName()), function.getCode().length));
+        }
+        for (EncodedFunction function : functions) {
+            for (Relocation relocation : function.getRelocations()) {
+                if (!symbolIndices.containsKey(relocation.getSymbol())) {
+                    symbolIndices.put(relocation.getSymbol(), symbols.size());
+                    symbols.add(symbol(strtab.add(relocation.getSymbol()), STB_GLOBAL, STT_NOTYPE, 0, 0, 0));
+                }
+            }
+        }
+        var symtab = ByteBuffer.allocate(symbols.size() * SYMBOL_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        symbols.forEach(symtab::put);
+
+        List<byte[]> relocations = new ArrayList<>();
+        for (EncodedFunction function : functions) {
+            int base = offsets.get(function.getLdName());
+            for (Relocation relocation : function.getRelocations()) {
+                var entry = ByteBuffer.allocate(RELOCATION_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                entry.putLong(base + relocation.getOffset());
+                int type = switch (relocation.getKind()) {
+                    case Call -> R_X86_64_PLT32;
+                    case Data -> R_X86_64_PC32;
+                };
+                entry.putLong((long) symbolIndices.get(relocation.getSymbol()) << 32 | type);
+                entry.putLong(relocation.getAddend());
+                relocations.add(entry.array());
+            }
+        }
+        var rela = ByteBuffer.allocate(relocations.size() * RELOCATION_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        relocations.forEach(rela::put);
+
+        var shstrtab = new StringTable();
+        int[] names = new int[SECTION_COUNT];
+        names[TEXT] = shstrtab.add(".text");
+        names[RELA_TEXT] = shstrtab.add(".rela.text");
+        names[SYMTAB] = shstrtab.add(".symtab");
+        names[STRTAB] = shstrtab.add(".strtab");
+        names[NOTE_GNU_STACK] = shstrtab.add(".note.GNU-stack");
+        names[SHSTRTAB] = shstrtab.add(".shstrtab");
+
+        // compute the file layout
+        byte[][] contents = new byte[SECTION_COUNT][];
+        contents[TEXT] = text.toByteArray();
+        contents[RELA_TEXT] = rela.array();
+        contents[SYMTAB] = symtab.array();
+        contents[STRTAB] = strtab.toByteArray();
+        contents[NOTE_GNU_STACK] = new byte[0];
+        contents[SHSTRTAB] = shstrtab.toByteArray();
+
+        int[] fileOffsets = new int[SECTION_COUNT];
+        int size = ELF_HEADER_SIZE;
+        for (int i = 1; i < SECTION_COUNT; ++i) {
+            size = align(size, i == TEXT ? FUNCTION_ALIGNMENT : 8);
+            fileOffsets[i] = size;
+            size += contents[i].length;
+        }
+        int sectionHeaders = align(size, 8);
+        size = sectionHeaders + SECTION_COUNT * SECTION_HEADER_SIZE;
+
+        var output = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        writeElfHeader(output, sectionHeaders);
+        for (int i = 1; i < SECTION_COUNT; ++i) {
+            output.position(fileOffsets[i]);
+            output.put(contents[i]);
+        }
+
+        output.position(sectionHeaders + SECTION_HEADER_SIZE);
+        writeSectionHeader(output, names[TEXT], SHT_PROGBITS, SHF_ALLOC | SHF_EXECINSTR,
+            fileOffsets[TEXT], contents[TEXT].length, 0, 0, FUNCTION_ALIGNMENT, 0);
+        writeSectionHeader(output, names[RELA_TEXT], SHT_RELA, SHF_INFO_LINK,
+            fileOffsets[RELA_TEXT], contents[RELA_TEXT].length, SYMTAB, TEXT, 8, RELOCATION_SIZE);
+        writeSectionHeader(output, names[SYMTAB], SHT_SYMTAB, 0,
+            fileOffsets[SYMTAB], contents[SYMTAB].length, STRTAB, firstGlobal, 8, SYMBOL_SIZE);
+        writeSectionHeader(output, names[STRTAB], SHT_STRTAB, 0,
+            fileOffsets[STRTAB], contents[STRTAB].length, 0, 0, 1, 0);
+        writeSectionHeader(output, names[NOTE_GNU_STACK], SHT_PROGBITS, 0,
+            fileOffsets[NOTE_GNU_STACK], 0, 0, 0, 1, 0);
+        writeSectionHeader(output, names[SHSTRTAB], SHT_STRTAB, 0,
+            fileOffsets[SHSTRTAB], contents[SHSTRTAB].length, 0, 0, 1, 0);
+
+        return output.array();
+    }
+
+    private static void writeElfHeader(ByteBuffer output, int sectionHeaders) {
+        output.put(new byte[] { 0x7f, 'E', 'L', 'F' });
+        output.put((byte) 2); // 64 bit
+        output.put((byte) 1); // little endian
+        output.put((byte) 1); // ELF version
+        output.put((byte) 0); // System V ABI
+        output.put(new byte[8]);
+        output.putShort((short) 1); // relocatable file
+        output.putShort((short) 62); // x86-64
+        output.putInt(1); // ELF version
+        output.putLong(0); // entry point
+        output.putLong(0); // program headers
+        output.putLong(sectionHeaders);
+        output.putInt(0); // flags
+        output.putShort((short) ELF_HEADER_SIZE);
+        output.putShort((short) 0); // program header size
+        output.putShort((short) 0); // number of program headers
+        output.putShort((short) SECTION_HEADER_SIZE);
+        output.putShort((short) SECTION_COUNT);
+        output.putShort((short) SHSTRTAB);
+    }
+
+    private static void writeSectionHeader(ByteBuffer output, int name, int type, long flags,
+            long offset, long size, int link, int info, long alignment, long entrySize) {
+        output.putInt(name);
+        output.putInt(type);
+        output.putLong(flags);
+        output.putLong(0); // address
+        output.putLong(offset);
+        output.putLong(size);
+        output.putInt(link);
+        output.putInt(info);
+        output.putLong(alignment);
+        output.putLong(entrySize);
+    }
+
+    private static byte[] symbol(int name, int binding, int type, int section, long value, long size) {
+        var symbol = ByteBuffer.allocate(SYMBOL_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        symbol.putInt(name);
+        symbol.put((byte) (binding << 4 | type));
+        symbol.put((byte) 0); // default visibility
+        symbol.putShort((short) section);
+        symbol.putLong(value);
+        symbol.putLong(size);
+        return symbol.array();
+    }
+
+    private static int align(int value, int alignment) {
+        return (value + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * Section containing null terminated strings, starting with the empty
+     * string.
+     */
+    private static final class StringTable {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        StringTable() {
+            bytes.write(0);
+        }
+
+        int add(String string) {
+            int index = bytes.size();
+            bytes.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+            bytes.write(0);
+            return index;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,830 @@
+package edu.kit.compiler.assembly;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.compiler.intermediate_lang.RegisterSize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Encodes the instructions of a function, given in AT&T syntax as produced by
+ * the register allocation, to x86-64 machine code.
+ *
+ * Only the subset of instructions and operand combinations used by the code
+ * generation is supported. Any other instruction results in an
+ * IllegalArgumentException. Jumps to labels must stay within the function and
+ * are encoded with the shortest possible displacement. Calls are encoded with a
+ * relocation against the called symbol, as are accesses to global variables
+ * relative to the instruction pointer (`symbol(%rip)`).
+ */
+public class X86Encoder {
+
+    private static final Map<String, Integer> REGISTERS = new HashMap<>();
+    private static final Map<String, RegisterSize> REGISTER_SIZES = new HashMap<>();
+    private static final Map<String, Integer> CONDITIONS = new HashMap<>();
+
+    static {
+        String[][] names = {
+            { "%al", "%ax", "%eax", "%rax" },
+            { "%cl", "%cx", "%ecx", "%rcx" },
+            { "%dl", "%dx", "%edx", "%rdx" },
+            { "%bl", "%bx", "%ebx", "%rbx" },
+            { "%spl", "%sp", "%esp", "%rsp" },
+            { "%bpl", "%bp", "%ebp", "%rbp" },
+            { "%sil", "%si", "%esi", "%rsi" },
+            { "%dil", "%di", "%edi", "%rdi" },
+        };
+        RegisterSize[] sizes = RegisterSize.values();
+        for (int i = 0; i < names.length; ++i) {
+            for (int j = 0; j < sizes.length; ++j) {
+                REGISTERS.put(names[i][j], i);
+                REGISTER_SIZES.put(names[i][j], sizes[j]);
+            }
+        }
+        for (int i = 8; i < 16; ++i) {
+            String[] extended = { "%r" + i + "b", "%r" + i + "w", "%r" + i + "d", "%r" + i };
+            for (int j = 0; j < sizes.length; ++j) {
+                REGISTERS.put(extended[j], i);
+                REGISTER_SIZES.put(extended[j], sizes[j]);
+            }
+        }
+
+        String[][] conditions = {
+            { "o" }, { "no" }, { "b", "c", "nae" }, { "ae", "nb", "nc" },
+            { "e", "z" }, { "ne", "nz" }, { "be", "na" }, { "a", "nbe" },
+            { "s" }, { "ns" }, { "p", "pe" }, { "np", "po" },
+            { "l", "nge" }, { "ge", "nl" }, { "le", "ng" }, { "g", "nle" },
+        };
+        for (int i = 0; i < conditions.length; ++i) {
+            for (String condition : conditions[i]) {
+                CONDITIONS.put(condition, i);
+            }
+        }
+    }
+
+    /**
+     * Extension of the ModRM byte for the arithmetic instructions with an
+     * immediate operand (0x80, 0x81, 0x83). The opcodes of the variants with
+     * register operands are derived from the extension.
+     */
+    private static final Map<String, Integer> ARITHMETIC = Map.of(
+        "add", 0, "or", 1, "adc", 2, "sbb", 3,
+        "and", 4, "sub", 5, "xor", 6, "cmp", 7
+    );
+
+    private static final Map<String, Integer> SHIFTS = Map.of(
+        "rol", 0, "ror", 1, "shl", 4, "sal", 4, "shr", 5, "sar", 7
+    );
+
+    private static final Map<String, Integer> UNARY = Map.of(
+        "not", 2, "neg", 3, "mul", 4, "div", 6, "idiv", 7
+    );
+
+    private static final Map<String, byte[]> NO_OPERANDS = Map.of(
+        "cltd", new byte[] { (byte) 0x99 },
+        "cqto", new byte[] { 0x48, (byte) 0x99 },
+        "cltq", new byte[] { 0x48, (byte) 0x98 },
+        "leave", new byte[] { (byte) 0xc9 },
+        "ret", new byte[] { (byte) 0xc3 },
+        "nop", new byte[] { (byte) 0x90 }
+    );
+
+    /**
+     * Encode the given function.
+     */
+    public EncodedFunction encode(FunctionInstructions function) {
+        List<Item> items = new ArrayList<>();
+        for (String line : function.getInstructions()) {
+            String text = stripComment(line);
+            if (text.isEmpty()) {
+                continue;
+            } else if (text.endsWith(":")) {
+                items.add(Item.label(text.substring(0, text.length() - 1)));
+            } else {
+                try {
+                    items.add(encodeInstruction(text));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(String.format(
+                        "%s: unable to encode '%s': %s", function.getLdName(), text, e.getMessage()));
+                }
+            }
+        }
+
+        return layout(function.getLdName(), items);
+    }
+
+    /**
+     * Determine the size of all jumps and assign the final offsets. All jumps
+     * start out short and are only made long if their target is out of range.
+     * As jumps only ever grow, this terminates.
+     */
+    private static EncodedFunction layout(String name, List<Item> items) {
+        Map<String, Integer> labels = new HashMap<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            labels.clear();
+            int offset = 0;
+            for (Item item : items) {
+                if (item.label != null) {
+                    if (labels.put(item.label, offset) != null) {
+                        throw new IllegalArgumentException(String.format(
+                            "%s: duplicate label %s", name, item.label));
+                    }
+                }
+                offset += item.getSize();
+            }
+
+            offset = 0;
+            for (Item item : items) {
+                offset += item.getSize();
+                if (item.jumpTarget != null && !item.longJump) {
+                    Integer target = labels.get(item.jumpTarget);
+                    if (target == null) {
+                        throw new IllegalArgumentException(String.format(
+                            "%s: unknown label %s", name, item.jumpTarget));
+                    }
+                    if (!fitsByte(target - offset)) {
+                        item.longJump = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        var code = new ByteArrayOutputStream();
+        List<Relocation> relocations = new ArrayList<>();
+        for (Item item : items) {
+            int end = code.size() + item.getSize();
+            if (item.jumpTarget != null) {
+                int displacement = labels.get(item.jumpTarget) - end;
+                int condition = item.condition;
+                if (!item.longJump) {
+                    code.write(condition < 0 ? 0xeb : 0x70 + condition);
+                    code.write(displacement);
+                } else {
+                    if (condition < 0) {
+                        code.write(0xe9);
+                    } else {
+                        code.write(0x0f);
+                        code.write(0x80 + condition);
+                    }
+                    writeInt(code, displacement);
+                }
+            } else if (item.callTarget != null) {
+                code.write(0xe8);
+                relocations.add(new Relocation(code.size(), item.callTarget, -4, Relocation.Kind.Call));
+                writeInt(code, 0);
+            } else if (item.bytes != null) {
+                if (item.dataSymbol != null) {
+                    relocations.add(new Relocation(code.size() + item.dataOffset, item.dataSymbol,
+                        item.dataOffset - item.bytes.length, Relocation.Kind.Data));
+                }
+                code.writeBytes(item.bytes);
+            }
+        }
+
+        return new EncodedFunction(name, code.toByteArray(), relocations);
+    }
+
+    private static String stripComment(String line) {
+        int comment = line.indexOf('#');
+        return (comment < 0 ? line : line.substring(0, comment)).trim();
+    }
+
+    private Item encodeInstruction(String text) {
+        int space = text.indexOf(' ');
+        String mnemonic = space < 0 ? text : text.substring(0, space);
+        List<Operand> operands = space < 0 ? List.of() : parseOperands(text.substring(space + 1));
+
+        if (mnemonic.equals("call")) {
+            expectOperands(operands, 1);
+            return Item.call(operands.get(0).asSymbol());
+        } else if (mnemonic.equals("jmp")) {
+            expectOperands(operands, 1);
+            return Item.jump(-1, operands.get(0).asSymbol());
+        } else if (mnemonic.startsWith("j") && CONDITIONS.containsKey(mnemonic.substring(1))) {
+            expectOperands(operands, 1);
+            return Item.jump(CONDITIONS.get(mnemonic.substring(1)), operands.get(0).asSymbol());
+        } else if (NO_OPERANDS.containsKey(mnemonic)) {
+            expectOperands(operands, 0);
+            return Item.bytes(NO_OPERANDS.get(mnemonic));
+        }
+
+        var out = new Encoding();
+        if (mnemonic.equals("movslq")) {
+            expectOperands(operands, 2);
+            out.modRM(RegisterSize.QUAD, operands.get(1).asRegister(), operands.get(0), 0x63);
+        } else if (mnemonic.startsWith("set") && CONDITIONS.containsKey(mnemonic.substring(3))) {
+            expectOperands(operands, 1);
+            out.modRM(RegisterSize.BYTE, 0, operands.get(0), 0x0f, 0x90 + CONDITIONS.get(mnemonic.substring(3)));
+        } else if (mnemonic.startsWith("cmov") && CONDITIONS.containsKey(mnemonic.substring(4, mnemonic.length() - 1))) {
+            expectOperands(operands, 2);
+            var size = getSize(mnemonic.charAt(mnemonic.length() - 1));
+            int condition = CONDITIONS.get(mnemonic.substring(4, mnemonic.length() - 1));
+            out.modRM(size, operands.get(1).asRegister(), operands.get(0), 0x0f, 0x40 + condition);
+        } else {
+            // the size suffix is optional if it can be derived from a register
+            String base = mnemonic;
+            RegisterSize size;
+            if (isKnown(mnemonic)) {
+                size = getSize(operands);
+            } else {
+                base = mnemonic.substring(0, mnemonic.length() - 1);
+                if (!isKnown(base)) {
+                    throw new IllegalArgumentException("unsupported instruction");
+                }
+                size = getSize(mnemonic.charAt(mnemonic.length() - 1));
+            }
+            encodeSized(out, base, size, operands);
+        }
+
+        var item = Item.bytes(out.toByteArray());
+        item.dataSymbol = out.dataSymbol;
+        item.dataOffset = out.dataOffset;
+        return item;
+    }
+
+    private static boolean isKnown(String base) {
+        return ARITHMETIC.containsKey(base) || SHIFTS.containsKey(base) || UNARY.containsKey(base)
+            || base.equals("mov") || base.equals("test") || base.equals("lea") || base.equals("imul")
+            || base.equals("push") || base.equals("pop") || base.equals("inc") || base.equals("dec");
+    }
+
+    private static void encodeSized(Encoding out, String base, RegisterSize size, List<Operand> operands) {
+        if (ARITHMETIC.containsKey(base)) {
+            expectOperands(operands, 2);
+            int extension = ARITHMETIC.get(base);
+            var source = operands.get(0);
+            var target = operands.get(1);
+            if (source.isImmediate()) {
+                long value = source.immediate;
+                if (size == RegisterSize.BYTE) {
+                    if (target.isRegister(0)) {
+                        out.prefixes(size, 0, target).write(extension * 8 + 4).immediate(value, size);
+                    } else {
+                        out.modRM(size, extension, target, 0x80).immediate(value, size);
+                    }
+                } else if (fitsByte(value)) {
+                    out.modRM(size, extension, target, 0x83).immediate(value, RegisterSize.BYTE);
+                } else if (target.isRegister(0)) {
+                    out.prefixes(size, 0, target).write(extension * 8 + 5).immediate(value, size);
+                } else {
+                    out.modRM(size, extension, target, 0x81).immediate(value, size);
+                }
+            } else if (source.isRegister()) {
+                out.modRM(size, source, target, extension * 8 + (size == RegisterSize.BYTE ? 0 : 1));
+            } else {
+                out.modRM(size, target.asRegister(), source, extension * 8 + (size == RegisterSize.BYTE ? 2 : 3));
+            }
+        } else if (SHIFTS.containsKey(base)) {
+            int extension = SHIFTS.get(base);
+            int opcode = size == RegisterSize.BYTE ? 0 : 1;
+            if (operands.size() == 1) {
+                out.modRM(size, extension, operands.get(0), 0xd0 + opcode);
+            } else {
+                expectOperands(operands, 2);
+                var count = operands.get(0);
+                if (count.isRegister(1) && count.size == RegisterSize.BYTE) {
+                    out.modRM(size, extension, operands.get(1), 0xd2 + opcode);
+                } else if (count.asImmediate() == 1) {
+                    out.modRM(size, extension, operands.get(1), 0xd0 + opcode);
+                } else {
+                    out.modRM(size, extension, operands.get(1), 0xc0 + opcode)
+                        .immediate(count.immediate, RegisterSize.BYTE);
+                }
+            }
+        } else if (UNARY.containsKey(base)) {
+            expectOperands(operands, 1);
+            out.modRM(size, UNARY.get(base), operands.get(0), size == RegisterSize.BYTE ? 0xf6 : 0xf7);
+        } else if (base.equals("inc") || base.equals("dec")) {
+            expectOperands(operands, 1);
+            out.modRM(size, base.equals("inc") ? 0 : 1, operands.get(0), size == RegisterSize.BYTE ? 0xfe : 0xff);
+        } else if (base.equals("mov")) {
+            expectOperands(operands, 2);
+            var source = operands.get(0);
+            var target = operands.get(1);
+            if (source.isImmediate()) {
+                long value = source.immediate;
+                if (target.isRegister() && (size != RegisterSize.QUAD || !fitsInt(value))) {
+                    int opcode = (size == RegisterSize.BYTE ? 0xb0 : 0xb8) + (target.register & 7);
+                    out.prefixes(size, 0, target).write(opcode).immediate(value, size == RegisterSize.QUAD ? null : size);
+                } else {
+                    out.modRM(size, 0, target, size == RegisterSize.BYTE ? 0xc6 : 0xc7).immediate(value, size);
+                }
+            } else if (source.isRegister()) {
+                out.modRM(size, source, target, size == RegisterSize.BYTE ? 0x88 : 0x89);
+            } else {
+                out.modRM(size, target.asRegister(), source, size == RegisterSize.BYTE ? 0x8a : 0x8b);
+            }
+        } else if (base.equals("test")) {
+            expectOperands(operands, 2);
+            var source = operands.get(0);
+            var target = operands.get(1);
+            int opcode = size == RegisterSize.BYTE ? 0 : 1;
+            if (source.isImmediate()) {
+                if (target.isRegister(0)) {
+                    out.prefixes(size, 0, target).write(0xa8 + opcode).immediate(source.immediate, size);
+                } else {
+                    out.modRM(size, 0, target, 0xf6 + opcode).immediate(source.immediate, size);
+                }
+            } else if (source.isRegister()) {
+                out.modRM(size, source, target, 0x84 + opcode);
+            } else {
+                out.modRM(size, target.asRegister(), source, 0x84 + opcode);
+            }
+        } else if (base.equals("lea")) {
+            expectOperands(operands, 2);
+            if (!operands.get(0).isMemory()) {
+                throw new IllegalArgumentException("lea requires a memory operand");
+            }
+            out.modRM(size, operands.get(1).asRegister(), operands.get(0), 0x8d);
+        } else if (base.equals("imul")) {
+            if (operands.size() == 2 && !operands.get(0).isImmediate()) {
+                out.modRM(size, operands.get(1).asRegister(), operands.get(0), 0x0f, 0xaf);
+            } else {
+                // `imul $imm, %reg` is a short form of `imul $imm, %reg, %reg`
+                if (operands.size() != 2) {
+                    expectOperands(operands, 3);
+                }
+                var source = operands.get(1);
+                var target = operands.get(operands.size() - 1);
+                long value = operands.get(0).asImmediate();
+                if (fitsByte(value)) {
+                    out.modRM(size, target.asRegister(), source, 0x6b).immediate(value, RegisterSize.BYTE);
+                } else {
+                    out.modRM(size, target.asRegister(), source, 0x69).immediate(value, size);
+                }
+            }
+        } else if (base.equals("push") || base.equals("pop")) {
+            expectOperands(operands, 1);
+            var operand = operands.get(0);
+            boolean push = base.equals("push");
+            if (operand.isImmediate()) {
+                if (!push) {
+                    throw new IllegalArgumentException("pop requires a register or memory operand");
+                } else if (fitsByte(operand.immediate)) {
+                    out.write(0x6a).immediate(operand.immediate, RegisterSize.BYTE);
+                } else {
+                    out.write(0x68).immediate(operand.immediate, RegisterSize.DOUBLE);
+                }
+            } else if (operand.isRegister()) {
+                // the operand size of push and pop defaults to 64 bits
+                out.prefixes(RegisterSize.DOUBLE, 0, operand).write((push ? 0x50 : 0x58) + (operand.register & 7));
+            } else {
+                out.modRM(RegisterSize.DOUBLE, push ? 6 : 0, operand, push ? 0xff : 0x8f);
+            }
+        } else {
+            throw new IllegalArgumentException("unsupported instruction");
+        }
+    }
+
+    private static RegisterSize getSize(char suffix) {
+        for (RegisterSize size : RegisterSize.values()) {
+            if (size.getSuffix() == suffix) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("unknown size suffix");
+    }
+
+    private static RegisterSize getSize(List<Operand> operands) {
+        for (Operand operand : operands) {
+            if (operand.isRegister()) {
+                return operand.size;
+            }
+        }
+        throw new IllegalArgumentException("unable to determine operand size");
+    }
+
+    private static void expectOperands(List<Operand> operands, int count) {
+        if (operands.size() != count) {
+            throw new IllegalArgumentException(String.format("expected %d operands", count));
+        }
+    }
+
+    private static List<Operand> parseOperands(String text) {
+        // commas inside of parentheses separate the parts of a memory operand
+        List<Operand> operands = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                operands.add(Operand.parse(text.substring(start, i).trim()));
+                start = i + 1;
+            }
+        }
+        operands.add(Operand.parse(text.substring(start).trim()));
+        return operands;
+    }
+
+    private static boolean fitsByte(long value) {
+        return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+    }
+
+    private static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, long value) {
+        for (int i = 0; i < 4; ++i) {
+            out.write((int) (value >> (8 * i)));
+        }
+    }
+
+    /**
+     * Represents the machine code of a function and the relocations required
+     * for calls to other functions.
+     */
+    @AllArgsConstructor
+    public static final class EncodedFunction {
+        @Getter
+        private final String ldName;
+        @Getter
+        private final byte[] code;
+        @Getter
+        private final List<Relocation> relocations;
+    }
+
+    /**
+     * Represents a PC relative reference to a symbol at the given offset
+     * within the machine code of a function.
+     */
+    @AllArgsConstructor
+    public static final class Relocation {
+        @Getter
+        private final int offset;
+        @Getter
+        private final String symbol;
+        @Getter
+        private final long addend;
+        @Getter
+        private final Kind kind;
+
+        public enum Kind {
+            /**
+             * The target of a call, i.e. a function.
+             */
+            Call,
+            /**
+             * The address of a global variable.
+             */
+            Data
+        }
+    }
+
+    /**
+     * A label, a jump, a call or the encoding of any other instruction.
+     */
+    private static final class Item {
+        private String label;
+        private String jumpTarget;
+        private int condition;
+        private boolean longJump;
+        private String callTarget;
+        private byte[] bytes;
+        // instruction pointer relative reference within the bytes, if any
+        private String dataSymbol;
+        private int dataOffset;
+
+        static Item label(String label) {
+            var item = new Item();
+            item.label = label;
+            return item;
+        }
+
+        static Item jump(int condition, String target) {
+            var item = new Item();
+            item.condition = condition;
+            item.jumpTarget = target;
+            return item;
+        }
+
+        static Item call(String target) {
+            var item = new Item();
+            item.callTarget = target;
+            return item;
+        }
+
+        static Item bytes(byte[] bytes) {
+            var item = new Item();
+            item.bytes = bytes;
+            return item;
+        }
+
+        int getSize() {
+            if (jumpTarget != null) {
+                return !longJump ? 2 : condition < 0 ? 5 : 6;
+            } else if (callTarget != null) {
+                return 5;
+            } else if (bytes != null) {
+                return bytes.length;
+            } else {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * An operand in AT&T syntax: a register, an immediate, a memory location
+     * of the form `disp(base,index,scale)` or `symbol(%rip)`, or a symbol.
+     */
+    private static final class Operand {
+        private int register = -1;
+        private RegisterSize size;
+        private boolean requiresRex;
+
+        private Long immediate;
+
+        private boolean memory;
+        private long displacement;
+        private int base = -1;
+        private int index = -1;
+        private int scale = 1;
+        private String ripSymbol;
+
+        private String symbol;
+
+        static Operand parse(String text) {
+            var operand = new Operand();
+            if (text.startsWith("%")) {
+                operand.register = parseRegister(text);
+                operand.size = REGISTER_SIZES.get(text);
+                // accessing the low byte of these registers requires a REX prefix
+                operand.requiresRex = text.equals("%spl") || text.equals("%bpl")
+                    || text.equals("%sil") || text.equals("%dil");
+            } else if (text.startsWith("$")) {
+                operand.immediate = parseNumber(text.substring(1));
+            } else if (text.endsWith(")")) {
+                int open = text.indexOf('(');
+                operand.memory = true;
+                if (text.substring(open + 1).equals("%rip)")) {
+                    if (open <= 0) {
+                        throw new IllegalArgumentException("expected a symbol");
+                    }
+                    operand.ripSymbol = text.substring(0, open);
+                    return operand;
+                }
+                if (open > 0) {
+                    operand.displacement = parseNumber(text.substring(0, open));
+                }
+                String[] parts = text.substring(open + 1, text.length() - 1).split(",", -1);
+                if (!parts[0].isBlank()) {
+                    operand.base = parseAddressRegister(parts[0].trim());
+                }
+                if (parts.length > 1) {
+                    operand.index = parseAddressRegister(parts[1].trim());
+                    if (operand.index == 4) {
+                        throw new IllegalArgumentException("%rsp can not be used as index");
+                    }
+                }
+                if (parts.length > 2) {
+                    operand.scale = (int) parseNumber(parts[2].trim());
+                    if (Integer.bitCount(operand.scale) != 1 || operand.scale > 8) {
+                        throw new IllegalArgumentException("invalid scale");
+                    }
+                }
+                if (parts.length > 3 || (operand.base < 0 && operand.index < 0 && open < 0)) {
+                    throw new IllegalArgumentException("invalid memory operand");
+                }
+            } else if (!text.isEmpty()) {
+                operand.symbol = text.startsWith("\"") && text.endsWith("\"") && text.length() > 1
+                    ? text.substring(1, text.length() - 1) : text;
+            } else {
+                throw new IllegalArgumentException("missing operand");
+            }
+            return operand;
+        }
+
+        private static int parseRegister(String text) {
+            Integer register = REGISTERS.get(text);
+            if (register == null) {
+                throw new IllegalArgumentException("unknown register " + text);
+            }
+            return register;
+        }
+
+        private static int parseAddressRegister(String text) {
+            if (REGISTER_SIZES.get(text) != RegisterSize.QUAD) {
+                throw new IllegalArgumentException("address registers must be 64 bit registers");
+            }
+            return parseRegister(text);
+        }
+
+        private static long parseNumber(String text) {
+            try {
+                return Long.decode(text.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid number " + text);
+            }
+        }
+
+        boolean isRegister() {
+            return register >= 0;
+        }
+
+        boolean isRegister(int number) {
+            return register == number;
+        }
+
+        boolean isImmediate() {
+            return immediate != null;
+        }
+
+        boolean isMemory() {
+            return memory;
+        }
+
+        Operand asRegister() {
+            if (!isRegister()) {
+                throw new IllegalArgumentException("expected a register operand");
+            }
+            return this;
+        }
+
+        long asImmediate() {
+            if (!isImmediate()) {
+                throw new IllegalArgumentException("expected an immediate operand");
+            }
+            return immediate;
+        }
+
+        String asSymbol() {
+            if (symbol == null) {
+                throw new IllegalArgumentException("expected a symbol");
+            }
+            return symbol;
+        }
+    }
+
+    /**
+     * Builds the encoding of a single instruction.
+     */
+    private static final class Encoding {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private String dataSymbol;
+        private int dataOffset;
+
+        Encoding write(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        /**
+         * Write the operand size prefix and the REX prefix if required for an
+         * instruction with the given value in the reg field of the ModRM byte
+         * and the given operand in the r/m field.
+         */
+        Encoding prefixes(RegisterSize size, int reg, Operand rm) {
+            return prefixes(size, reg, false, rm);
+        }
+
+        private Encoding prefixes(RegisterSize size, int reg, boolean regRequiresRex, Operand rm) {
+            if (size == RegisterSize.WORD) {
+                write(0x66);
+            }
+
+            int rex = 0;
+            if (size == RegisterSize.QUAD) {
+                rex |= 0x08;
+            }
+            if (reg >= 8) {
+                rex |= 0x04;
+            }
+            if (rm.isMemory()) {
+                if (rm.index >= 8) {
+                    rex |= 0x02;
+                }
+                if (rm.base >= 8) {
+                    rex |= 0x01;
+                }
+            } else if (rm.isRegister()) {
+                if (rm.register >= 8) {
+                    rex |= 0x01;
+                }
+            } else {
+                throw new IllegalArgumentException("expected a register or memory operand");
+            }
+
+            boolean byteRegister = size == RegisterSize.BYTE && (regRequiresRex || rm.requiresRex);
+            if (rex != 0 || byteRegister) {
+                write(0x40 | rex);
+            }
+            return this;
+        }
+
+        /**
+         * Write the prefixes, the opcode and the ModRM byte (including SIB
+         * byte and displacement) for the given register and r/m operand.
+         */
+        Encoding modRM(RegisterSize size, Operand reg, Operand rm, int... opcode) {
+            return modRM(size, reg.register, reg.requiresRex, rm, opcode);
+        }
+
+        /**
+         * Same as above, but with an opcode extension in the reg field.
+         */
+        Encoding modRM(RegisterSize size, int extension, Operand rm, int... opcode) {
+            return modRM(size, extension, false, rm, opcode);
+        }
+
+        private Encoding modRM(RegisterSize size, int reg, boolean regRequiresRex, Operand rm, int... opcode) {
+            prefixes(size, reg, regRequiresRex, rm);
+            for (int value : opcode) {
+                write(value);
+            }
+
+            int regField = (reg & 7) << 3;
+            if (rm.isRegister()) {
+                return write(0xc0 | regField | (rm.register & 7));
+            }
+
+            if (rm.ripSymbol != null) {
+                // the displacement is filled in by the linker
+                write(0x05 | regField);
+                dataSymbol = rm.ripSymbol;
+                dataOffset = bytes.size();
+                return immediate(0, RegisterSize.DOUBLE);
+            }
+
+            long displacement = rm.displacement;
+            if (!fitsInt(displacement)) {
+                throw new IllegalArgumentException("displacement out of range");
+            }
+
+            if (rm.base < 0) {
+                // no base register: SIB byte without base and 32 bit displacement
+                int index = rm.index < 0 ? 4 : rm.index & 7;
+                write(0x04 | regField);
+                write(scaleBits(rm.scale) << 6 | index << 3 | 5);
+                return immediate(displacement, RegisterSize.DOUBLE);
+            }
+
+            int mod;
+            if (displacement == 0 && (rm.base & 7) != 5) {
+                mod = 0x00;
+            } else if (fitsByte(displacement)) {
+                mod = 0x40;
+            } else {
+                mod = 0x80;
+            }
+
+            if (rm.index < 0 && (rm.base & 7) != 4) {
+                write(mod | regField | (rm.base & 7));
+            } else {
+                int index = rm.index < 0 ? 4 : rm.index & 7;
+                write(mod | regField | 4);
+                write(scaleBits(rm.scale) << 6 | index << 3 | (rm.base & 7));
+            }
+
+            if (mod == 0x40) {
+                immediate(displacement, RegisterSize.BYTE);
+            } else if (mod == 0x80) {
+                immediate(displacement, RegisterSize.DOUBLE);
+            }
+            return this;
+        }
+
+        /**
+         * Write the given immediate with the given size, where null represents
+         * a full 64 bit immediate. 64 bit operations use sign extended 32 bit
+         * immediates.
+         */
+        Encoding immediate(long value, RegisterSize size) {
+            int bytes;
+            if (size == null) {
+                bytes = 8;
+            } else {
+                bytes = Math.min(size.getBytes(), 4);
+                long min = -(1L << (8 * bytes - 1));
+                long max = size == RegisterSize.QUAD ? -min - 1 : (1L << (8 * bytes)) - 1;
+                if (value < min || value > max) {
+                    throw new IllegalArgumentException("immediate out of range");
+                }
+            }
+
+            for (int i = 0; i < bytes; ++i) {
+                write((int) (value >> (8 * i)) & 0xff);
+            }
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+        private static int scaleBits(int scale) {
+            return Integer.numberOfTrailingZeros(scale);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package edu.kit.compiler.cli;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -51,6 +52,62 @@ public class Cli {
         }
     }
 
+    /**
+     * Split the given line into arguments like a shell does. Arguments are
+     * separated by whitespace, except inside single or double quotes. Outside
+     * of single quotes, a backslash escapes the next character. Returns empty
+     * if a quote is not terminated or the line ends with a backslash.
+     */
+    public static Optional<String[]> splitArguments(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArgument = false;
+        char quote = 0;
+
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+            if (quote == '\'') {
+                if (c == '\'') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\\') {
+                if (++i == line.length()) {
+                    return Optional.empty();
+                }
+                current.append(line.charAt(i));
+                inArgument = true;
+            } else if (quote == '"') {
+                if (c == '"') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                inArgument = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArgument) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(c);
+                inArgument = true;
+            }
+        }
+
+        if (quote != 0) {
+            return Optional.empty();
+        }
+        if (inArgument) {
+            args.add(current.toString());
+        }
+        return Optional.of(args.toArray(new String[0]));
+    }
+
     /**
      * Print a help text for this command line interface.
      */
@@ -81,7 +138,8 @@ public class Cli {
                     option.getLongName(),
                     option.getArgName().map(arg -> String.format(" <%s>", arg)).orElse("")
                 );
-                stream.printf("%-" + helpDescriptionPadding + "s%s%n", usage, option.getDescription());
+                // keep at least one space between long usages and their description
+                stream.printf("%-" + (helpDescriptionPadding - 1) + "s %s%n", usage, option.getDescription());
             }
 
             stream.println();
@@ -95,6 +95,15 @@ public interface Operand {
         return new Memory(mode, offset, base, index, scale);
     }
 
+    /**
+     * Return an Operand representing the memory location of the global
+     * variable with the given name. The location is addressed relative to
+     * the instruction pointer.
+     */
+    public static Memory global(Mode mode, String symbol) {
+        return new Memory(mode, symbol);
+    }
+
     /**
      * Base for operands that can be used as source in an instruction.
      */
@@ -241,6 +250,7 @@ public interface Operand {
         private final Optional<Register> baseRegister;
         private final Optional<Register> indexRegister;
         private final Optional<Integer> scale;
+        private final Optional<String> symbol;
 
         public Memory(Mode mode, Optional<Integer> offset, Optional<Register> baseRegister,
                 Optional<Register> indexRegister, Optional<Integer> scale) {
@@ -254,11 +264,25 @@ public interface Operand {
                 this.baseRegister = baseRegister;
                 this.indexRegister = indexRegister;
                 this.scale = scale;
+                this.symbol = Optional.empty();
             }
         }
 
+        public Memory(Mode mode, String symbol) {
+            this.mode = mode;
+            this.offset = Optional.empty();
+            this.baseRegister = Optional.empty();
+            this.indexRegister = Optional.empty();
+            this.scale = Optional.empty();
+            this.symbol = Optional.of(symbol);
+        }
+
         @Override
         public String format() {
+            if (symbol.isPresent()) {
+                return String.format("%s(%%rip)", symbol.get());
+            }
+
             var builder = new StringBuilder();
             if (offset.isPresent()) {
                 builder.append(offset.get());
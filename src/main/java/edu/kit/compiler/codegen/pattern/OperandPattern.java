@@ -18,6 +18,7 @@ import firm.Mode;
 import firm.TargetValue;
 import firm.bindings.binding_irnode.ir_opcode;
 import firm.nodes.Add;
+import firm.nodes.Address;
 import firm.nodes.Const;
 import firm.nodes.Mul;
 import firm.nodes.Node;
@@ -180,6 +181,13 @@ public final class OperandPattern {
             // - Subtractions of constants should not be used (x - c == x + (-c))
 
             var mode = node.getMode();
+            if (node.getOpCode() == ir_opcode.iro_Address) {
+                // global variables, e.g. of the standard library
+                var entity = ((Address) node).getEntity();
+                return OperandMatch.some(Operand.global(mode, entity.getLdName()),
+                        Collections.emptyList());
+            }
+
             var nodes = AddressNodes.of(node);
 
             var indexRight = matchMul(mode, nodes.offset, nodes.firstRegister,
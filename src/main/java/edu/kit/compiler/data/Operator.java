@@ -33,7 +33,20 @@ public final class Operator {
          * Get the BinaryOperator from its Token representation.
          */
         public static BinaryOperator fromToken(Token token) {
-            switch(token.getType()) {
+            try {
+                return fromTokenType(token.getType());
+            } catch (IllegalArgumentException e) {
+                throw new ParseException(token, "expected binary operator");
+            }
+        }
+
+        /**
+         * Get the BinaryOperator from the type of its Token representation.
+         * 
+         * @throws IllegalArgumentException if the type is no binary operator.
+         */
+        public static BinaryOperator fromTokenType(TokenType type) {
+            switch(type) {
                 case Operator_Equal:
                     return BinaryOperator.Assignment;
                 case Operator_BarBar:
@@ -63,7 +76,7 @@ public final class Operator {
                 case Operator_Percent:
                     return BinaryOperator.Modulo;
                 default:
-                    throw new ParseException(token, "expected binary operator");
+                    throw new IllegalArgumentException("expected binary operator");
             }
         }
 
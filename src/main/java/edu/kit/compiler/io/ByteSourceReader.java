@@ -0,0 +1,220 @@
+package edu.kit.compiler.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * SourceReader that scans the complete input held in a single byte array by
+ * index. The input is UTF-8 encoded and every byte is returned as one
+ * character. As MiniJava tokens are ASCII, other characters can only occur in
+ * comments or as unexpected characters.
+ * 
+ * Instead of counting lines and columns for every character, the position of
+ * the current character is computed from a table of newline offsets when it
+ * is requested. The table is built on the first request. On lines that
+ * contain multi-byte characters, the column counts Unicode characters
+ * rather than bytes.
+ */
+public final class ByteSourceReader implements SourceReader {
+
+    private static final int REPLACEMENT_CHARACTER = 0xfffd;
+
+    private final byte[] source;
+    private final int start;
+    private final int end;
+    private final int firstLine;
+    private int position;
+
+    /**
+     * Offsets of the first character of each line, built lazily.
+     */
+    private int[] lineStarts;
+    /**
+     * Whether each line only contains ASCII characters, built together with
+     * the line starts.
+     */
+    private boolean[] isAsciiLine;
+    /**
+     * Index of the line of the last requested position. As the position only
+     * increases, the next request is usually on the same line.
+     */
+    private int lastLine = 0;
+
+    /**
+     * Creates a new ByteSourceReader that reads the given bytes.
+     * 
+     * @param source the complete input, which must not be modified afterwards.
+     */
+    public ByteSourceReader(byte[] source) {
+        this(source, 0, source.length, 1);
+    }
+
+    /**
+     * Creates a new ByteSourceReader that reads a range of the given bytes.
+     * The range must start at the beginning of a line.
+     * 
+     * @param source the complete input, which must not be modified afterwards.
+     * @param start index of the first byte to read.
+     * @param end index after the last byte to read.
+     * @param firstLine line number of the first byte in the complete input.
+     */
+    public ByteSourceReader(byte[] source, int start, int end, int firstLine) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.firstLine = firstLine;
+        this.position = start;
+    }
+
+    /**
+     * Creates a new ByteSourceReader that reads the complete content of the
+     * given file.
+     * 
+     * @param path path of the source file.
+     * @throws IOException if the file can not be read.
+     */
+    public static ByteSourceReader fromFile(Path path) throws IOException {
+        return new ByteSourceReader(Files.readAllBytes(path));
+    }
+
+    @Override
+    public int peek() {
+        return position < end ? source[position] & 0xff : -1;
+    }
+
+    @Override
+    public int getNext() {
+        next();
+        return peek();
+    }
+
+    @Override
+    public void next() {
+        if (position < end) {
+            position += 1;
+        }
+    }
+
+    @Override
+    public int previewNext() {
+        return position + 1 < end ? source[position + 1] & 0xff : -1;
+    }
+
+    /**
+     * Returns the UTF-8 encoded character starting at the current byte, or
+     * U+FFFD if the bytes are not valid UTF-8.
+     */
+    @Override
+    public int peekCodePoint() {
+        int first = peek();
+        if (first < 0x80) {
+            return first;
+        }
+
+        int length;
+        int codePoint;
+        if ((first & 0xe0) == 0xc0) {
+            length = 2;
+            codePoint = first & 0x1f;
+        } else if ((first & 0xf0) == 0xe0) {
+            length = 3;
+            codePoint = first & 0x0f;
+        } else if ((first & 0xf8) == 0xf0) {
+            length = 4;
+            codePoint = first & 0x07;
+        } else {
+            return REPLACEMENT_CHARACTER;
+        }
+
+        if (position + length > end) {
+            return REPLACEMENT_CHARACTER;
+        }
+        for (int i = 1; i < length; ++i) {
+            int next = source[position + i] & 0xff;
+            if (!isContinuationByte(next)) {
+                return REPLACEMENT_CHARACTER;
+            }
+            codePoint = (codePoint << 6) | (next & 0x3f);
+        }
+        return Character.isValidCodePoint(codePoint) ? codePoint : REPLACEMENT_CHARACTER;
+    }
+
+    @Override
+    public int getLine() {
+        return findLine() + firstLine;
+    }
+
+    @Override
+    public int getColumn() {
+        int line = findLine();
+        if (isAsciiLine[line]) {
+            return position - lineStarts[line] + 1;
+        }
+
+        // continuation bytes of multi-byte characters do not start a column
+        int column = 1;
+        for (int i = lineStarts[line]; i < position; ++i) {
+            if (!isContinuationByte(source[i] & 0xff)) {
+                column += 1;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Returns the index of the line containing the current position.
+     */
+    private int findLine() {
+        if (lineStarts == null) {
+            computeLines();
+        }
+
+        // usually, the position is still on the last requested line or on
+        // the next one, otherwise fall back to a binary search
+        int line = lastLine;
+        if (!isOnLine(line)) {
+            line += 1;
+            if (!isOnLine(line)) {
+                int index = Arrays.binarySearch(lineStarts, position);
+                // if not found, the insertion point is after the line of the position
+                line = index >= 0 ? index : -index - 2;
+            }
+        }
+
+        lastLine = line;
+        return line;
+    }
+
+    private boolean isOnLine(int line) {
+        return line < lineStarts.length && lineStarts[line] <= position
+            && (line + 1 == lineStarts.length || position < lineStarts[line + 1]);
+    }
+
+    private void computeLines() {
+        int count = 1;
+        for (int i = start; i < end; ++i) {
+            if (source[i] == '\n') {
+                count += 1;
+            }
+        }
+
+        lineStarts = new int[count];
+        isAsciiLine = new boolean[count];
+        Arrays.fill(isAsciiLine, true);
+        lineStarts[0] = start;
+        int line = 0;
+        for (int i = start; i < end; ++i) {
+            if (source[i] == '\n') {
+                lineStarts[++line] = i + 1;
+            } else if (source[i] < 0) {
+                isAsciiLine[line] = false;
+            }
+        }
+    }
+
+    private static boolean isContinuationByte(int b) {
+        return (b & 0xc0) == 0x80;
+    }
+}
@@ -0,0 +1,81 @@
+package edu.kit.compiler.io;
+
+import java.util.Iterator;
+
+/**
+ * Implementation of the LookaheadIterator interface using a circular array
+ * as buffer. All operations take constant time. The buffer only grows if an
+ * element is requested that is further ahead than its capacity.
+ */
+public class RingBufferLookaheadIterator<T> implements LookaheadIterator<T> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Create a LookaheadIterator from an Iterator.
+     */
+    public RingBufferLookaheadIterator(Iterator<T> source) {
+        this.source = source;
+    }
+
+    private Iterator<T> source;
+
+    // the capacity is always a power of two
+    private Object[] buffer = new Object[INITIAL_CAPACITY];
+    private int first = 0;
+    private int size = 0;
+
+    private void fill(int count) {
+        while (size <= count && source.hasNext()) {
+            if (size == buffer.length) {
+                grow();
+            }
+            buffer[(first + size) & (buffer.length - 1)] = source.next();
+            size++;
+        }
+    }
+
+    private void grow() {
+        // move the elements to the start of the new buffer
+        Object[] grown = new Object[2 * buffer.length];
+        int tail = buffer.length - first;
+        System.arraycopy(buffer, first, grown, 0, tail);
+        System.arraycopy(buffer, 0, grown, tail, first);
+        buffer = grown;
+        first = 0;
+    }
+
+    @Override
+    public boolean has(int pos) {
+        fill(pos);
+
+        return size > pos;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int pos) {
+        fill(pos);
+        if (pos < 0 || pos >= size) {
+            throw new IndexOutOfBoundsException(pos);
+        }
+
+        return (T) buffer[(first + pos) & (buffer.length - 1)];
+    }
+
+    @Override
+    public void next(int steps) {
+        int buffered = Math.min(steps, size);
+        for (int i = 0; i < buffered; ++i) {
+            // allow the element to be garbage collected
+            buffer[first] = null;
+            first = (first + 1) & (buffer.length - 1);
+        }
+        size -= buffered;
+
+        for (int remaining = steps - buffered; remaining > 0; remaining--) {
+            source.next();
+        }
+    }
+
+}
@@ -10,7 +10,7 @@ import lombok.Getter;
 /**
  * Wrapper for a Reader that counts the position (line, column) of the current character.
  */
-public final class SourceLocationReader {
+public final class SourceLocationReader implements SourceReader {
 
     private final Reader source;
     private int buffer;
@@ -44,6 +44,7 @@ public final class SourceLocationReader {
      * 
      * @return the next character returned by the reader.
      */
+    @Override
     public int peek() {
         return buffer;
     }
@@ -52,6 +53,7 @@ public final class SourceLocationReader {
      * Advances the reader by one character and returns the next character.
      * @return the character returned by the reader.
      */
+    @Override
     public int getNext() {
         next();
         return buffer;
@@ -62,6 +64,7 @@ public final class SourceLocationReader {
      * 
      * @throws FileInputException if an I/O error occurs in the underlying reader.
      */
+    @Override
     public void next() {
         try {
             updatePosition(buffer);
@@ -77,6 +80,7 @@ public final class SourceLocationReader {
      * @return the next character returned by the reader.
      * @throws FileInputException if an I/O error occurs in the underlying reader.
      */
+    @Override
     public int previewNext() {
         assert source.markSupported();
         try {
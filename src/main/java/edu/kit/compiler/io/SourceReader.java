@@ -0,0 +1,54 @@
+package edu.kit.compiler.io;
+
+/**
+ * Source of characters for the Lexer that keeps track of the position (line,
+ * column) of the current character.
+ */
+public interface SourceReader {
+
+    /**
+     * Returns the current character without advancing the reader.
+     * 
+     * @return the current character, or -1 at the end of the input.
+     */
+    int peek();
+
+    /**
+     * Advances the reader by one character and returns the next character.
+     * 
+     * @return the character after the current one, or -1 at the end of the input.
+     */
+    int getNext();
+
+    /**
+     * Advances the reader by one character.
+     */
+    void next();
+
+    /**
+     * Returns the character after the current one without advancing the reader.
+     * 
+     * @return the character after the current one, or -1 at the end of the input.
+     */
+    int previewNext();
+
+    /**
+     * Returns the current character as a Unicode code point, which may be
+     * encoded by several of the characters returned by this reader.
+     * 
+     * @return the current code point, or -1 at the end of the input.
+     */
+    default int peekCodePoint() {
+        return peek();
+    }
+
+    /**
+     * Returns the line of the current character, starting at 1.
+     */
+    int getLine();
+
+    /**
+     * Returns the column of the current character, starting at 1.
+     */
+    int getColumn();
+}
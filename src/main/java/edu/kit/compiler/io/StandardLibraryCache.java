@@ -0,0 +1,145 @@
+package edu.kit.compiler.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.kit.compiler.logger.Logger;
+
+/**
+ * Cache for the compiled standard library. The C source of the standard
+ * library is compiled to an object file once and reused for linking all
+ * subsequent programs. Object files are named after a hash of the source, the
+ * version and target of gcc and the compiler flags, so that changes to any of
+ * them result in a recompilation.
+ *
+ * The standard library is compiled with -O2, as it is compiled only once, and
+ * with -fPIC, so that the object can be linked into the position independent
+ * executables gcc creates by default.
+ *
+ * The cache may be shared by multiple compiler processes. Object files are
+ * compiled to a temporary file and atomically moved into place afterwards.
+ */
+public class StandardLibraryCache {
+
+    private static final String CACHE_DIRECTORY_VARIABLE = "STD_LIBRARY_CACHE";
+    private static final String COMPILER = "gcc";
+    private static final List<String> COMPILER_FLAGS = List.of("-c", "-O2", "-fPIC");
+
+    private final Path directory;
+    private final Logger logger;
+
+    public StandardLibraryCache(Path directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    /**
+     * Return a cache in the directory given by the environment variable
+     * STD_LIBRARY_CACHE, or in the user's cache directory by default.
+     */
+    public static StandardLibraryCache getDefault(Logger logger) {
+        var directory = System.getenv(CACHE_DIRECTORY_VARIABLE);
+        if (directory != null && !directory.isEmpty()) {
+            return new StandardLibraryCache(Path.of(directory), logger);
+        }
+
+        var cacheHome = System.getenv("XDG_CACHE_HOME");
+        if (cacheHome == null || cacheHome.isEmpty()) {
+            cacheHome = Path.of(System.getProperty("user.home"), ".cache").toString();
+        }
+        return new StandardLibraryCache(Path.of(cacheHome, "java-easy-compiler"), logger);
+    }
+
+    /**
+     * Return the object file for the given standard library source, compiling
+     * it with gcc if it is not yet present in the cache.
+     *
+     * @throws IOException if the cache is not accessible or gcc fails
+     */
+    public File getObject(File source) throws IOException, InterruptedException {
+        byte[] content = Files.readAllBytes(source.toPath());
+        var object = directory.resolve(getObjectName(getCompilerVersion(), content));
+        if (Files.isRegularFile(object)) {
+            return object.toFile();
+        }
+
+        Files.createDirectories(directory);
+        var temporary = Files.createTempFile(directory, "stdlib-", ".o.tmp");
+        try {
+            var command = new ArrayList<String>();
+            command.add(COMPILER);
+            command.addAll(COMPILER_FLAGS);
+            command.add(source.getAbsolutePath());
+            command.add("-o");
+            command.add(temporary.toString());
+
+            logger.info("compiling standard library: '%s'", String.join(" ", command));
+            // the output of a successful compilation consists of warnings
+            run(command).lines().forEach(line -> logger.warn("%s: %s", COMPILER, line));
+
+            Files.move(temporary, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return object.toFile();
+    }
+
+    /**
+     * Return the version and the target of gcc, e.g. "12.2.0 x86_64-linux-gnu".
+     */
+    private String getCompilerVersion() throws IOException, InterruptedException {
+        return run(List.of(COMPILER, "-dumpfullversion", "-dumpmachine")).strip().replace('\n', ' ');
+    }
+
+    /**
+     * Run the given command and return its output. If the command fails, its
+     * output is logged as errors.
+     *
+     * @throws IOException if the command fails
+     */
+    private String run(List<String> command) throws IOException, InterruptedException {
+        var process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .start();
+        var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            output.lines().forEach(line -> logger.error("%s: %s", COMPILER, line));
+            throw new IOException(String.format(
+                "%s failed with exit code %s", COMPILER, process.exitValue()));
+        }
+        return output;
+    }
+
+    /**
+     * Return the file name of the object file for the given source, compiled
+     * by the gcc with the given version.
+     */
+    static String getObjectName(String compilerVersion, byte[] source) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(compilerVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.join(" ", COMPILER_FLAGS).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source);
+
+            var name = new StringBuilder("stdlib-");
+            for (byte b : digest.digest()) {
+                name.append(String.format("%02x", b));
+            }
+            return name.append(".o").toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package edu.kit.compiler.lexer;
+
+import edu.kit.compiler.data.TokenType;
+import static edu.kit.compiler.data.TokenType.*;
+
+import java.util.Map;
+
+/**
+ * Perfect hash table of the identifiers reserved as keywords in MiniJava.
+ * 
+ * Words are hashed with the same function as String.hashCode, which the
+ * Lexer computes while reading the characters of a word. The slot of a word
+ * is given by the upper bits of the hash multiplied with a constant. The
+ * constant was chosen such that no two keywords share a slot, so that a
+ * lookup needs at most one comparison with a keyword.
+ */
+final class Keywords {
+
+    private static final int MULTIPLIER = 0x438de1f1;
+    private static final int SLOT_BITS = 7;
+
+    private static final char[][] NAMES = new char[1 << SLOT_BITS][];
+    private static final TokenType[] TYPES = new TokenType[1 << SLOT_BITS];
+
+    static {
+        for (var entry : keyWordMap().entrySet()) {
+            int slot = getSlot(entry.getKey().hashCode());
+            if (NAMES[slot] != null) {
+                throw new IllegalStateException("keywords " + entry.getKey() + " and "
+                    + String.valueOf(NAMES[slot]) + " have the same hash slot");
+            }
+
+            NAMES[slot] = entry.getKey().toCharArray();
+            TYPES[slot] = entry.getValue();
+        }
+    }
+
+    private Keywords() {}
+
+    /**
+     * Update the hash of a word with the next character of the word. The
+     * hash of the empty word is zero.
+     */
+    static int hash(int hash, int c) {
+        return 31 * hash + c;
+    }
+
+    /**
+     * Returns the token type of the keyword given by the first length
+     * characters of the given array, or null if the word is no keyword.
+     * 
+     * @param hash hash of the word, see hash(int, int).
+     */
+    static TokenType lookup(char[] chars, int length, int hash) {
+        int slot = getSlot(hash);
+        char[] name = NAMES[slot];
+        if (name == null || name.length != length) {
+            return null;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (name[i] != chars[i]) {
+                return null;
+            }
+        }
+        return TYPES[slot];
+    }
+
+    private static int getSlot(int hash) {
+        return (hash * MULTIPLIER) >>> (32 - SLOT_BITS);
+    }
+
+    /**
+     * Returns a map containing ever identifier reserved as a keyword
+     * in MiniJava, mapped to their corresponding TokenTypes.
+     * 
+     * @return a map of keywords and corresponding TokenTypes.
+     */
+    private static Map<String, TokenType> keyWordMap() {
+        return Map.ofEntries(
+            Map.entry("abstract", Keyword_Abstract),
+            Map.entry("assert", Keyword_Assert),
+            Map.entry("boolean", Keyword_Boolean),
+            Map.entry("break", Keyword_Break),
+            Map.entry("byte", Keyword_Byte),
+            Map.entry("case", Keyword_Case),
+            Map.entry("catch", Keyword_Catch),
+            Map.entry("char", Keyword_Char),
+            Map.entry("class", Keyword_Class),
+            Map.entry("const", Keyword_Const),
+            Map.entry("continue", Keyword_Continue),
+            Map.entry("default", Keyword_Default),
+            Map.entry("double", Keyword_Double),
+            Map.entry("do", Keyword_Do),
+            Map.entry("else", Keyword_Else),
+            Map.entry("enum", Keyword_Enum),
+            Map.entry("extends", Keyword_Extends),
+            Map.entry("false", Keyword_False),
+            Map.entry("finally", Keyword_Finally),
+            Map.entry("final", Keyword_Final),
+            Map.entry("float", Keyword_Float),
+            Map.entry("for", Keyword_For),
+            Map.entry("goto", Keyword_Goto),
+            Map.entry("if", Keyword_If),
+            Map.entry("implements", Keyword_Implements),
+            Map.entry("import", Keyword_Import),
+            Map.entry("instanceof", Keyword_Instanceof),
+            Map.entry("interface", Keyword_Interface),
+            Map.entry("int", Keyword_Int),
+            Map.entry("long", Keyword_Long),
+            Map.entry("native", Keyword_Native),
+            Map.entry("new", Keyword_New),
+            Map.entry("null", Keyword_Null),
+            Map.entry("package", Keyword_Package),
+            Map.entry("private", Keyword_Private),
+            Map.entry("protected", Keyword_Protected),
+            Map.entry("public", Keyword_Public),
+            Map.entry("return", Keyword_Return),
+            Map.entry("short", Keyword_Short),
+            Map.entry("static", Keyword_Static),
+            Map.entry("strictfp", Keyword_Strictfp),
+            Map.entry("super", Keyword_Super),
+            Map.entry("switch", Keyword_Switch),
+            Map.entry("synchronized", Keyword_Synchronized),
+            Map.entry("this", Keyword_This),
+            Map.entry("throws", Keyword_Throws),
+            Map.entry("throw", Keyword_Throw),
+            Map.entry("transient", Keyword_Transient),
+            Map.entry("true", Keyword_True),
+            Map.entry("try", Keyword_Try),
+            Map.entry("void", Keyword_Void),
+            Map.entry("volatile", Keyword_Volatile),
+            Map.entry("while", Keyword_While)
+        );
+    }
+}
@@ -4,30 +4,54 @@ import edu.kit.compiler.data.Literal;
 import edu.kit.compiler.data.Token;
 import edu.kit.compiler.data.TokenType;
 import edu.kit.compiler.io.SourceLocationReader;
+import edu.kit.compiler.io.SourceReader;
 import edu.kit.compiler.logger.Logger;
 import static edu.kit.compiler.data.TokenType.*;
 
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.Map;
 
 /**
  * Reads characters from a character stream and returns found tokens.
  */
 public final class Lexer implements Iterator<Token> {
-    private static final Map<String, TokenType> KEYWORDS = keyWordMap();
-
-    private final SourceLocationReader reader;
+    private final SourceReader reader;
     private final StringTable stringTable;
     private final Logger logger;
 
+    /**
+     * Position and value of the last token found, see lexToken.
+     */
+    private int tokenLine;
+    private int tokenColumn;
+    private int tokenValue;
+    private final StringBuilder literalBuilder = new StringBuilder();
+
+    private char[] wordBuffer = new char[64];
+
     public Lexer(Reader source) {
         this(source, Logger.nullLogger());
     }
 
     public Lexer(Reader source, Logger logger) {
-        this.reader = new SourceLocationReader(source);
-        this.stringTable = new StringTable();
+        this(new SourceLocationReader(source), logger);
+    }
+
+    public Lexer(SourceReader reader) {
+        this(reader, Logger.nullLogger());
+    }
+
+    public Lexer(SourceReader reader, Logger logger) {
+        this(reader, new StringTable(), logger);
+    }
+
+    /**
+     * Creates a lexer that interns identifiers into the given string table.
+     */
+    public Lexer(SourceReader reader, StringTable stringTable, Logger logger) {
+        this.reader = reader;
+        this.stringTable = stringTable;
         this.logger = logger.withName("lexer");
     }
 
@@ -42,10 +66,51 @@ public final class Lexer implements Iterator<Token> {
      * @return the next token found in input stream.
      */
     public Token getNextToken() {
+        TokenType type = lexToken();
+        return switch (type) {
+            case Identifier -> new Token(type, tokenLine, tokenColumn, tokenValue);
+            case IntegerLiteral -> new Token(type, tokenLine, tokenColumn, getLiteral());
+            default -> new Token(type, tokenLine, tokenColumn);
+        };
+    }
+
+    /**
+     * Read all remaining tokens from the character stream, including the
+     * final EndOfStream token, into a TokenBuffer. No objects are created
+     * per token, except for integer literals that do not fit into an int.
+     * 
+     * @return a buffer containing the remaining tokens.
+     */
+    public TokenBuffer getRemainingTokens() {
+        var buffer = new TokenBuffer();
+        TokenType type;
+        do {
+            type = lexToken();
+            if (type == IntegerLiteral && tokenValue < 0) {
+                buffer.addLargeLiteral(tokenLine, tokenColumn, literalBuilder.toString());
+            } else {
+                buffer.add(type, tokenLine, tokenColumn, tokenValue);
+            }
+        } while (type != EndOfStream);
+
+        return buffer;
+    }
+
+    /**
+     * Read characters from the character stream until a token is found and
+     * return its type. The position and value of the token are stored in
+     * tokenLine, tokenColumn and tokenValue.
+     * 
+     * @return the type of the next token found in the input stream.
+     */
+    private TokenType lexToken() {
         while (skipWhiteSpace() || skipComment());
 
+        tokenLine = reader.getLine();
+        tokenColumn = reader.getColumn();
+        tokenValue = 0;
         if (Character.isEndOfStream(reader.peek())) {
-            return new Token(EndOfStream, reader.getLine(), reader.getColumn());
+            return EndOfStream;
         } else if (Character.isDigit(reader.peek())) {
             return lexIntegerLiteral();
         } else if (Character.isIdentifierStart(reader.peek())) {
@@ -56,73 +121,93 @@ public final class Lexer implements Iterator<Token> {
     }
 
     /**
-     * Reads an integer literal from the character stream and returns it as a token.
-     * The caller must ensure that the next character in the character stream is an
-     * ASCII Digit.
+     * Returns the literal of the last integer literal found.
+     */
+    private Literal getLiteral() {
+        if (tokenValue >= 0) {
+            return Literal.ofValue(tokenValue);
+        } else {
+            return new Literal(literalBuilder.toString());
+        }
+    }
+
+    /**
+     * Reads an integer literal from the character stream. The caller must
+     * ensure that the next character in the character stream is an ASCII
+     * Digit. The value of the literal is stored in tokenValue if it fits
+     * into an int, otherwise tokenValue is -1 and the literal is stored in
+     * literalBuilder.
      * 
-     * @return a Token containing an integer literal.
+     * @return the token type IntegerLiteral.
      */
-    private Token lexIntegerLiteral() {
+    private TokenType lexIntegerLiteral() {
         assert Character.isDigit(reader.peek());
 
-        int line = reader.getLine();
-        int column = reader.getColumn();
         if (reader.peek() == '0') {
             reader.next();
-            return new Token(IntegerLiteral, line, column, Literal.ofValue(0));
+            return IntegerLiteral;
         } else {
-            var builder = new StringBuilder();
+            literalBuilder.setLength(0);
+            long value = 0;
             while (Character.isDigit(reader.peek())) {
-                builder.append((char)reader.peek());
+                literalBuilder.append((char)reader.peek());
+                if (value <= Integer.MAX_VALUE) {
+                    value = 10 * value + (reader.peek() - '0');
+                }
                 reader.next();
             }
-            
-            var literal = new Literal(builder.toString());
-            return new Token(IntegerLiteral, line, column, literal);
+
+            tokenValue = value <= Integer.MAX_VALUE ? (int)value : -1;
+            return IntegerLiteral;
         }
     }
 
     /**
-     * Reads an identifier or keyword from the character stream and returns
-     * it as Token. The caller must ensure that the next character in the
-     * input stream is valid as first character in an identifier (i.e. an
-     * ASCII letter or underscore);
+     * Reads an identifier or keyword from the character stream. The caller
+     * must ensure that the next character in the input stream is valid as
+     * first character in an identifier (i.e. an ASCII letter or underscore).
+     * For identifiers, the index in the string table is stored in tokenValue.
+     * 
+     * The characters are collected in wordBuffer, from which keywords are
+     * recognized and identifiers are interned without creating a String.
      * 
-     * @return a Token containing a keyword or an identifier.
+     * @return the type of the keyword or Identifier.
      */
-    private Token lexKeywordOrIdentifier() {
+    private TokenType lexKeywordOrIdentifier() {
         assert Character.isIdentifierStart(reader.peek());
 
-        int line = reader.getLine();
-        int column = reader.getColumn();
-        var builder = new StringBuilder();
+        int length = 0;
+        int hash = 0;
         while (Character.isIdentifierPart(reader.peek())) {
-            builder.append((char)reader.peek());
+            if (length == wordBuffer.length) {
+                wordBuffer = Arrays.copyOf(wordBuffer, 2 * length);
+            }
+            wordBuffer[length++] = (char)reader.peek();
+            hash = Keywords.hash(hash, reader.peek());
             reader.next();
         }
-        
-        String identifier = builder.toString();
-        TokenType keyword = KEYWORDS.get(identifier);
+
+        TokenType keyword = Keywords.lookup(wordBuffer, length, hash);
         if (keyword == null) {
-            int index = stringTable.insert(identifier);
-            return new Token(Identifier, line, column, index);
+            tokenValue = stringTable.insert(wordBuffer, 0, length, hash);
+            return Identifier;
         } else {
-            return new Token(keyword, line, column);
+            return keyword;
         }
     }
 
     /**
-     * Reads an operator or delimiter from the characters stream and returns it
-     * as a Token. 
+     * Reads an operator or delimiter from the characters stream and returns
+     * its type.
      * 
-     * @return a Token containing an operator or a delimiter.
+     * @return the type of the operator or delimiter.
      * @throws LexException if no valid operator or delimiter was found.
      * @throws IllegalStateException if the token is the start of a comment (i.e. /*).
      */
-    private Token lexOperatorOrDelimiter() {
-        int line = reader.getLine();
-        int column = reader.getColumn();
-        TokenType tokenType = switch (reader.peek()) {
+    private TokenType lexOperatorOrDelimiter() {
+        int line = tokenLine;
+        int column = tokenColumn;
+        return switch (reader.peek()) {
             case '.' -> { reader.next(); yield Operator_Dot;          }
             case ',' -> { reader.next(); yield Operator_Comma;        }
             case ':' -> { reader.next(); yield Operator_Colon;        }
@@ -206,11 +291,9 @@ public final class Lexer implements Iterator<Token> {
             case '\u0000' -> throw new LexException(line, column,
                 "unexpected character 'NUL'");
             default -> throw new LexException(line, column,
-                "unexpected character '" + (char)reader.peek() + "'"
+                "unexpected character '" + java.lang.Character.toString(reader.peekCodePoint()) + "'"
             );
         };
-        
-        return new Token(tokenType, line, column);
     }
 
     /**
@@ -260,70 +343,6 @@ public final class Lexer implements Iterator<Token> {
         }
     }
 
-    /**
-     * Returns a map containing ever identifier reserved as a keyword
-     * in MiniJava, mapped to their corresponding TokenTypes.
-     * 
-     * @return a map of keywords and corresponding TokenTypes.
-     */
-    private static Map<String, TokenType> keyWordMap() {
-        return Map.ofEntries(
-            Map.entry("abstract", Keyword_Abstract),
-            Map.entry("assert", Keyword_Assert),
-            Map.entry("boolean", Keyword_Boolean),
-            Map.entry("break", Keyword_Break),
-            Map.entry("byte", Keyword_Byte),
-            Map.entry("case", Keyword_Case),
-            Map.entry("catch", Keyword_Catch),
-            Map.entry("char", Keyword_Char),
-            Map.entry("class", Keyword_Class),
-            Map.entry("const", Keyword_Const),
-            Map.entry("continue", Keyword_Continue),
-            Map.entry("default", Keyword_Default),
-            Map.entry("double", Keyword_Double),
-            Map.entry("do", Keyword_Do),
-            Map.entry("else", Keyword_Else),
-            Map.entry("enum", Keyword_Enum),
-            Map.entry("extends", Keyword_Extends),
-            Map.entry("false", Keyword_False),
-            Map.entry("finally", Keyword_Finally),
-            Map.entry("final", Keyword_Final),
-            Map.entry("float", Keyword_Float),
-            Map.entry("for", Keyword_For),
-            Map.entry("goto", Keyword_Goto),
-            Map.entry("if", Keyword_If),
-            Map.entry("implements", Keyword_Implements),
-            Map.entry("import", Keyword_Import),
-            Map.entry("instanceof", Keyword_Instanceof),
-            Map.entry("interface", Keyword_Interface),
-            Map.entry("int", Keyword_Int),
-            Map.entry("long", Keyword_Long),
-            Map.entry("native", Keyword_Native),
-            Map.entry("new", Keyword_New),
-            Map.entry("null", Keyword_Null),
-            Map.entry("package", Keyword_Package),
-            Map.entry("private", Keyword_Private),
-            Map.entry("protected", Keyword_Protected),
-            Map.entry("public", Keyword_Public),
-            Map.entry("return", Keyword_Return),
-            Map.entry("short", Keyword_Short),
-            Map.entry("static", Keyword_Static),
-            Map.entry("strictfp", Keyword_Strictfp),
-            Map.entry("super", Keyword_Super),
-            Map.entry("switch", Keyword_Switch),
-            Map.entry("synchronized", Keyword_Synchronized),
-            Map.entry("this", Keyword_This),
-            Map.entry("throws", Keyword_Throws),
-            Map.entry("throw", Keyword_Throw),
-            Map.entry("transient", Keyword_Transient),
-            Map.entry("true", Keyword_True),
-            Map.entry("try", Keyword_Try),
-            Map.entry("void", Keyword_Void),
-            Map.entry("volatile", Keyword_Volatile),
-            Map.entry("while", Keyword_While)
-        );
-    }
-
     @Override
     public boolean hasNext() {
         return true;
@@ -0,0 +1,157 @@
+package edu.kit.compiler.lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import edu.kit.compiler.io.ByteSourceReader;
+import edu.kit.compiler.logger.Logger;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Lexes a complete source file on multiple threads.
+ *
+ * The input is split into chunks at newlines outside of comments, which are
+ * found by a cheap sequential pre-scan for comment delimiters. No token can
+ * span such a newline, so each chunk is lexed on its own into a TokenBuffer
+ * with a local string table. Afterwards, the chunks are merged in order and
+ * the identifiers are remapped into the global string table. As identifiers
+ * are inserted in order of their first occurrence, the result is the same as
+ * that of the sequential Lexer.
+ */
+public final class ParallelLexer {
+
+    /**
+     * Inputs smaller than this are not worth splitting.
+     */
+    public static final int MIN_CHUNK_SIZE = 256 * 1024;
+
+    private final byte[] source;
+    private final StringTable stringTable;
+    private final Logger logger;
+
+    /**
+     * Creates a lexer for the given input that interns identifiers into the
+     * given string table.
+     */
+    public ParallelLexer(byte[] source, StringTable stringTable, Logger logger) {
+        this.source = source;
+        this.stringTable = stringTable;
+        this.logger = logger;
+    }
+
+    /**
+     * Lex the complete input on the given number of threads.
+     *
+     * @return a buffer containing all tokens, ending with EndOfStream.
+     * @throws LexException if the input contains an error. If there are
+     * several errors, the first one is reported.
+     */
+    public TokenBuffer getTokens(int jobs) {
+        var chunks = split(source, Math.max(1, Math.min(jobs, source.length / MIN_CHUNK_SIZE)));
+        if (chunks.size() == 1) {
+            var reader = new ByteSourceReader(source);
+            return new Lexer(reader, stringTable, logger).getRemainingTokens();
+        }
+
+        var pool = new ForkJoinPool(jobs);
+        try {
+            List<Future<LexedChunk>> tasks = new ArrayList<>(chunks.size());
+            for (var chunk : chunks) {
+                tasks.add(pool.submit(() -> lexChunk(chunk)));
+            }
+
+            var result = new TokenBuffer();
+            for (int i = 0; i < tasks.size(); ++i) {
+                var lexed = getResult(tasks.get(i));
+                int[] identifiers = stringTable.insertAll(lexed.getStringTable());
+
+                // only the last chunk keeps its EndOfStream token
+                var tokens = lexed.getTokens();
+                int count = i == tasks.size() - 1 ? tokens.size() : tokens.size() - 1;
+                result.addAll(tokens, count, identifiers);
+            }
+            return result;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private LexedChunk lexChunk(Chunk chunk) {
+        var reader = new ByteSourceReader(source, chunk.getStart(), chunk.getEnd(), chunk.getFirstLine());
+        var chunkTable = new StringTable();
+        var tokens = new Lexer(reader, chunkTable, logger).getRemainingTokens();
+        return new LexedChunk(tokens, chunkTable);
+    }
+
+    private static LexedChunk getResult(Future<LexedChunk> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Split the input into at most the given number of chunks of roughly
+     * equal size. Chunks end after a newline that is not part of a comment.
+     * The comment delimiters are recognized the same way as by the Lexer.
+     */
+    static List<Chunk> split(byte[] source, int count) {
+        List<Chunk> chunks = new ArrayList<>(count);
+        int start = 0;
+        int startLine = 1;
+        int line = 1;
+        long target = source.length / count;
+        boolean inComment = false;
+
+        for (int i = 0; i < source.length && chunks.size() < count - 1; ++i) {
+            byte c = source[i];
+            if (c == '\n') {
+                line += 1;
+                if (!inComment && i + 1 >= target) {
+                    chunks.add(new Chunk(start, i + 1, startLine));
+                    start = i + 1;
+                    startLine = line;
+                    target = (long) (chunks.size() + 1) * source.length / count;
+                }
+            } else if (!inComment && c == '/' && i + 1 < source.length && source[i + 1] == '*') {
+                inComment = true;
+                i += 1;
+            } else if (inComment && c == '*' && i + 1 < source.length && source[i + 1] == '/') {
+                inComment = false;
+                i += 1;
+            }
+        }
+
+        chunks.add(new Chunk(start, source.length, startLine));
+        return chunks;
+    }
+
+    /**
+     * Range of the input, starting at the beginning of the given line.
+     */
+    @Getter
+    @AllArgsConstructor
+    static final class Chunk {
+        private final int start;
+        private final int end;
+        private final int firstLine;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class LexedChunk {
+        private final TokenBuffer tokens;
+        private final StringTable stringTable;
+    }
+}
@@ -1,26 +1,110 @@
 package edu.kit.compiler.lexer;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Interning table for identifiers. Each distinct string is assigned an index,
+ * starting at zero in order of insertion.
+ *
+ * The characters of all strings are stored consecutively in a single array.
+ * Strings are found by open addressing with linear probing over a table of
+ * indices, comparing the stored hash before the characters. Strings can be
+ * inserted from a range of characters, in which case nothing is allocated if
+ * the string is already present. String objects are only created when a
+ * string is retrieved.
+ */
 public class StringTable {
 
-    private final LinkedHashMap<String, Integer> table = new LinkedHashMap<>();
-    private int index = -1;
-    private final ArrayList<String> strings = new ArrayList<>();
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int EMPTY = -1;
 
+    /**
+     * Open addressing table containing the index of the string in each slot.
+     * Its length is a power of two and it is at most half full.
+     */
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+
+    private char[] characters = new char[16 * INITIAL_CAPACITY];
+    private int charactersLength = 0;
+
+    // offset in characters, length and hash of each string by index
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    public StringTable() {
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * Insert the given string if it is not yet present.
+     *
+     * @param str the string to insert
+     * @return index of the string in the string table
+     */
     public int insert(String str) {
-        Integer i = table.get(str);
-        if(i != null) {
-            return i;
+        int hash = str.hashCode();
+        int mask = slots.length - 1;
+        for (int slot = getSlot(hash); ; slot = (slot + 1) & mask) {
+            int index = slots[slot];
+            if (index == EMPTY) {
+                char[] chars = str.toCharArray();
+                return add(slot, chars, 0, chars.length, hash);
+            } else if (hashes[index] == hash && equals(index, str)) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Insert the string given by a range of characters, see insert(String).
+     *
+     * @param chars array containing the characters of the string
+     * @param offset index of the first character of the string
+     * @param length number of characters of the string
+     * @return index of the string in the string table
+     */
+    public int insert(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; ++i) {
+            hash = 31 * hash + chars[i];
         }
+        return insert(chars, offset, length, hash);
+    }
 
-        index++;
-        table.put(str, index);
-        strings.add(str);
+    /**
+     * Insert the string given by a range of characters, see insert(String).
+     *
+     * @param hash hash of the string as computed by String.hashCode
+     */
+    int insert(char[] chars, int offset, int length, int hash) {
+        int mask = slots.length - 1;
+        for (int slot = getSlot(hash); ; slot = (slot + 1) & mask) {
+            int index = slots[slot];
+            if (index == EMPTY) {
+                return add(slot, chars, offset, length, hash);
+            } else if (hashes[index] == hash && equals(index, chars, offset, length)) {
+                return index;
+            }
+        }
+    }
 
-        return index;
+    /**
+     * Insert all strings of the given table in order of their indices.
+     *
+     * @param other the string table to insert
+     * @return the index in this table of each string of the other table
+     */
+    public int[] insertAll(StringTable other) {
+        int[] indices = new int[other.size];
+        for (int i = 0; i < other.size; ++i) {
+            indices[i] = insert(other.characters, other.offsets[i], other.lengths[i], other.hashes[i]);
+        }
+        return indices;
     }
 
     /**
@@ -31,7 +115,10 @@ public class StringTable {
      */
     public String retrieve(int hash) {
         if(hash < size() && hash >= 0) {
-            return strings.get(hash);
+            if (strings[hash] == null) {
+                strings[hash] = new String(characters, offsets[hash], lengths[hash]);
+            }
+            return strings[hash];
         }
         throw new IllegalArgumentException("No string present for this value.");
     }
@@ -44,16 +131,97 @@ public class StringTable {
     }
 
     public int size() {
-        return table.size();
+        return size;
     }
 
     public List<String> toList() {
-        return List.copyOf(strings);
+        List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            result.add(retrieve(i));
+        }
+        return List.copyOf(result);
     }
 
     @Override
     public String toString() {
-        return table.toString();
+        var builder = new StringBuilder("{");
+        for (int i = 0; i < size; ++i) {
+            builder.append(i == 0 ? "" : ", ").append(retrieve(i)).append('=').append(i);
+        }
+        return builder.append('}').toString();
+    }
+
+    private int add(int slot, char[] chars, int offset, int length, int hash) {
+        if (size == offsets.length) {
+            int capacity = 2 * size;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+        }
+        if (charactersLength + length > characters.length) {
+            characters = Arrays.copyOf(characters, Math.max(2 * characters.length, charactersLength + length));
+        }
+
+        int index = size++;
+        System.arraycopy(chars, offset, characters, charactersLength, length);
+        offsets[index] = charactersLength;
+        lengths[index] = length;
+        hashes[index] = hash;
+        charactersLength += length;
+
+        slots[slot] = index;
+        if (2 * size > slots.length) {
+            rehash();
+        }
+        return index;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        Arrays.fill(slots, EMPTY);
+
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; ++index) {
+            int slot = getSlot(hashes[index]);
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index;
+        }
     }
 
+    /**
+     * Spread the bits of the hash, as identifiers often only differ in
+     * their last characters (which are the low bits of the hash).
+     */
+    private int getSlot(int hash) {
+        return (hash * 0x9e3779b9) >>> (32 - Integer.numberOfTrailingZeros(slots.length));
+    }
+
+    private boolean equals(int index, char[] chars, int offset, int length) {
+        if (lengths[index] != length) {
+            return false;
+        }
+        int start = offsets[index];
+        for (int i = 0; i < length; ++i) {
+            if (characters[start + i] != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equals(int index, String str) {
+        if (lengths[index] != str.length()) {
+            return false;
+        }
+        int start = offsets[index];
+        for (int i = 0; i < lengths[index]; ++i) {
+            if (characters[start + i] != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
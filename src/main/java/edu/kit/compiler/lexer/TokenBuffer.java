@@ -0,0 +1,141 @@
+package edu.kit.compiler.lexer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.kit.compiler.data.Literal;
+import edu.kit.compiler.data.Token;
+import edu.kit.compiler.data.TokenType;
+
+/**
+ * Sequence of tokens stored in parallel primitive arrays instead of Token
+ * objects. For each token, the type, the position and a value are stored.
+ *
+ * The value of an identifier is its index in the string table. The value of
+ * an integer literal is the literal itself if it fits into an int. Otherwise,
+ * the literal is stored separately and the value is its negated index plus
+ * one (i.e. -1 for the first large literal).
+ */
+public final class TokenBuffer {
+
+    private static final TokenType[] TYPES = TokenType.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final List<String> largeLiterals = new ArrayList<>();
+
+    /**
+     * Append a token without a value.
+     */
+    public void add(TokenType type, int line, int column) {
+        add(type, line, column, 0);
+    }
+
+    /**
+     * Append a token with the given value.
+     */
+    public void add(TokenType type, int line, int column, int value) {
+        if (size == types.length) {
+            int capacity = 2 * size;
+            types = Arrays.copyOf(types, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        types[size] = (byte) type.ordinal();
+        lines[size] = line;
+        columns[size] = column;
+        values[size] = value;
+        size += 1;
+    }
+
+    /**
+     * Append an integer literal token whose literal does not fit into an int.
+     */
+    public void addLargeLiteral(int line, int column, String literal) {
+        largeLiterals.add(literal);
+        add(TokenType.IntegerLiteral, line, column, -largeLiterals.size());
+    }
+
+    /**
+     * Append the first tokens of another buffer. The values of identifiers
+     * are replaced with the index given by the identifier map.
+     *
+     * @param other the buffer to append tokens from
+     * @param count the number of tokens to append
+     * @param identifiers map from identifier values in the other buffer to
+     * identifier values in this buffer
+     */
+    public void addAll(TokenBuffer other, int count, int[] identifiers) {
+        for (int i = 0; i < count; ++i) {
+            var type = other.getType(i);
+            int value = other.values[i];
+            if (type == TokenType.Identifier) {
+                add(type, other.lines[i], other.columns[i], identifiers[value]);
+            } else if (type == TokenType.IntegerLiteral && value < 0) {
+                addLargeLiteral(other.lines[i], other.columns[i], other.largeLiterals.get(-value - 1));
+            } else {
+                add(type, other.lines[i], other.columns[i], value);
+            }
+        }
+    }
+
+    /**
+     * Get the number of tokens in this buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    public TokenType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public int getLine(int index) {
+        return lines[index];
+    }
+
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Get the string table index of the identifier at the given index.
+     */
+    public int getIdentifier(int index) {
+        assert getType(index) == TokenType.Identifier;
+        return values[index];
+    }
+
+    /**
+     * Get the literal of the integer literal at the given index.
+     */
+    public Literal getLiteral(int index) {
+        assert getType(index) == TokenType.IntegerLiteral;
+        int value = values[index];
+        if (value >= 0) {
+            return Literal.ofValue(value);
+        } else {
+            return new Literal(largeLiterals.get(-value - 1));
+        }
+    }
+
+    /**
+     * Create a Token object for the token at the given index.
+     */
+    public Token getToken(int index) {
+        var type = getType(index);
+        return switch (type) {
+            case Identifier -> new Token(type, lines[index], columns[index], values[index]);
+            case IntegerLiteral -> new Token(type, lines[index], columns[index], getLiteral(index));
+            default -> new Token(type, lines[index], columns[index]);
+        };
+    }
+}
@@ -0,0 +1,304 @@
+package edu.kit.compiler.logger;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Records wall time, CPU time and allocated bytes of the phases of a
+ * compilation (similar to `-ftime-report` in GCC).
+ *
+ * Measurements may be nested. The time and memory spent in a nested phase is
+ * only attributed to the innermost phase, so that the values of all phases of
+ * a single thread add up to the total values. CPU time and allocated bytes are
+ * measured for the current thread only, i.e. external processes only
+ * contribute wall time.
+ *
+ * A report may be used from multiple threads. Nesting is tracked per thread,
+ * and the values of phases measured on several threads are summed up. For
+ * phases that run concurrently (lexing, semantic analysis and register
+ * allocation with more than one job), the wall time of a phase is therefore
+ * the time spent in it by all threads, and may exceed the elapsed time of the
+ * compilation. The same holds for the total, which is the sum of all phases.
+ *
+ * In addition, a report may hold named counters for statistics of the
+ * compilation, which are printed after the phases.
+ */
+public class TimeReport {
+
+    private static final TimeReport DISABLED = new TimeReport(false);
+    private static final Measurement NO_MEASUREMENT = () -> { };
+
+    private final boolean enabled;
+    private final ThreadMXBean threadBean;
+    private final Map<String, Phase> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Long> counters = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final ThreadLocal<Deque<ActiveMeasurement>> active = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Create a new, enabled time report.
+     */
+    public TimeReport() {
+        this(true);
+    }
+
+    private TimeReport(boolean enabled) {
+        this.enabled = enabled;
+        this.threadBean = enabled ? ManagementFactory.getThreadMXBean() : null;
+    }
+
+    /**
+     * Return a time report that does not record anything.
+     */
+    public static TimeReport disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Return true if this report records measurements.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a measurement of the phase with the given name. The measurement
+     * ends once the returned object is closed, which should be done in a
+     * finally block.
+     */
+    public Measurement measure(String phase) {
+        if (!enabled) {
+            return NO_MEASUREMENT;
+        }
+
+        var measurement = new ActiveMeasurement(phases.computeIfAbsent(phase, Phase::new));
+        active.get().push(measurement);
+        return measurement;
+    }
+
+    /**
+     * Add the given amount to the counter with the given name.
+     */
+    public void count(String counter, long amount) {
+        if (enabled) {
+            counters.merge(counter, amount, Long::sum);
+        }
+    }
+
+    /**
+     * Return all counters in order of their first use.
+     */
+    public Map<String, Long> getCounters() {
+        synchronized (counters) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(counters));
+        }
+    }
+
+    /**
+     * Return all phases measured so far in order of their first measurement.
+     */
+    public List<Phase> getPhases() {
+        synchronized (phases) {
+            return List.copyOf(phases.values());
+        }
+    }
+
+    /**
+     * Print a table of all phases, sorted by descending wall time.
+     */
+    public void printTable(PrintStream stream) {
+        var sorted = sortedPhases();
+        var total = total();
+
+        stream.printf("%-36s %8s %12s %6s %12s %6s %14s%n",
+            "phase", "calls", "wall (ms)", "%", "cpu (ms)", "%", "alloc (KiB)");
+        for (var phase : sorted) {
+            printRow(stream, phase, total);
+        }
+        printRow(stream, total, total);
+
+        var counters = getCounters();
+        if (!counters.isEmpty()) {
+            stream.println();
+            stream.printf("%-52s %12s%n", "counter", "value");
+            for (var counter : counters.entrySet()) {
+                stream.printf("%-52s %12d%n", counter.getKey(), counter.getValue());
+            }
+        }
+    }
+
+    /**
+     * Print all phases as a JSON object, sorted by descending wall time.
+     */
+    public void printJson(PrintStream stream) {
+        var sorted = sortedPhases();
+
+        stream.println("{");
+        stream.println("  \"phases\": [");
+        for (int i = 0; i < sorted.size(); ++i) {
+            stream.printf("    %s%s%n", toJson(sorted.get(i)), i + 1 < sorted.size() ? "," : "");
+        }
+        stream.println("  ],");
+
+        var counters = new ArrayList<>(getCounters().entrySet());
+        stream.println("  \"counters\": {");
+        for (int i = 0; i < counters.size(); ++i) {
+            stream.printf("    \"%s\": %d%s%n", escape(counters.get(i).getKey()), counters.get(i).getValue(),
+                i + 1 < counters.size() ? "," : "");
+        }
+        stream.println("  },");
+        stream.printf("  \"total\": %s%n", toJson(total()));
+        stream.println("}");
+    }
+
+    private List<Phase> sortedPhases() {
+        var sorted = new ArrayList<>(getPhases());
+        sorted.sort(Comparator.comparingLong(Phase::getWallNanos).reversed());
+        return sorted;
+    }
+
+    private Phase total() {
+        var total = new Phase("total");
+        for (var phase : getPhases()) {
+            total.add(0, phase.wallNanos, phase.cpuNanos, phase.allocatedBytes);
+        }
+        total.calls = 1;
+        return total;
+    }
+
+    private static void printRow(PrintStream stream, Phase phase, Phase total) {
+        stream.printf("%-36s %8d %12.3f %5.1f%% %12.3f %5.1f%% %14s%n",
+            phase.name, phase.calls,
+            phase.wallNanos / 1e6, percentage(phase.wallNanos, total.wallNanos),
+            phase.cpuNanos / 1e6, percentage(phase.cpuNanos, total.cpuNanos),
+            phase.allocatedBytes < 0 ? "n/a" : Long.toString(phase.allocatedBytes / 1024));
+    }
+
+    private static double percentage(long value, long total) {
+        return total == 0 ? 0.0 : 100.0 * value / total;
+    }
+
+    private static String toJson(Phase phase) {
+        return String.format(
+            "{\"name\": \"%s\", \"calls\": %d, \"wallNanos\": %d, \"cpuNanos\": %d, \"allocatedBytes\": %d}",
+            escape(phase.name),
+            phase.calls, phase.wallNanos, phase.cpuNanos, phase.allocatedBytes);
+    }
+
+    private static String escape(String string) {
+        return string.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private long cpuTime() {
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long allocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * Represents a running measurement, which is ended by closing it.
+     */
+    public interface Measurement extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Represents the accumulated values of all measurements of a phase.
+     * Values of nested phases are not included.
+     */
+    public static final class Phase {
+
+        @Getter
+        private final String name;
+        @Getter
+        private int calls = 0;
+        @Getter
+        private long wallNanos = 0;
+        @Getter
+        private long cpuNanos = 0;
+        /**
+         * Number of bytes allocated, or a negative value if the JVM does not
+         * support measuring allocations.
+         */
+        @Getter
+        private long allocatedBytes = 0;
+
+        private Phase(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(int calls, long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.calls += calls;
+            this.wallNanos += wallNanos;
+            this.cpuNanos += cpuNanos;
+            this.allocatedBytes = allocatedBytes < 0 || this.allocatedBytes < 0
+                ? -1 : this.allocatedBytes + allocatedBytes;
+        }
+    }
+
+    private final class ActiveMeasurement implements Measurement {
+
+        private final Phase phase;
+
+        private final long startWall = System.nanoTime();
+        private final long startCpu = cpuTime();
+        private final long startAllocated = allocatedBytes();
+
+        private long nestedWall = 0;
+        private long nestedCpu = 0;
+        private long nestedAllocated = 0;
+
+        private boolean closed = false;
+
+        private ActiveMeasurement(Phase phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            long wall = System.nanoTime() - startWall;
+            long cpu = cpuTime() - startCpu;
+            long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+
+            // close nested measurements that have not been closed properly
+            var active = TimeReport.this.active.get();
+            while (!active.isEmpty() && active.peek() != this) {
+                active.peek().close();
+            }
+            active.remove(this);
+
+            phase.add(1, wall - nestedWall, cpu - nestedCpu,
+                allocated < 0 ? -1 : allocated - nestedAllocated);
+
+            var parent = active.peek();
+            if (parent != null) {
+                parent.nestedWall += wall;
+                parent.nestedCpu += cpu;
+                parent.nestedAllocated += allocated;
+            }
+        }
+    }
+}
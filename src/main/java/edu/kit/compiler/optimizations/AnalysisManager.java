@@ -0,0 +1,98 @@
+package edu.kit.compiler.optimizations;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import edu.kit.compiler.optimizations.analysis.ConstantAnalysis;
+import edu.kit.compiler.optimizations.analysis.LoopAnalysis;
+import edu.kit.compiler.optimizations.inlining.CalleeAnalysis;
+import firm.Graph;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Caches the results of analyses for each graph, so that local optimizations
+ * do not recompute them as long as the graph does not change.
+ *
+ * When a local optimization changes a graph, all results for the graph
+ * except those of the analyses preserved by the optimization (see
+ * Optimization.Local.getPreservedAnalyses) are invalidated by the Optimizer.
+ * Cached results are shared, and must not be modified by their users.
+ */
+public final class AnalysisManager {
+
+    /**
+     * Loops of a graph on block level, depends only on the control flow.
+     */
+    public static final Analysis<LoopAnalysis> LOOPS = new Analysis<>("LoopAnalysis", graph -> {
+        var analysis = new LoopAnalysis(graph);
+        analysis.analyze();
+        return analysis;
+    });
+
+    /**
+     * Constant values of the nodes of a graph.
+     */
+    public static final Analysis<ConstantAnalysis> CONSTANTS = new Analysis<>("ConstantAnalysis", graph -> {
+        var analysis = new ConstantAnalysis(graph);
+        analysis.analyze();
+        return analysis;
+    });
+
+    /**
+     * Number of nodes of a graph, excluding blocks.
+     */
+    public static final Analysis<Integer> NODE_COUNT = new Analysis<>("NodeCount",
+        graph -> CalleeAnalysis.run(graph).getNumNodes());
+
+    private final Map<Graph, Map<Analysis<?>, Object>> results = new HashMap<>();
+
+    /**
+     * Return the result of the given analysis for the given graph. The
+     * analysis is only run if there is no valid cached result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Graph graph, Analysis<T> analysis) {
+        var graphResults = results.computeIfAbsent(graph, g -> new HashMap<>());
+        var result = (T) graphResults.get(analysis);
+        if (result == null) {
+            result = analysis.function.apply(graph);
+            graphResults.put(analysis, result);
+        }
+        return result;
+    }
+
+    /**
+     * Invalidate all results for the given graph except those of the given
+     * analyses.
+     */
+    public void invalidate(Graph graph, Set<Analysis<?>> preserved) {
+        var graphResults = results.get(graph);
+        if (graphResults != null) {
+            graphResults.keySet().retainAll(preserved);
+        }
+    }
+
+    /**
+     * Invalidate all results for the given graph.
+     */
+    public void invalidate(Graph graph) {
+        results.remove(graph);
+    }
+
+    /**
+     * An analysis whose result can be cached by the AnalysisManager.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class Analysis<T> {
+        private final String name;
+        private final Function<Graph, T> function;
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
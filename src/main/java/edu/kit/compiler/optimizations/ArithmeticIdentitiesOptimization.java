@@ -1,5 +1,6 @@
 package edu.kit.compiler.optimizations;
 
+import java.util.Set;
 import java.util.function.BinaryOperator;
 
 import edu.kit.compiler.io.StackWorklist;
@@ -59,6 +60,22 @@ public final class ArithmeticIdentitiesOptimization implements Optimization.Loca
         return visitor.isChanges();
     }
 
+    @Override
+    public Set<AnalysisManager.Analysis<?>> getPreservedAnalyses() {
+        // only data nodes are replaced, the control flow is not changed
+        return Set.of(AnalysisManager.LOOPS);
+    }
+
+    @Override
+    public boolean isEnabledBy(Optimization.Local other) {
+        // nodes are visited in topological order and replacements are
+        // added to the worklist, and the operands of a node do not change
+        // if nodes are moved or blocks are merged
+        return !(other instanceof ArithmeticIdentitiesOptimization
+            || other instanceof LinearBlocksOptimization
+            || other instanceof LoopInvariantOptimization);
+    }
+
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     private static final class Visitor extends NodeVisitor.Default {
         private final Graph graph;
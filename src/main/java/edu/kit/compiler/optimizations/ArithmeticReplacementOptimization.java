@@ -49,6 +49,14 @@ public class ArithmeticReplacementOptimization implements Optimization.Local {
         return visitor.hasChanged;
     }
 
+    @Override
+    public boolean isEnabledBy(Optimization.Local other) {
+        // the operands of a node do not change if nodes are moved or
+        // blocks are merged
+        return !(other instanceof LinearBlocksOptimization
+            || other instanceof LoopInvariantOptimization);
+    }
+
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     private static final class Visitor extends NodeVisitor.Default {
 
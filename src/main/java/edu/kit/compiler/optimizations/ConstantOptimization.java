@@ -1,6 +1,7 @@
 package edu.kit.compiler.optimizations;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,10 +42,10 @@ public class ConstantOptimization implements Optimization.Local {
     public boolean optimize(Graph graph, OptimizationState state) {
         this.graph = graph;
 
-        ConstantAnalysis analysis = new ConstantAnalysis(graph);
-        analysis.analyze();
+        ConstantAnalysis analysis = state.getAnalysisManager().get(graph, AnalysisManager.CONSTANTS);
 
-        this.nodeValues = analysis.getNodeValues();
+        // the cached result must not be modified
+        this.nodeValues = new HashMap<>(analysis.getNodeValues());
 
         this.undefinedCondStrategy = new UndefinedCondStrategies.SkipMostBlocksInPostorder(graph);
 
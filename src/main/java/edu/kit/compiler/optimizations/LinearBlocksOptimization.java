@@ -66,6 +66,16 @@ public class LinearBlocksOptimization implements Optimization.Local {
         return visitor.isChange();
     }
 
+    @Override
+    public boolean isEnabledBy(Optimization.Local other) {
+        // a single run removes all linear blocks, and optimizations that only
+        // replace or move data nodes do not change the control flow
+        return !(other instanceof LinearBlocksOptimization
+            || other instanceof ArithmeticIdentitiesOptimization
+            || other instanceof ArithmeticReplacementOptimization
+            || other instanceof LoopInvariantOptimization);
+    }
+
     /**
      * Block visitor for finding and eliminating linear blocks. Only one
      * iteration is required if the blocks are visited in postorder.
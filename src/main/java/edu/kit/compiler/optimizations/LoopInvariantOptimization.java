@@ -39,11 +39,25 @@ public class LoopInvariantOptimization implements Optimization.Local {
     @Setter
     private Optional<MoveInvariantStrategy> moveInvariantStrategy = Optional.empty();
 
+    @Override
+    public Set<AnalysisManager.Analysis<?>> getPreservedAnalyses() {
+        // nodes are only moved to existing blocks
+        return Set.of(AnalysisManager.LOOPS);
+    }
+
+    @Override
+    public boolean isEnabledBy(Optimization.Local other) {
+        // all invariant nodes are moved in a single run
+        return !(other instanceof LoopInvariantOptimization);
+    }
+
     @Override
     public boolean optimize(Graph graph, OptimizationState state) {
         graph.assureProperties(IR_GRAPH_PROPERTY_CONSISTENT_DOMINANCE);
 
-        LoopInvariantAnalysis loopInvariantAnalysis = new LoopInvariantAnalysis(graph);
+        LoopInvariantAnalysis loopInvariantAnalysis = new LoopInvariantAnalysis(
+            graph, state.getAnalysisManager().get(graph, AnalysisManager.LOOPS)
+        );
         loopInvariantAnalysis.analyze();
 
         Map<Block, Set<Block>> loops = loopInvariantAnalysis.getLoops();
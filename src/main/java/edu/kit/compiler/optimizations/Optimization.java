@@ -21,6 +21,25 @@ public final class Optimization {
          * to its previous state before returning.
          */
         boolean optimize(Graph graph, OptimizationState state);
+
+        /**
+         * Return the analyses whose results remain valid when this
+         * optimization changes a graph. By default, no analysis is preserved.
+         */
+        default Set<AnalysisManager.Analysis<?>> getPreservedAnalyses() {
+            return Set.of();
+        }
+
+        /**
+         * Return true if changes made by the given optimization may allow
+         * this optimization to make further changes. The Optimizer only
+         * reruns this optimization on a graph after an optimization it is
+         * enabled by has changed the graph. By default, an optimization is
+         * enabled by every optimization, including itself.
+         */
+        default boolean isEnabledBy(Local other) {
+            return true;
+        }
     }
 
 
@@ -0,0 +1,85 @@
+package edu.kit.compiler.optimizations;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the total work of the optimizer, both by fuel and by wall-clock
+ * time. Once the budget is exhausted, no further transformations are made
+ * and the program is compiled with its current IR.
+ *
+ * One unit of fuel is consumed for each run of an optimization pass, and
+ * for each additional transformation of passes that make many independent
+ * transformations per run (e.g. each inlined call). As the transformations
+ * are made in a deterministic order, limiting the fuel to n makes exactly
+ * the first n of them. Hence, miscompiles can be bisected by searching for
+ * the smallest amount of fuel that breaks the program.
+ *
+ * The time limit is measured from the creation of the budget.
+ */
+public final class OptimizationBudget {
+
+    /**
+     * Value of the fuel and the time limit that represents no limit.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long initialFuel;
+    private final AtomicLong fuel;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private volatile boolean timedOut = false;
+
+    /**
+     * Create a budget with the given fuel and the given time limit in
+     * milliseconds. Both can be UNLIMITED.
+     */
+    public OptimizationBudget(long fuel, long timeLimitMillis) {
+        if (fuel < 0 || timeLimitMillis < 0) {
+            throw new IllegalArgumentException("optimization budget must not be negative");
+        }
+
+        this.initialFuel = fuel;
+        this.fuel = new AtomicLong(fuel);
+        this.hasDeadline = timeLimitMillis != UNLIMITED;
+        this.deadline = hasDeadline ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis) : 0;
+    }
+
+    public static OptimizationBudget unlimited() {
+        return new OptimizationBudget(UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Consume one unit of fuel. Returns true if the budget allows one more
+     * transformation, false if the budget is exhausted.
+     */
+    public boolean consume() {
+        if (isTimedOut()) {
+            return false;
+        }
+        return fuel.getAndUpdate(f -> f > 0 ? f - 1 : 0) > 0;
+    }
+
+    /**
+     * Returns true if either the fuel or the time is used up.
+     */
+    public boolean isExhausted() {
+        return fuel.get() == 0 || isTimedOut();
+    }
+
+    /**
+     * Returns the amount of fuel consumed so far.
+     */
+    public long getConsumedFuel() {
+        return initialFuel - fuel.get();
+    }
+
+    private boolean isTimedOut() {
+        // stay timed out once the deadline has passed, so that all later
+        // checks agree
+        if (!timedOut && hasDeadline && System.nanoTime() - deadline >= 0) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+}
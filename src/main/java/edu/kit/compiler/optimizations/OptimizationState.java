@@ -3,6 +3,7 @@ package edu.kit.compiler.optimizations;
 import edu.kit.compiler.optimizations.attributes.AttributeAnalysis;
 import edu.kit.compiler.optimizations.inlining.InliningStateTracker;
 import firm.Graph;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 /**
@@ -11,15 +12,30 @@ import lombok.Getter;
  *
  * For example, a local optimization can use the optimization state to track
  * its total number of passes for a specific function.
+ *
+ * The optimization budget bounds the work of all optimizations. Local
+ * optimizations that make many transformations per run should consume fuel
+ * for each of them and stop once the budget is exhausted.
  */
+@AllArgsConstructor
 public class OptimizationState {
 
+    @Getter
+    private final OptimizationBudget budget;
+
     @Getter
     private final InliningStateTracker inlineStateTracker = new InliningStateTracker();
 
     @Getter
     private final AttributeAnalysis attributeAnalysis = new AttributeAnalysis();
 
+    @Getter
+    private final AnalysisManager analysisManager = new AnalysisManager();
+
+    public OptimizationState() {
+        this(OptimizationBudget.unlimited());
+    }
+
     /**
      * Should be called each time a round of local optimizations for a specific
      * function has finished. Updates the state accordingly.
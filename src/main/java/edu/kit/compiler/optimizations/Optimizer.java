@@ -5,6 +5,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 import edu.kit.compiler.DebugFlags;
+import edu.kit.compiler.logger.TimeReport;
 import firm.Dump;
 import firm.Entity;
 import firm.Graph;
@@ -14,30 +15,63 @@ public final class Optimizer {
 
     private final List<Optimization.Global> globalOptimizations;
     private final List<Optimization.Local> localOptimizations;
+    /**
+     * Dependency matrix of the local optimizations, `enabledBy[i][j]` is true
+     * if optimization i may be enabled by changes of optimization j.
+     */
+    private final boolean[][] enabledBy;
     private final DebugFlags debugFlags;
+    private final TimeReport timeReport;
 
     public Optimizer(List<Optimization.Global> globalOptimizations,
             List<Optimization.Local> localOptimizations, DebugFlags debugFlags) {
+        this(globalOptimizations, localOptimizations, debugFlags, TimeReport.disabled());
+    }
+
+    /**
+     * Create an optimizer that records the time spent in each optimization
+     * in the given time report.
+     */
+    public Optimizer(List<Optimization.Global> globalOptimizations,
+            List<Optimization.Local> localOptimizations, DebugFlags debugFlags,
+            TimeReport timeReport) {
         this.globalOptimizations = List.copyOf(globalOptimizations);
         this.localOptimizations = List.copyOf(localOptimizations);
+        this.enabledBy = new boolean[localOptimizations.size()][localOptimizations.size()];
+        for (int i = 0; i < localOptimizations.size(); ++i) {
+            for (int j = 0; j < localOptimizations.size(); ++j) {
+                enabledBy[i][j] = localOptimizations.get(i).isEnabledBy(localOptimizations.get(j));
+            }
+        }
         this.debugFlags = debugFlags;
+        this.timeReport = timeReport;
     }
 
     /**
      * Run all global and local optimizations in turns until a fix point is
-     * reached.
+     * reached or the optimization budget given by the debug flags is
+     * exhausted. In the latter case, the graphs are left in their current
+     * state.
      *
      * Returns the set of all living functions.
      */
     public Set<Graph> optimize(Entity main) {
         dumpGraphsIfEnabled("raw", Program.getGraphs());
 
-        var optimizationState = new OptimizationState();
+        var budget = new OptimizationBudget(debugFlags.getOptimizationFuel(),
+            debugFlags.getOptimizationTimeLimit());
+        var optimizationState = new OptimizationState(budget);
         var changeSet = getAllGraphs();
         boolean hasChanged;
 
         do {
-            var callGraph = CallGraph.createPruned(main);
+            CallGraph callGraph;
+            var callGraphMeasurement = timeReport.measure("CallGraph");
+            try {
+                callGraph = CallGraph.createPruned(main);
+            } finally {
+                callGraphMeasurement.close();
+            }
             changeSet.removeIf(fun -> !callGraph.functionSet().contains(fun.getEntity()));
             hasChanged = optimizeLocal(callGraph, optimizationState, changeSet);
             changeSet.clear();
@@ -45,11 +79,17 @@ public final class Optimizer {
             // ? maybe only run global opts once per iteration
             Set<Graph> newChanges;
             do {
-                newChanges = optimizeGlobal(callGraph);
+                newChanges = optimizeGlobal(callGraph, budget);
+                newChanges.forEach(optimizationState.getAnalysisManager()::invalidate);
                 changeSet.addAll(newChanges);
             } while (!newChanges.isEmpty());
 
-        } while (hasChanged && !changeSet.isEmpty());
+        } while (hasChanged && !changeSet.isEmpty() && !budget.isExhausted());
+
+        timeReport.count("Optimizer/fuel", budget.getConsumedFuel());
+        if (budget.isExhausted()) {
+            timeReport.count("Optimizer/budgetExhausted", 1);
+        }
 
         Set<Graph> prunedGraphs = CallGraph
             .createPruned(main).functionSet().stream()
@@ -64,15 +104,24 @@ public final class Optimizer {
 
     /**
      * Run global optimizations on the program once. The given call graphs is
-     * passed to each optimization and updated as needed. Returns the a set
-     * containing all graphs that have changed.
+     * passed to each optimization and updated as needed. Each optimization
+     * consumes fuel of the given budget. Returns the a set containing all
+     * graphs that have changed.
      */
-    private Set<Graph> optimizeGlobal(CallGraph callGraph) {
+    private Set<Graph> optimizeGlobal(CallGraph callGraph, OptimizationBudget budget) {
         var allChanges = new HashSet<Graph>();
         for (var optimization : globalOptimizations) {
-            var newChanges = optimization.optimize(callGraph);
-            allChanges.addAll(newChanges);
-            newChanges.forEach(callGraph::update);
+            if (!budget.consume()) {
+                break;
+            }
+            var measurement = timeReport.measure(getPhaseName(optimization));
+            try {
+                var newChanges = optimization.optimize(callGraph);
+                allChanges.addAll(newChanges);
+                newChanges.forEach(callGraph::update);
+            } finally {
+                measurement.close();
+            }
         }
 
         return allChanges;
@@ -92,15 +141,7 @@ public final class Optimizer {
 
         var programChanged = false;
         for (var graph : orderedGraphs) {
-            boolean graphChanged = false;
-            boolean changes;
-            do {
-                changes = false;
-                for (var optimization : localOptimizations) {
-                    changes |= optimization.optimize(graph, optimizationState);
-                }
-                graphChanged |= changes;
-            } while (changes);
+            boolean graphChanged = optimizeGraph(graph, optimizationState);
 
             if (graphChanged) {
                 callGraph.update(graph);
@@ -112,6 +153,68 @@ public final class Optimizer {
         return programChanged;
     }
 
+    /**
+     * Run local optimizations on the given graph until a fix point is
+     * reached. The optimizations are run in rounds in the given order, but an
+     * optimization is only rerun if an optimization it is enabled by (see
+     * Optimization.Local.isEnabledBy) has changed the graph since its last
+     * run. Each run consumes fuel of the optimization budget, no further
+     * optimizations are run once it is exhausted. Returns true if the graph
+     * has changed.
+     *
+     * For each optimization, the number of runs, the number of runs with
+     * changes and the number of skipped runs are counted in the time report.
+     * A skipped run would have been done by rerunning all optimizations in
+     * each round.
+     */
+    private boolean optimizeGraph(Graph graph, OptimizationState optimizationState) {
+        int numOptimizations = localOptimizations.size();
+        boolean[] pending = new boolean[numOptimizations];
+        Arrays.fill(pending, true);
+        int numPending = numOptimizations;
+
+        boolean graphChanged = false;
+        while (numPending > 0) {
+            for (int i = 0; i < numOptimizations; ++i) {
+                var optimization = localOptimizations.get(i);
+                var phaseName = getPhaseName(optimization);
+                if (!pending[i]) {
+                    timeReport.count(phaseName + "/skipped", 1);
+                    continue;
+                }
+                if (!optimizationState.getBudget().consume()) {
+                    return graphChanged;
+                }
+                pending[i] = false;
+                numPending--;
+
+                boolean changed;
+                var measurement = timeReport.measure(phaseName);
+                try {
+                    changed = optimization.optimize(graph, optimizationState);
+                } finally {
+                    measurement.close();
+                }
+                timeReport.count(phaseName + "/runs", 1);
+
+                if (changed) {
+                    timeReport.count(phaseName + "/changes", 1);
+                    optimizationState.getAnalysisManager().invalidate(graph, optimization.getPreservedAnalyses());
+                    graphChanged = true;
+
+                    for (int j = 0; j < numOptimizations; ++j) {
+                        if (enabledBy[j][i] && !pending[j]) {
+                            pending[j] = true;
+                            numPending++;
+                        }
+                    }
+                }
+            }
+        }
+
+        return graphChanged;
+    }
+
     /**
      * Expands the given set of function to include all (in-)direct callers,
      * sorts all functions in bottom-up order and returns the result.
@@ -142,6 +245,10 @@ public final class Optimizer {
                 .collect(Collectors.toCollection(HashSet::new));
     }
 
+    private static String getPhaseName(Object optimization) {
+        return "Optimizer/" + optimization.getClass().getSimpleName();
+    }
+
     private void dumpGraphsIfEnabled(String prefix, Iterable<Graph> graphs) {
         if (debugFlags.isDumpGraphs()) {
             for (var graph : graphs) {
@@ -0,0 +1,257 @@
+package edu.kit.compiler.optimizations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.compiler.optimizations.analysis.EscapeAnalysis;
+import edu.kit.compiler.optimizations.analysis.EscapeAnalysis.Allocation;
+import firm.BackEdges;
+import firm.Graph;
+import firm.Mode;
+import firm.bindings.binding_irgraph;
+import firm.bindings.binding_irnode.ir_opcode;
+import firm.nodes.Load;
+import firm.nodes.Node;
+import firm.nodes.Phi;
+import firm.nodes.Proj;
+import firm.nodes.Store;
+import firm.nodes.Tuple;
+
+/**
+ * Optimization that replaces the fields of allocations that do not escape the
+ * function (see EscapeAnalysis) with SSA values.
+ *
+ * The value of a field at a Load is found by following the memory chain
+ * backwards until a Store to the field or the allocation itself (where all
+ * fields are zero) is reached. At memory Phis, a Phi for the value of the
+ * field is created. Afterwards, the Loads and Stores are removed from the
+ * memory chain. The allocation is left unused and is removed by
+ * PureFunctionOptimization.
+ */
+public class ScalarReplacementOptimization implements Optimization.Local {
+
+    @Override
+    public boolean optimize(Graph graph, OptimizationState state) {
+        boolean backEdgesEnabled = BackEdges.enabled(graph);
+        if (!backEdgesEnabled) {
+            BackEdges.enable(graph);
+        }
+
+        var analysis = new EscapeAnalysis(graph);
+        analysis.analyze();
+
+        boolean changes = false;
+        for (var allocation : analysis.getAllocations()) {
+            changes |= replaceAllocation(graph, allocation);
+        }
+
+        if (!backEdgesEnabled) {
+            BackEdges.disable(graph);
+        }
+
+        if (changes) {
+            graph.confirmProperties(binding_irgraph.ir_graph_properties_t.IR_GRAPH_PROPERTIES_NONE);
+        }
+        return changes;
+    }
+
+    private static boolean replaceAllocation(Graph graph, Allocation allocation) {
+        if (allocation.getLoads().isEmpty() && allocation.getStores().isEmpty()) {
+            return false;
+        }
+
+        // find the values of all Loads before changing the graph
+        var resolver = new FieldResolver(graph, allocation);
+        Map<Load, Node> values = new HashMap<>();
+        for (var load : allocation.getLoads().entrySet()) {
+            var value = resolver.getValue(load.getKey().getMem(), load.getValue());
+            if (value == null) {
+                // created Phis are left without users and are removed eventually
+                return false;
+            }
+            values.put(load.getKey(), value);
+        }
+
+        // the value of a Load may be the result of another Load or a Phi that
+        // turned out to be trivial
+        Map<Node, Node> replacements = new HashMap<>();
+        resolver.removeTrivialPhis(replacements);
+        for (var load : values.keySet()) {
+            for (var edge : BackEdges.getOuts(load)) {
+                var proj = (Proj) edge.node;
+                if (proj.getNum() == Load.pnRes) {
+                    replacements.put(proj, values.get(load));
+                }
+            }
+        }
+
+        for (var load : values.keySet()) {
+            removeFromMemoryChain(load, load.getMem(), replacements);
+        }
+        for (var store : allocation.getStores().keySet()) {
+            removeFromMemoryChain(store, store.getMem(), replacements);
+        }
+
+        return true;
+    }
+
+    /**
+     * Exchange all Projs of the given Load or Store. The memory Proj is
+     * exchanged with the given memory, result Projs with their replacement.
+     */
+    private static void removeFromMemoryChain(Node node, Node mem, Map<Node, Node> replacements) {
+        List<Proj> projs = new ArrayList<>();
+        for (var edge : BackEdges.getOuts(node)) {
+            projs.add((Proj) edge.node);
+        }
+
+        for (var proj : projs) {
+            if (proj.getMode().equals(Mode.getM())) {
+                Graph.exchange(proj, mem);
+            } else if (replacements.containsKey(proj)) {
+                var replacement = replacements.get(proj);
+                while (replacements.containsKey(replacement)) {
+                    replacement = replacements.get(replacement);
+                }
+                Graph.exchange(proj, replacement);
+            }
+        }
+    }
+
+    /**
+     * Finds the value of fields of an allocation at a given point of the
+     * memory chain. Results are cached for each field and memory node.
+     */
+    private static final class FieldResolver {
+
+        private final Graph graph;
+        private final Allocation allocation;
+        private final Map<Long, Map<Node, Node>> cache = new HashMap<>();
+        private final List<Phi> phis = new ArrayList<>();
+
+        FieldResolver(Graph graph, Allocation allocation) {
+            this.graph = graph;
+            this.allocation = allocation;
+        }
+
+        /**
+         * Return the value of the field at the given offset at the given
+         * memory node, or null if the value can not be determined.
+         */
+        Node getValue(Node mem, long offset) {
+            var cache = this.cache.computeIfAbsent(offset, o -> new HashMap<>());
+            List<Node> visited = new ArrayList<>();
+
+            Node value = null;
+            while (value == null) {
+                if (cache.containsKey(mem)) {
+                    value = cache.get(mem);
+                    break;
+                }
+                visited.add(mem);
+
+                if (mem.getOpCode() == ir_opcode.iro_Phi) {
+                    value = createPhi((Phi) mem, offset, cache);
+                    if (value == null) {
+                        return null;
+                    }
+                } else if (mem.getOpCode() == ir_opcode.iro_Proj) {
+                    var pred = ((Proj) mem).getPred();
+                    if (pred.equals(allocation.getCall())) {
+                        var mode = allocation.getMode(offset);
+                        value = graph.newConst(mode.getNull());
+                    } else if (isStoreToField(pred, offset)) {
+                        value = ((Store) pred).getValue();
+                    } else if (pred.getOpCode() == ir_opcode.iro_Tuple) {
+                        mem = ((Tuple) pred).getPred(((Proj) mem).getNum());
+                    } else if (hasMemoryPredecessor(pred)) {
+                        mem = pred.getPred(0);
+                    } else {
+                        return null;
+                    }
+                } else {
+                    // e.g. the initial memory, which is before the allocation
+                    return null;
+                }
+            }
+
+            for (var node : visited) {
+                cache.put(node, value);
+            }
+            return value;
+        }
+
+        private Node createPhi(Phi mem, long offset, Map<Node, Node> cache) {
+            var mode = allocation.getMode(offset);
+            var preds = new Node[mem.getPredCount()];
+            for (int i = 0; i < preds.length; ++i) {
+                preds[i] = graph.newBad(mode);
+            }
+
+            // the Phi is cached before its predecessors are resolved, as
+            // they may depend on it in loops
+            var phi = (Phi) graph.newPhi(mem.getBlock(), preds, mode);
+            cache.put(mem, phi);
+            phis.add(phi);
+
+            for (int i = 0; i < preds.length; ++i) {
+                var value = getValue(mem.getPred(i), offset);
+                if (value == null) {
+                    return null;
+                }
+                phi.setPred(i, value);
+            }
+            return phi;
+        }
+
+        private boolean isStoreToField(Node node, long offset) {
+            return node.getOpCode() == ir_opcode.iro_Store
+                && allocation.getStores().get(node) != null
+                && allocation.getStores().get(node) == offset;
+        }
+
+        private static boolean hasMemoryPredecessor(Node node) {
+            return switch (node.getOpCode()) {
+                case iro_Load, iro_Store, iro_Call, iro_Div, iro_Mod -> true;
+                default -> false;
+            };
+        }
+
+        /**
+         * Replace Phis whose predecessors are all the same value (or the Phi
+         * itself) with that value. The replaced Phis are added to the given
+         * map.
+         */
+        void removeTrivialPhis(Map<Node, Node> replacements) {
+            boolean changes = true;
+            while (changes) {
+                changes = false;
+                for (var phi : phis) {
+                    if (replacements.containsKey(phi)) {
+                        continue;
+                    }
+
+                    Node same = null;
+                    boolean trivial = true;
+                    for (var pred : phi.getPreds()) {
+                        if (pred.equals(phi) || pred.equals(same)) {
+                            continue;
+                        } else if (same != null) {
+                            trivial = false;
+                            break;
+                        }
+                        same = pred;
+                    }
+
+                    if (trivial && same != null) {
+                        Graph.exchange(phi, same);
+                        replacements.put(phi, same);
+                        changes = true;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package edu.kit.compiler.optimizations.analysis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import edu.kit.compiler.optimizations.Util;
+import edu.kit.compiler.transform.StandardLibraryEntities;
+import firm.BackEdges;
+import firm.Graph;
+import firm.Mode;
+import firm.bindings.binding_irnode.ir_opcode;
+import firm.nodes.Call;
+import firm.nodes.Const;
+import firm.nodes.Load;
+import firm.nodes.Node;
+import firm.nodes.NodeVisitor;
+import firm.nodes.Proj;
+import firm.nodes.Store;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Analysis to find objects and arrays that are allocated by a call to the
+ * standard library and whose pointer does not escape the function.
+ *
+ * The pointer to such an allocation is only used as address (plus a constant
+ * offset) of Loads and Stores. In particular, it is never stored to memory,
+ * passed to another function, returned, compared or merged with other
+ * pointers by a Phi. As a result, the memory of the allocation can not be
+ * accessed by any other means than the collected Loads and Stores.
+ *
+ * Calls are treated as escapes, even if the callee does not store the
+ * pointer, because its accesses to the allocation would not be visible.
+ * Such calls are usually inlined before.
+ */
+@RequiredArgsConstructor
+public class EscapeAnalysis {
+
+    private final Graph graph;
+
+    @Getter
+    private final List<Allocation> allocations = new ArrayList<>();
+
+    /**
+     * Find all allocations whose pointer does not escape. Back edges must be
+     * enabled for the graph.
+     */
+    public void analyze() {
+        List<Call> calls = new ArrayList<>();
+        graph.walk(new NodeVisitor.Default() {
+            @Override
+            public void visit(Call node) {
+                if (isAllocation(node)) {
+                    calls.add(node);
+                }
+            }
+        });
+
+        for (var call : calls) {
+            analyzeAllocation(call).ifPresent(allocations::add);
+        }
+    }
+
+    private static boolean isAllocation(Call call) {
+        if (call.getPtr().getOpCode() != ir_opcode.iro_Address) {
+            return false;
+        }
+
+        var callee = Util.getCallee(call);
+        var library = StandardLibraryEntities.INSTANCE;
+        return callee.equals(library.getCalloc().getEntity())
+            || callee.equals(library.getArenaAlloc().getEntity());
+    }
+
+    private static Optional<Allocation> analyzeAllocation(Call call) {
+        var allocation = new Allocation(call);
+        for (var edge : BackEdges.getOuts(call)) {
+            var user = edge.node;
+            if (user.getOpCode() != ir_opcode.iro_Proj) {
+                return Optional.empty();
+            } else if (user.getMode().equals(Mode.getT())) {
+                // the results of the call, of which there is only the pointer
+                for (var resultEdge : BackEdges.getOuts(user)) {
+                    if (!collectAccesses(resultEdge.node, 0, allocation)) {
+                        return Optional.empty();
+                    }
+                }
+            }
+        }
+
+        if (allocation.hasOverlappingFields()) {
+            return Optional.empty();
+        } else {
+            return Optional.of(allocation);
+        }
+    }
+
+    /**
+     * Add all uses of the given pointer, which points to the allocation at
+     * the given offset, to the allocation. Returns false if the pointer
+     * escapes.
+     */
+    private static boolean collectAccesses(Node pointer, long offset, Allocation allocation) {
+        for (var edge : BackEdges.getOuts(pointer)) {
+            var user = edge.node;
+            var valid = switch (user.getOpCode()) {
+                case iro_Load -> edge.pos == 1 && allocation.addLoad((Load) user, offset);
+                case iro_Store -> edge.pos == 1 && allocation.addStore((Store) user, offset);
+                case iro_Add -> {
+                    var other = user.getPred(1 - edge.pos);
+                    if (other.getOpCode() == ir_opcode.iro_Const) {
+                        var constant = ((Const) other).getTarval().asLong();
+                        yield collectAccesses(user, offset + constant, allocation);
+                    } else {
+                        yield false;
+                    }
+                }
+                default -> false;
+            };
+
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A non-escaping allocation with the Loads and Stores accessing it. Each
+     * access is associated with the offset of the accessed field from the
+     * start of the allocation. All accesses to a field have the same mode.
+     */
+    @RequiredArgsConstructor
+    public static final class Allocation {
+
+        @Getter
+        private final Call call;
+
+        private final Map<Load, Long> loads = new HashMap<>();
+        private final Map<Store, Long> stores = new HashMap<>();
+        private final Map<Long, Mode> fields = new TreeMap<>();
+
+        public Map<Load, Long> getLoads() {
+            return Collections.unmodifiableMap(loads);
+        }
+
+        public Map<Store, Long> getStores() {
+            return Collections.unmodifiableMap(stores);
+        }
+
+        /**
+         * Return the mode of the field at the given offset.
+         */
+        public Mode getMode(long offset) {
+            return fields.get(offset);
+        }
+
+        private boolean addLoad(Load load, long offset) {
+            loads.put(load, offset);
+            return addField(offset, load.getLoadMode());
+        }
+
+        private boolean addStore(Store store, long offset) {
+            stores.put(store, offset);
+            return addField(offset, store.getValue().getMode());
+        }
+
+        private boolean addField(long offset, Mode mode) {
+            var previous = fields.putIfAbsent(offset, mode);
+            return previous == null || previous.equals(mode);
+        }
+
+        private boolean hasOverlappingFields() {
+            long end = Long.MIN_VALUE;
+            for (var field : fields.entrySet()) {
+                if (field.getKey() < end) {
+                    return true;
+                }
+                end = field.getKey() + field.getValue().getSizeBytes();
+            }
+            return false;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import lombok.RequiredArgsConstructor;
 public class LoopInvariantAnalysis {
 
     private final Graph graph;
+    private final LoopAnalysis loopAnalysis;
 
     /**
      * Loops in the graph as received from LoopAnalysis.
@@ -56,9 +57,6 @@ public class LoopInvariantAnalysis {
         List<Node> nodes = new ArrayList<>();
         graph.walkPostorder(new NodeListFiller(nodes));
 
-        LoopAnalysis loopAnalysis = new LoopAnalysis(graph);
-        loopAnalysis.analyze();
-
         loops = loopAnalysis.getLoops();
         loopInvariantNodes = new HashMap<>();
 
@@ -28,6 +28,7 @@ public final class AttributeAnalysis {
 
     private final Map<Entity, Attributes> functions = new HashMap<>();
     private final Entity calloc = StandardLibraryEntities.INSTANCE.getCalloc().getEntity();
+    private final Entity arenaAlloc = StandardLibraryEntities.INSTANCE.getArenaAlloc().getEntity();
 
     /**
      * Return attributes of the given function. Attributes are computed as they
@@ -56,8 +57,8 @@ public final class AttributeAnalysis {
 
                 functions.put(entity, attributes);
                 return attributes;
-            } else if (entity.equals(calloc)) {
-                // special case for calls to calloc
+            } else if (entity.equals(calloc) || entity.equals(arenaAlloc)) {
+                // special case for calls to calloc and the arena allocator
                 var attributes = new Attributes(Purity.PURE, true, true);
                 functions.put(entity, attributes);
                 return attributes;
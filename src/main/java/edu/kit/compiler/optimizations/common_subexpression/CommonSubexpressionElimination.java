@@ -67,7 +67,7 @@ public class CommonSubexpressionElimination implements Optimization.Local {
                     changes |= transform(g, orig, node, orig.getOpCode(), replacementMap);
                 }
             }
-        } while (changes && (numChanges += 1) < MAX_CHANGES);
+        } while (changes && (numChanges += 1) < MAX_CHANGES && state.getBudget().consume());
 
         if (!backEdgesEnabled) {
             BackEdges.disable(g);
@@ -1,5 +1,6 @@
 package edu.kit.compiler.optimizations.inlining;
 
+import edu.kit.compiler.optimizations.AnalysisManager;
 import edu.kit.compiler.optimizations.Optimization;
 import edu.kit.compiler.optimizations.OptimizationState;
 import edu.kit.compiler.optimizations.analysis.LoopAnalysis;
@@ -46,8 +47,8 @@ public class InliningOptimization implements Optimization.Local {
         }
         callerEntry.addPass();
 
-        LoopAnalysis loopAnalysis = new LoopAnalysis(graph);
-        loopAnalysis.analyze();
+        var analysisManager = state.getAnalysisManager();
+        LoopAnalysis loopAnalysis = analysisManager.get(graph, AnalysisManager.LOOPS);
 
         // we transform the nodes in reverse postorder, i.e. we can access the
         // unchanged predecessors of a node when transforming it
@@ -57,8 +58,9 @@ public class InliningOptimization implements Optimization.Local {
 
         BackEdges.enable(graph);
         // approximates the current size of the function
-        int currentNumNodes = CalleeAnalysis.run(graph).getNumNodes();
+        int currentNumNodes = analysisManager.get(graph, AnalysisManager.NODE_COUNT);
         boolean changes = false;
+        var budget = state.getBudget();
         for (Call call: alwaysInlineCalls) {
             int numNodes = getCalleeEntry(call).get().getNumNodes();
             if (numNodes > InliningStateTracker.LARGE_FN
@@ -66,7 +68,7 @@ public class InliningOptimization implements Optimization.Local {
                 // edge case: large function with exactly one call site
                 double prio = calculatePriority(loopAnalysis, call, getCalleeEntry(call).get());
                 maybeInlineCalls.add(new PrioritizedCall(call, prio));
-            } else {
+            } else if (budget.consume()) {
                 Inliner.inline(graph, call, getEntity(call).getGraph());
                 callerEntry.addCompletelyInlinedNodes(numNodes);
                 currentNumNodes += numNodes;
@@ -78,7 +80,7 @@ public class InliningOptimization implements Optimization.Local {
         for (var pc: maybeInlineCalls) {
             Call call = pc.getCall();
             int numNodes = getCalleeEntry(call).get().getNumNodes();
-            if (currentNumNodes + numNodes <= callerEntry.acceptableSize()) {
+            if (currentNumNodes + numNodes <= callerEntry.acceptableSize() && budget.consume()) {
                 Inliner.inline(graph, call, getEntity(call).getGraph());
                 currentNumNodes += numNodes;
                 changes = true;
@@ -74,7 +74,31 @@ public class OperatorInformation {
         }
     }
 
-    private static Map<TokenType, OperatorInformation> infixOperatorInformations = Map.ofEntries(
+    /**
+     * Get the precedence of the given token type as infix operator.
+     * 
+     * @param type Type of the token.
+     * @return Precedence of the operator if valid, otherwise 0 (which is less
+     * than MIN_PRECEDENCE).
+     */
+    public static int getInfixPrecedence(TokenType type) {
+        return infixPrecedences[type.ordinal()];
+    }
+
+    /**
+     * Get the minimal precedence of infix operators in the right operand of
+     * the given infix operator. Operators with a smaller precedence end the
+     * right operand.
+     * 
+     * @param type Type of the token, must be a valid infix operator.
+     * @return Precedence of the operator, plus one unless it is right
+     * associative.
+     */
+    public static int getRightOperandPrecedence(TokenType type) {
+        return rightOperandPrecedences[type.ordinal()];
+    }
+
+    private static final Map<TokenType, OperatorInformation> infixOperatorInformations = Map.ofEntries(
         Map.entry(TokenType.Operator_Equal, new OperatorInformation(1, Associativity.Right)),
         Map.entry(TokenType.Operator_BarBar, new OperatorInformation(3, Associativity.Left)),
         Map.entry(TokenType.Operator_AndAnd, new OperatorInformation(4, Associativity.Left)),
@@ -91,5 +115,18 @@ public class OperatorInformation {
         Map.entry(TokenType.Operator_Percent, new OperatorInformation(12, Associativity.Left))
     );
 
-}
+    // flat tables indexed by the ordinal of the token type, so that the
+    // Parser does not need a map lookup for every token of an expression
+    private static final int[] infixPrecedences = new int[TokenType.values().length];
+    private static final int[] rightOperandPrecedences = new int[TokenType.values().length];
 
+    static {
+        infixOperatorInformations.forEach((type, information) -> {
+            int precedence = information.getPrecedence();
+            infixPrecedences[type.ordinal()] = precedence;
+            rightOperandPrecedences[type.ordinal()] =
+                information.getAssociativity() == Associativity.Right ? precedence : precedence + 1;
+        });
+    }
+
+}
@@ -34,16 +34,17 @@ import edu.kit.compiler.data.ast_nodes.StatementNode.IfStatementNode;
 import edu.kit.compiler.data.ast_nodes.StatementNode.WhileStatementNode;
 import edu.kit.compiler.data.ast_nodes.StatementNode.ReturnStatementNode;
 import edu.kit.compiler.data.ast_nodes.StatementNode.ExpressionStatementNode;
-import edu.kit.compiler.io.BufferedLookaheadIterator;
+import edu.kit.compiler.io.RingBufferLookaheadIterator;
 import edu.kit.compiler.io.LookaheadIterator;
 import edu.kit.compiler.lexer.Lexer;
-import edu.kit.compiler.parser.OperatorInformation.Associativity;
+import edu.kit.compiler.lexer.TokenBuffer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static edu.kit.compiler.data.TokenType.*;
 
@@ -51,7 +52,24 @@ import static edu.kit.compiler.data.TokenType.*;
  * Parses a token stream.
  */
 public class Parser {
-    private LookaheadIterator<Token> tokenStream;
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+    // markers on the operator stack of parseExpression, binary operators
+    // are stored as the ordinal of their token type
+    private static final int PARENTHESIS = -1;
+    private static final int LOGICAL_NEGATION = -2;
+    private static final int ARITHMETIC_NEGATION = -3;
+
+    private TokenSource tokenStream;
+
+    // operator and operand stacks of parseExpression, shared by nested
+    // expressions (e.g. arguments) which use the part above their base
+    private int[] operators = new int[16];
+    private int[] operatorLines = new int[16];
+    private int[] operatorColumns = new int[16];
+    private int operatorCount = 0;
+    private ExpressionNode[] operands = new ExpressionNode[16];
+    private int operandCount = 0;
 
     /**
      * Creates a parser from a LookaheadIterator.
@@ -59,7 +77,7 @@ public class Parser {
      * @param tokenStream LookaheadIterator of tokens.
      */
     public Parser(LookaheadIterator<Token> tokenStream) {
-        this.tokenStream = tokenStream;
+        this.tokenStream = new TokenSource.OfIterator(tokenStream);
     }
 
     /**
@@ -68,7 +86,17 @@ public class Parser {
      * @param lexer The lexer.
      */
     public Parser(Lexer lexer) {
-        this.tokenStream = new BufferedLookaheadIterator<>(lexer);
+        this(new RingBufferLookaheadIterator<>(lexer));
+    }
+
+    /**
+     * Creates a parser that reads input tokens from the given buffer, which
+     * must end with an EndOfStream token (see Lexer.getRemainingTokens).
+     * 
+     * @param tokens The token buffer.
+     */
+    public Parser(TokenBuffer tokens) {
+        this.tokenStream = new TokenSource.OfBuffer(tokens);
     }
 
     /**
@@ -77,13 +105,27 @@ public class Parser {
      * @throws ParseException if a syntax error is encountered.
      */
     public ProgramNode parse() {
+        return parse(classNode -> { });
+    }
+
+    /**
+     * Parses the input and passes each class to the given consumer as soon
+     * as it is complete, e.g. to start analyzing it while the remaining
+     * classes are parsed.
+     * 
+     * @throws ParseException if a syntax error is encountered.
+     */
+    public ProgramNode parse(Consumer<ClassNode> classConsumer) {
         List<ClassNode> classes = new ArrayList<>();
-        Token programStart = tokenStream.get();
-        while (tokenStream.get().getType() == TokenType.Keyword_Class) {
-            classes.add(parseClass());
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        while (tokenStream.getType(0) == TokenType.Keyword_Class) {
+            ClassNode classNode = parseClass();
+            classes.add(classNode);
+            classConsumer.accept(classNode);
         }
         expect(TokenType.EndOfStream);
-        return new ProgramNode(programStart.getLine(), programStart.getColumn(), classes, false);
+        return new ProgramNode(line, column, classes, false);
     }
 
     private ClassNode parseClass() {
@@ -91,41 +133,44 @@ public class Parser {
         List<StaticMethodNode> staticMethods = new ArrayList<>();
         List<DynamicMethodNode> dynamicMethods = new ArrayList<>();
 
-        Token classToken = expect(TokenType.Keyword_Class);
-        Token className = expect(TokenType.Identifier);
+        int classLine = tokenStream.getLine(0);
+        int classColumn = tokenStream.getColumn(0);
+        expect(TokenType.Keyword_Class);
+        int className = expectIdentifier();
         expect(TokenType.Operator_BraceL);
-        while (tokenStream.get().getType() == TokenType.Keyword_Public) {
-            Token firstToken = tokenStream.get();
-            tokenStream.next();
-            if (tokenStream.get().getType() == TokenType.Keyword_Static) {
+        while (tokenStream.getType(0) == TokenType.Keyword_Public) {
+            int line = tokenStream.getLine(0);
+            int column = tokenStream.getColumn(0);
+            tokenStream.next(1);
+            if (tokenStream.getType(0) == TokenType.Keyword_Static) {
                 // Main Method
-                staticMethods.add(parseStaticMethod(firstToken.getLine(), firstToken.getColumn()));
+                staticMethods.add(parseStaticMethod(line, column));
             } else {
                 DataType type = parseType();
-                Token name = expect(TokenType.Identifier);
-                if (tokenStream.get().getType() == TokenType.Operator_Semicolon) {
+                int name = expectIdentifier();
+                if (tokenStream.getType(0) == TokenType.Operator_Semicolon) {
                     // Field
-                    tokenStream.next();
-                    fields.add(new ClassNodeField(firstToken.getLine(), firstToken.getColumn(), type, name.getIntValue().get(), false));
+                    tokenStream.next(1);
+                    fields.add(new ClassNodeField(line, column, type, name, false));
                 } else {
                     List<MethodNodeParameter> params = new ArrayList<>();
                     // Method
                     expect(TokenType.Operator_ParenL);
-                    if (tokenStream.get().getType()!= TokenType.Operator_ParenR) {
+                    if (tokenStream.getType(0)!= TokenType.Operator_ParenR) {
                         params = parseParameters();
                     }
                     expect(TokenType.Operator_ParenR);
                     Optional<MethodNodeRest> mRest = parseMethodRest();
                     BlockStatementNode block = parseBlock();
                     dynamicMethods.add(
-                        new DynamicMethodNode(firstToken.getLine(), firstToken.getColumn(),
-                            type, name.getIntValue().get(), params, mRest, block, false)
+                        new DynamicMethodNode(line, column,
+                            type, name, params, mRest, block, false)
                     );
                 }
             }
         }
         expect(TokenType.Operator_BraceR);
-        return new ClassNode(classToken.getLine(), classToken.getColumn(), className.getIntValue().get(),
+        return new ClassNode(classLine, classColumn, className,
                              fields, staticMethods, dynamicMethods, false);
     }
 
@@ -133,26 +178,26 @@ public class Parser {
         // "public" is already parsed
         expect(TokenType.Keyword_Static);
         expect(TokenType.Keyword_Void);
-        Token name = expect(TokenType.Identifier);
+        int name = expectIdentifier();
         expect(TokenType.Operator_ParenL);
-        int paramLine = tokenStream.get().getLine();
-        int paramColumn = tokenStream.get().getColumn();
+        int paramLine = tokenStream.getLine(0);
+        int paramColumn = tokenStream.getColumn(0);
         DataType paramType = parseType();
-        Token paramName = expect(TokenType.Identifier);
+        int paramName = expectIdentifier();
         MethodNodeParameter param = new MethodNodeParameter(
-            paramLine, paramColumn, paramType, paramName.getIntValue().get(), false
+            paramLine, paramColumn, paramType, paramName, false
         );
         expect(TokenType.Operator_ParenR);
         Optional<MethodNodeRest> mRest = parseMethodRest();
         BlockStatementNode block = parseBlock();
         return new StaticMethodNode(line, column, new DataType(DataTypeClass.Void),
-            name.getIntValue().get(), Arrays.asList(param), mRest, block, false);
+            name, Arrays.asList(param), mRest, block, false);
     }
 
     private DataType parseType() {
         DataType result = parseBasicType();
-        while (tokenStream.get().getType() == TokenType.Operator_BracketL) {
-            tokenStream.next();
+        while (tokenStream.getType(0) == TokenType.Operator_BracketL) {
+            tokenStream.next(1);
             expect(TokenType.Operator_BracketR);
             result = new DataType(result);
         }
@@ -160,12 +205,12 @@ public class Parser {
     }
 
     private Optional<MethodNode.MethodNodeRest> parseMethodRest() {
-        if (tokenStream.get().getType() == TokenType.Keyword_Throws) {
-            int line = tokenStream.get().getLine();
-            int column = tokenStream.get().getColumn();
-            tokenStream.next();
-            Token throwType = expect(TokenType.Identifier);
-            return Optional.of(new MethodNodeRest(line, column, throwType.getIntValue().get(), false));
+        if (tokenStream.getType(0) == TokenType.Keyword_Throws) {
+            int line = tokenStream.getLine(0);
+            int column = tokenStream.getColumn(0);
+            tokenStream.next(1);
+            int throwType = expectIdentifier();
+            return Optional.of(new MethodNodeRest(line, column, throwType, false));
         }
         return Optional.empty();
     }
@@ -173,189 +218,193 @@ public class Parser {
     private List<MethodNodeParameter> parseParameters() {
         List<MethodNodeParameter> result = new ArrayList<>();
         result.add(parseParameter());
-        while (tokenStream.get().getType() == TokenType.Operator_Comma) {
-            tokenStream.next();
+        while (tokenStream.getType(0) == TokenType.Operator_Comma) {
+            tokenStream.next(1);
             result.add(parseParameter());
         }
         return result;
     }
 
     private MethodNodeParameter parseParameter() {
-        int line = tokenStream.get().getLine();
-        int column = tokenStream.get().getColumn();
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
         DataType type = parseType();
-        Token name = expect(TokenType.Identifier);
-        return new MethodNodeParameter(line, column, type, name.getIntValue().get(), false);
+        int name = expectIdentifier();
+        return new MethodNodeParameter(line, column, type, name, false);
     }
 
     private BlockStatementNode parseBlock() {
         List<StatementNode> stmts = new ArrayList<>();
-        Token openingBrace = expect(TokenType.Operator_BraceL);
-        while (tokenStream.get().getType() != TokenType.Operator_BraceR) {
-            TokenType type = tokenStream.get().getType();
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        expect(TokenType.Operator_BraceL);
+        while (tokenStream.getType(0) != TokenType.Operator_BraceR) {
+            TokenType type = tokenStream.getType(0);
             if (type == TokenType.Keyword_Int ||
                 type == TokenType.Keyword_Boolean ||
                 type == TokenType.Keyword_Void ||
                 check(TokenType.Identifier, TokenType.Identifier) ||
                 check(TokenType.Identifier, TokenType.Operator_BracketL, TokenType.Operator_BracketR)) {
                 // LocalVariableDeclarationStatement
-                Token firstToken = tokenStream.get();
+                int firstLine = tokenStream.getLine(0);
+                int firstColumn = tokenStream.getColumn(0);
                 DataType variableType = parseType();
                 Optional<ExpressionNode> expr = Optional.empty();
-                Token name = expect(TokenType.Identifier);
-                if (tokenStream.get().getType() == TokenType.Operator_Equal) {
-                    tokenStream.next();
+                int name = expectIdentifier();
+                if (tokenStream.getType(0) == TokenType.Operator_Equal) {
+                    tokenStream.next(1);
                     expr = Optional.of(parseExpression());
                 }
                 expect(TokenType.Operator_Semicolon);
                 stmts.add(new LocalVariableDeclarationStatementNode(
-                    firstToken.getLine(), firstToken.getColumn(), variableType, name.getIntValue().get(), expr, false
+                    firstLine, firstColumn, variableType, name, expr, false
                 ));
             } else if (type == TokenType.Operator_Semicolon) {
                 // Empty statements in blocks are deleted
-                tokenStream.next();
+                tokenStream.next(1);
             } else {
                 // Statement
                 stmts.add(parseStatement());
             }
         }
         expect(TokenType.Operator_BraceR);
-        return new BlockStatementNode(openingBrace.getLine(), openingBrace.getColumn(), stmts, false);
+        return new BlockStatementNode(line, column, stmts, false);
     }
 
     private StatementNode parseStatement() {
-        Token token = tokenStream.get();
-        switch(token.getType()) {
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        switch (tokenStream.getType(0)) {
             case Operator_BraceL: {
                 return parseBlock();
             }
             case Operator_Semicolon: {
                 // EmptyStatement
-                tokenStream.next();
+                tokenStream.next(1);
                 return new BlockStatementNode(
-                    token.getLine(), token.getColumn(), Collections.emptyList(), false
+                    line, column, Collections.emptyList(), false
                 );
             }
             case Keyword_If: {
-                tokenStream.next();
+                tokenStream.next(1);
                 expect(TokenType.Operator_ParenL);
                 ExpressionNode condition = parseExpression();
                 expect(TokenType.Operator_ParenR);
                 StatementNode thenStmt = parseStatement();
                 Optional<StatementNode> elseStmt = Optional.empty();
-                if (tokenStream.get().getType() == TokenType.Keyword_Else) {
-                    tokenStream.next();
+                if (tokenStream.getType(0) == TokenType.Keyword_Else) {
+                    tokenStream.next(1);
                     elseStmt = Optional.of(parseStatement());
                 }
                 return new IfStatementNode(
-                    token.getLine(), token.getColumn(), condition, thenStmt, elseStmt, false
+                    line, column, condition, thenStmt, elseStmt, false
                 );
             }
             case Keyword_While: {
-                tokenStream.next();
+                tokenStream.next(1);
                 expect(TokenType.Operator_ParenL);
                 ExpressionNode condition = parseExpression();
                 expect(TokenType.Operator_ParenR);
                 StatementNode stmt = parseStatement();
                 return new WhileStatementNode(
-                    token.getLine(), token.getColumn(), condition, stmt, false
+                    line, column, condition, stmt, false
                 );
             }
             case Keyword_Return: {
-                tokenStream.next();
+                tokenStream.next(1);
                 Optional<ExpressionNode> returnVal = Optional.empty();
-                if (tokenStream.get().getType() != TokenType.Operator_Semicolon) {
+                if (tokenStream.getType(0) != TokenType.Operator_Semicolon) {
                     returnVal = Optional.of(parseExpression());
                 }
                 expect(TokenType.Operator_Semicolon);
-                return new ReturnStatementNode(token.getLine(), token.getColumn(), returnVal, false);
+                return new ReturnStatementNode(line, column, returnVal, false);
             }
             default: {
                 // Probably an ExpressionStatement
                 ExpressionNode stmt = parseExpression();
                 expect(TokenType.Operator_Semicolon);
-                return new ExpressionStatementNode(token.getLine(), token.getColumn(), stmt, false);
+                return new ExpressionStatementNode(line, column, stmt, false);
             }
         }
 
     }
 
     private ExpressionNode parsePrimaryExpression() {
-        Token token = tokenStream.get();
-        switch(token.getType()) {
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        switch (tokenStream.getType(0)) {
             case Keyword_Null: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new ValueExpressionNode(
-                    token.getLine(), token.getColumn(), ValueExpressionType.Null, false
+                    line, column, ValueExpressionType.Null, false
                 );
             }
             case Keyword_False: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new ValueExpressionNode(
-                    token.getLine(), token.getColumn(), ValueExpressionType.False, false
+                    line, column, ValueExpressionType.False, false
                 );
             }
             case Keyword_True: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new ValueExpressionNode(
-                    token.getLine(), token.getColumn(), ValueExpressionType.True, false
+                    line, column, ValueExpressionType.True, false
                 );
             }
             case IntegerLiteral: {
-                tokenStream.next();
+                Literal literal = tokenStream.getLiteral(0);
+                tokenStream.next(1);
                 return new ValueExpressionNode(
-                    token.getLine(), token.getColumn(), ValueExpressionType.IntegerLiteral,
-                    token.getLiteralValue().get(), false
+                    line, column, ValueExpressionType.IntegerLiteral,
+                    literal, false
                 );
             }
             case Identifier: {
-                tokenStream.next();
-                if (tokenStream.get().getType() == TokenType.Operator_ParenL) {
+                int name = tokenStream.getIdentifier(0);
+                tokenStream.next(1);
+                if (tokenStream.getType(0) == TokenType.Operator_ParenL) {
                     // method invocation
-                    tokenStream.next();
+                    tokenStream.next(1);
                     List<ExpressionNode> args = parseArguments();
                     expect(TokenType.Operator_ParenR);
                     return new MethodInvocationExpressionNode(
-                        token.getLine(), token.getColumn(), Optional.empty(), token.getIntValue().get(), args, false
+                        line, column, Optional.empty(), name, args, false
                     );
                 } else {
                     // reference
                     return new IdentifierExpressionNode(
-                        token.getLine(), token.getColumn(), token.getIntValue().get(), false
+                        line, column, name, false
                     );
                 }
             }
             case Keyword_This: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new ThisExpressionNode(
-                    token.getLine(), token.getColumn(), false
+                    line, column, false
                 );
             }
-            case Operator_ParenL: {
-                tokenStream.next();
-                ExpressionNode expr = parseExpression();
-                expect(TokenType.Operator_ParenR);
-                return expr;
-            }
             case Keyword_New: {
+                // parenthesized expressions are handled by parseExpression
                 ExpressionNode expr = parseNewExpression();
                 return expr;
             }
             default: {
-                throw new ParseException(token, "expected primary expression");
+                throw new ParseException(tokenStream.getToken(0), "expected primary expression");
             }
         }
     }
 
     private ExpressionNode parseNewExpression() {
-        Token firstToken = expect(TokenType.Keyword_New);
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        expect(TokenType.Keyword_New);
         if (check(TokenType.Identifier, TokenType.Operator_ParenL)) {
             // NewObjectExpression
-            Token typeName = tokenStream.get();
+            int typeName = tokenStream.getIdentifier(0);
             tokenStream.next(2);
             expect(TokenType.Operator_ParenR);
             return new NewObjectExpressionNode(
-                firstToken.getLine(), firstToken.getColumn(), typeName.getIntValue().get(), false
+                line, column, typeName, false
             );
         } else {
             // NewArrayExpression
@@ -365,8 +414,8 @@ public class Parser {
             expect(TokenType.Operator_BracketR);
 
             int dimensions = 1;
-            while (tokenStream.get().getType() == TokenType.Operator_BracketL) {
-                if (tokenStream.get(1).getType() == TokenType.Operator_BracketR) {
+            while (tokenStream.getType(0) == TokenType.Operator_BracketL) {
+                if (tokenStream.getType(1) == TokenType.Operator_BracketR) {
                     tokenStream.next(2);
                     dimensions++;
                 } else {
@@ -375,114 +424,182 @@ public class Parser {
                 }
             }
             return new NewArrayExpressionNode(
-                firstToken.getLine(), firstToken.getColumn(), type, expr, dimensions, false
+                line, column, type, expr, dimensions, false
             );
         }
     }
 
     private DataType parseBasicType() {
-        Token token = tokenStream.get();
-        switch(token.getType()) {
+        switch (tokenStream.getType(0)) {
             case Identifier: {
-                tokenStream.next();
-                return new DataType(token.getIntValue().get());
+                int name = tokenStream.getIdentifier(0);
+                tokenStream.next(1);
+                return new DataType(name);
             }
             case Keyword_Int: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new DataType(DataTypeClass.Int);
             }
             case Keyword_Boolean: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new DataType(DataTypeClass.Boolean);
             }
             case Keyword_Void: {
-                tokenStream.next();
+                tokenStream.next(1);
                 return new DataType(DataTypeClass.Void);
             }
             default: {
-                throw new ParseException(token, "expected int, boolean, void or identifier");
+                throw new ParseException(tokenStream.getToken(0), "expected int, boolean, void or identifier");
             }
         }
         
     }
 
+    /**
+     * Parses an expression by precedence climbing with an explicit stack of
+     * operators and operands instead of recursion, so that deeply nested
+     * expressions do not overflow the call stack. Prefix operators and
+     * parentheses are pushed onto the operator stack as well. Only postfix
+     * operations (arguments and array indices) are parsed recursively.
+     */
     private ExpressionNode parseExpression() {
-        return parseExpression(OperatorInformation.MIN_PRECEDENCE);
-    }
+        int operatorBase = operatorCount;
+        while (true) {
+            pushOperand(parseOperand());
+
+            while (true) {
+                reducePrefixOperators(operatorBase);
+
+                TokenType type = tokenStream.getType(0);
+                int precedence = OperatorInformation.getInfixPrecedence(type);
+                if (precedence >= OperatorInformation.MIN_PRECEDENCE) {
+                    reduceBinaryOperators(operatorBase, precedence);
+                    pushOperator(type.ordinal());
+                    tokenStream.next(1);
+                    break;
+                }
 
-    private ExpressionNode parseExpression(int minPrecedence) {
-        ExpressionNode lhs = parseUnaryExpression();
-
-        Optional<OperatorInformation> operator;
-        while (
-            (operator =
-                OperatorInformation
-                .getInfixOperatorInformation(tokenStream.get().getType())
-            ).isPresent() &&
-            operator.get().getPrecedence() >= minPrecedence
-        ) {
-            Token opToken = tokenStream.get();
-            tokenStream.next();
-
-            int precedence = operator.get().getPrecedence();
-            Associativity associativity = operator.get().getAssociativity();
-            if (associativity == Associativity.Left) {
-                precedence++;
-            } else if (associativity == Associativity.None) {
-                // precedence = OperatorInformation.MAX_PRECEDENCE + 1;
-                precedence++;
+                // end of a parenthesized expression or the whole expression
+                reduceBinaryOperators(operatorBase, 0);
+                if (operatorCount == operatorBase) {
+                    return popOperand();
+                }
+                assert operators[operatorCount - 1] == PARENTHESIS;
+                operatorCount--;
+                expect(TokenType.Operator_ParenR);
+                pushOperand(parsePostfixOperations(popOperand()));
             }
-
-            ExpressionNode rhs = parseExpression(precedence);
-            lhs = new BinaryExpressionNode(
-                opToken.getColumn(), opToken.getLine(), BinaryOperator.fromToken(opToken), lhs, rhs, false
-            );
         }
-        return lhs;
     }
 
-    private ExpressionNode parseUnaryExpression() {
-        Token token = tokenStream.get();
-        switch (token.getType()) {
-        case Operator_Not: {
-                tokenStream.next();
-                ExpressionNode expr = parseUnaryExpression();
-                return new UnaryExpressionNode(
-                    token.getLine(), token.getColumn(), UnaryOperator.LogicalNegation, expr, false
-                );
-            }
-        case Operator_Minus: {
-                tokenStream.next();
-                TokenType followToken = tokenStream.get(1).getType();
-                if (tokenStream.get().getType() == TokenType.IntegerLiteral &&
-                        // we need to exclude the case that the literal is part of a postfix expression
-                        !(followToken == Operator_Dot || followToken == Operator_BracketL)
-                    ) {
-                    // special case: a negated literal is parsed as a single node of the AST
-                    Literal literal = tokenStream.get().getLiteralValue().get().negated();
-                    tokenStream.next();
-                    return new ValueExpressionNode(
-                        token.getLine(), token.getColumn(), ValueExpressionType.IntegerLiteral, literal, false
-                    );
-                } else {
-                    ExpressionNode expr = parseUnaryExpression();
-                    return new UnaryExpressionNode(
-                        token.getLine(), token.getColumn(), UnaryOperator.ArithmeticNegation, expr, false
-                    );
+    /**
+     * Parses the next operand of an expression. Prefix operators and opening
+     * parentheses before the operand are pushed onto the operator stack.
+     */
+    private ExpressionNode parseOperand() {
+        while (true) {
+            switch (tokenStream.getType(0)) {
+                case Operator_Not: {
+                    pushOperator(LOGICAL_NEGATION);
+                    tokenStream.next(1);
+                    break;
+                }
+                case Operator_Minus: {
+                    int line = tokenStream.getLine(0);
+                    int column = tokenStream.getColumn(0);
+                    TokenType followToken = tokenStream.getType(2);
+                    if (tokenStream.getType(1) == TokenType.IntegerLiteral &&
+                            // we need to exclude the case that the literal is part of a postfix expression
+                            !(followToken == Operator_Dot || followToken == Operator_BracketL)
+                        ) {
+                        // special case: a negated literal is parsed as a single node of the AST
+                        Literal literal = tokenStream.getLiteral(1).negated();
+                        tokenStream.next(2);
+                        return new ValueExpressionNode(
+                            line, column, ValueExpressionType.IntegerLiteral, literal, false
+                        );
+                    }
+                    pushOperator(ARITHMETIC_NEGATION);
+                    tokenStream.next(1);
+                    break;
+                }
+                case Operator_ParenL: {
+                    pushOperator(PARENTHESIS);
+                    tokenStream.next(1);
+                    break;
+                }
+                default: {
+                    return parsePostfixOperations(parsePrimaryExpression());
                 }
             }
-        default: {
-                return parsePostfixExpression();
-            }
         }
     }
 
-    private ExpressionNode parsePostfixExpression() {
-        ExpressionNode current = parsePrimaryExpression();
+    /**
+     * Applies the prefix operators on top of the operator stack to the
+     * operand on top of the operand stack.
+     */
+    private void reducePrefixOperators(int operatorBase) {
+        while (operatorCount > operatorBase && (operators[operatorCount - 1] == LOGICAL_NEGATION
+                || operators[operatorCount - 1] == ARITHMETIC_NEGATION)) {
+            operatorCount--;
+            UnaryOperator operator = operators[operatorCount] == LOGICAL_NEGATION
+                ? UnaryOperator.LogicalNegation : UnaryOperator.ArithmeticNegation;
+            pushOperand(new UnaryExpressionNode(
+                operatorLines[operatorCount], operatorColumns[operatorCount], operator, popOperand(), false
+            ));
+        }
+    }
+
+    /**
+     * Applies the binary operators on top of the operator stack whose right
+     * operand ends before an operator with the given precedence.
+     */
+    private void reduceBinaryOperators(int operatorBase, int precedence) {
+        while (operatorCount > operatorBase && operators[operatorCount - 1] >= 0 &&
+                precedence < OperatorInformation.getRightOperandPrecedence(TOKEN_TYPES[operators[operatorCount - 1]])) {
+            operatorCount--;
+            TokenType opType = TOKEN_TYPES[operators[operatorCount]];
+            ExpressionNode rhs = popOperand();
+            ExpressionNode lhs = popOperand();
+            pushOperand(new BinaryExpressionNode(
+                operatorColumns[operatorCount], operatorLines[operatorCount],
+                BinaryOperator.fromTokenType(opType), lhs, rhs, false
+            ));
+        }
+    }
+
+    /**
+     * Push an operator at the position of the current token.
+     */
+    private void pushOperator(int operator) {
+        if (operatorCount == operators.length) {
+            operators = Arrays.copyOf(operators, 2 * operatorCount);
+            operatorLines = Arrays.copyOf(operatorLines, 2 * operatorCount);
+            operatorColumns = Arrays.copyOf(operatorColumns, 2 * operatorCount);
+        }
+        operators[operatorCount] = operator;
+        operatorLines[operatorCount] = tokenStream.getLine(0);
+        operatorColumns[operatorCount] = tokenStream.getColumn(0);
+        operatorCount++;
+    }
+
+    private void pushOperand(ExpressionNode operand) {
+        if (operandCount == operands.length) {
+            operands = Arrays.copyOf(operands, 2 * operandCount);
+        }
+        operands[operandCount++] = operand;
+    }
+
+    private ExpressionNode popOperand() {
+        ExpressionNode operand = operands[--operandCount];
+        operands[operandCount] = null;
+        return operand;
+    }
 
-        while (tokenStream.get().getType() == Operator_Dot || tokenStream.get().getType() == Operator_BracketL) {
-            Token token = tokenStream.get();
-            switch (token.getType()) {
+    private ExpressionNode parsePostfixOperations(ExpressionNode current) {
+        while (tokenStream.getType(0) == Operator_Dot || tokenStream.getType(0) == Operator_BracketL) {
+            switch (tokenStream.getType(0)) {
                 case Operator_Dot:
                     current = parseMethodInvocationOrFieldAccess(current);
                     break;
@@ -491,7 +608,7 @@ public class Parser {
                     break;
                 default:
                     // never reached, see while condition
-                    throw new ParseException(token, "expected dot or array access");
+                    throw new ParseException(tokenStream.getToken(0), "expected dot or array access");
             }
         }
         return current;
@@ -499,19 +616,21 @@ public class Parser {
 
     private ExpressionNode parseMethodInvocationOrFieldAccess(ExpressionNode object) {
         expect(Operator_Dot);
-        Token name = expect(Identifier);
+        int line = tokenStream.getLine(0);
+        int column = tokenStream.getColumn(0);
+        int name = expectIdentifier();
 
-        if (tokenStream.get(0).getType() == Operator_ParenL) {
+        if (tokenStream.getType(0) == Operator_ParenL) {
             // method access
-            tokenStream.next();
+            tokenStream.next(1);
             List<ExpressionNode> args = parseArguments();
             expect(Operator_ParenR);
             return new MethodInvocationExpressionNode(
-                name.getLine(), name.getColumn(), Optional.of(object), name.getIntValue().get(), args, false
+                line, column, Optional.of(object), name, args, false
             );
         } // else field access
         return new FieldAccessExpressionNode(
-            name.getLine(), name.getColumn(), object, name.getIntValue().get(), false
+            line, column, object, name, false
         );
     }
 
@@ -524,14 +643,14 @@ public class Parser {
 
     private List<ExpressionNode> parseArguments() {
         List<ExpressionNode> args = new ArrayList<>();
-        if (tokenStream.get().getType() == TokenType.Operator_ParenR) {
+        if (tokenStream.getType(0) == TokenType.Operator_ParenR) {
             // empty arguments
             return args;
         }
 
         args.add(parseExpression());
-        while (tokenStream.get().getType() == TokenType.Operator_Comma) {
-            tokenStream.next();
+        while (tokenStream.getType(0) == TokenType.Operator_Comma) {
+            tokenStream.next(1);
             args.add(parseExpression());
         }
         return args;
@@ -540,7 +659,7 @@ public class Parser {
     // helper functions
     private boolean check(TokenType... types) {
         for (int i = 0; i < types.length; i++) {
-            if (tokenStream.get(i).getType() != types[i]) {
+            if (tokenStream.getType(i) != types[i]) {
                 return false;
             }
         }
@@ -548,13 +667,21 @@ public class Parser {
         return true;
     }
 
-    private Token expect(TokenType type) {
-        Token token = tokenStream.get();
-        if (token.getType() != type) {
-            throw new ParseException(tokenStream.get(), "expected " + type.name());
+    private void expect(TokenType type) {
+        if (tokenStream.getType(0) != type) {
+            throw new ParseException(tokenStream.getToken(0), "expected " + type.name());
+        }
+
+        tokenStream.next(1);
+    }
+
+    private int expectIdentifier() {
+        if (tokenStream.getType(0) != TokenType.Identifier) {
+            throw new ParseException(tokenStream.getToken(0), "expected " + TokenType.Identifier.name());
         }
 
-        tokenStream.next();
-        return token;
+        int name = tokenStream.getIdentifier(0);
+        tokenStream.next(1);
+        return name;
     }
 }
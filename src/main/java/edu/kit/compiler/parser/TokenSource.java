@@ -0,0 +1,145 @@
+package edu.kit.compiler.parser;
+
+import edu.kit.compiler.data.Literal;
+import edu.kit.compiler.data.Token;
+import edu.kit.compiler.data.TokenType;
+import edu.kit.compiler.io.LookaheadIterator;
+import edu.kit.compiler.lexer.TokenBuffer;
+
+/**
+ * Token access used by the Parser. Tokens are addressed by their position
+ * relative to the current token, so that the Parser does not depend on how
+ * the tokens are stored.
+ */
+interface TokenSource {
+
+    TokenType getType(int pos);
+
+    int getLine(int pos);
+
+    int getColumn(int pos);
+
+    /**
+     * Get the string table index of the identifier at the given position.
+     */
+    int getIdentifier(int pos);
+
+    /**
+     * Get the literal of the integer literal at the given position.
+     */
+    Literal getLiteral(int pos);
+
+    /**
+     * Get the token at the given position as Token object, e.g. for error
+     * reporting.
+     */
+    Token getToken(int pos);
+
+    /**
+     * Move forward for the given number of tokens.
+     */
+    void next(int steps);
+
+    /**
+     * TokenSource that reads Token objects from a LookaheadIterator.
+     */
+    static final class OfIterator implements TokenSource {
+
+        private final LookaheadIterator<Token> tokenStream;
+
+        OfIterator(LookaheadIterator<Token> tokenStream) {
+            this.tokenStream = tokenStream;
+        }
+
+        @Override
+        public TokenType getType(int pos) {
+            return tokenStream.get(pos).getType();
+        }
+
+        @Override
+        public int getLine(int pos) {
+            return tokenStream.get(pos).getLine();
+        }
+
+        @Override
+        public int getColumn(int pos) {
+            return tokenStream.get(pos).getColumn();
+        }
+
+        @Override
+        public int getIdentifier(int pos) {
+            return tokenStream.get(pos).getIntValue().get();
+        }
+
+        @Override
+        public Literal getLiteral(int pos) {
+            return tokenStream.get(pos).getLiteralValue().get();
+        }
+
+        @Override
+        public Token getToken(int pos) {
+            return tokenStream.get(pos);
+        }
+
+        @Override
+        public void next(int steps) {
+            tokenStream.next(steps);
+        }
+    }
+
+    /**
+     * TokenSource that reads tokens from a TokenBuffer by index. The buffer
+     * must end with an EndOfStream token, which is never moved past.
+     */
+    static final class OfBuffer implements TokenSource {
+
+        private final TokenBuffer buffer;
+        private final int last;
+        private int index = 0;
+
+        OfBuffer(TokenBuffer buffer) {
+            assert buffer.size() > 0 && buffer.getType(buffer.size() - 1) == TokenType.EndOfStream;
+            this.buffer = buffer;
+            this.last = buffer.size() - 1;
+        }
+
+        private int indexOf(int pos) {
+            return Math.min(index + pos, last);
+        }
+
+        @Override
+        public TokenType getType(int pos) {
+            return buffer.getType(indexOf(pos));
+        }
+
+        @Override
+        public int getLine(int pos) {
+            return buffer.getLine(indexOf(pos));
+        }
+
+        @Override
+        public int getColumn(int pos) {
+            return buffer.getColumn(indexOf(pos));
+        }
+
+        @Override
+        public int getIdentifier(int pos) {
+            return buffer.getIdentifier(indexOf(pos));
+        }
+
+        @Override
+        public Literal getLiteral(int pos) {
+            return buffer.getLiteral(indexOf(pos));
+        }
+
+        @Override
+        public Token getToken(int pos) {
+            return buffer.getToken(indexOf(pos));
+        }
+
+        @Override
+        public void next(int steps) {
+            index = indexOf(steps);
+        }
+    }
+}
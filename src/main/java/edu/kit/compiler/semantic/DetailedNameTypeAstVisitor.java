@@ -47,10 +47,19 @@ import edu.kit.compiler.semantic.NamespaceMapper.ClassNamespace;
 public class DetailedNameTypeAstVisitor implements AstVisitor<Optional<DataType>> {
 
     public DetailedNameTypeAstVisitor(NamespaceMapper namespaceMapper, StringTable stringTable, ErrorHandler errorHandler) {
+        this(namespaceMapper, stringTable, StandardLibrary.create(stringTable), errorHandler);
+    }
+
+    /**
+     * Create a visitor using the given standard library, which allows
+     * visitors for different classes to share the same library methods.
+     */
+    public DetailedNameTypeAstVisitor(NamespaceMapper namespaceMapper, StringTable stringTable,
+            StandardLibrary standardLibrary, ErrorHandler errorHandler) {
         this.namespaceMapper = namespaceMapper;
         this.stringTable = stringTable;
         this.symboltable = new SymbolTable();
-        this.standardLibrary = StandardLibrary.create(stringTable);
+        this.standardLibrary = standardLibrary;
 
         this.errorHandler = errorHandler;
 
@@ -105,21 +114,8 @@ public class DetailedNameTypeAstVisitor implements AstVisitor<Optional<DataType>
     }
 
     public Optional<DataType> visit(ClassNode classNode) {
-        symboltable.enterScope();
-
-        for (ClassNodeField field : classNode.getFields()) {
-            if (isValidDataType(field.getType(), false)) {
-                if (!field.isHasError()) {
-                    symboltable.insert(field);
-                }
-            } else {
-                if (field.getType().getType() == DataTypeClass.Void) {
-                    semanticError(field, "'%s': void type is not allowed for a field", stringTable.retrieve(field.getName()));
-                } else {
-                    semanticError(field, "unknown reference type '%s'", field.getType().getRepresentation(stringTable));
-                }
-            }
-        }
+        checkFields(classNode);
+        enterClassScope(classNode);
 
         currentClassNamespace = Optional.empty();
 
@@ -139,6 +135,51 @@ public class DetailedNameTypeAstVisitor implements AstVisitor<Optional<DataType>
         return Optional.empty();
     }
 
+    /**
+     * Report fields of the given class with an invalid type. This must be
+     * done before the methods of the class are analyzed with analyzeMethod.
+     */
+    public void checkFields(ClassNode classNode) {
+        for (ClassNodeField field : classNode.getFields()) {
+            if (!isValidDataType(field.getType(), false)) {
+                if (field.getType().getType() == DataTypeClass.Void) {
+                    semanticError(field, "'%s': void type is not allowed for a field", stringTable.retrieve(field.getName()));
+                } else {
+                    semanticError(field, "unknown reference type '%s'", field.getType().getRepresentation(stringTable));
+                }
+            }
+        }
+    }
+
+    /**
+     * Perform name analysis and type checking on a single method of the
+     * given class, independently of the other methods.
+     */
+    public void analyzeMethod(ClassNode classNode, MethodNode methodNode) {
+        enterClassScope(classNode);
+
+        if (methodNode instanceof StaticMethodNode) {
+            currentClassNamespace = Optional.empty();
+        } else {
+            currentClassNamespace = Optional.of(namespaceMapper.getClassNamespace(classNode));
+        }
+        methodNode.accept(this);
+        currentClassNamespace = Optional.empty();
+
+        symboltable.leaveScope();
+    }
+
+    private void enterClassScope(ClassNode classNode) {
+        symboltable.enterScope();
+
+        // fields with an invalid type have been marked by checkFields
+        for (ClassNodeField field : classNode.getFields()) {
+            if (!field.isHasError()) {
+                symboltable.insert(field);
+            }
+        }
+    }
+
     private Optional<DataType> visitMethodNode(MethodNode methodNode) {
         symboltable.enterScope();
 
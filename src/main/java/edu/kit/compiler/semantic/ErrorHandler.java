@@ -1,5 +1,9 @@
 package edu.kit.compiler.semantic;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import edu.kit.compiler.logger.Logger;
 import lombok.NonNull;
 
@@ -8,14 +12,71 @@ public class ErrorHandler {
     @NonNull
     private Logger logger;
 
+    // only set for buffers, see createBuffer
+    private ErrorHandler parent;
+    private List<SemanticError> buffer;
+
     public ErrorHandler(Logger logger) {
         this.hasError = false;
         this.logger = logger.withName("semantic check");
     }
 
+    private ErrorHandler(ErrorHandler parent) {
+        this.hasError = false;
+        this.logger = parent.logger;
+        this.parent = parent;
+        this.buffer = new ArrayList<>();
+    }
+
+    /**
+     * Create an error handler that collects the received errors instead of
+     * logging them, until they are passed on to this handler by flush. This
+     * allows tasks running in parallel to report their errors in a
+     * deterministic order.
+     */
+    public ErrorHandler createBuffer() {
+        return new ErrorHandler(this);
+    }
+
     public void receive(SemanticError error) {
         hasError = true;
-        logger.error(error.getLine(), error.getColumn(), error.getMessage());
+        if (buffer != null) {
+            buffer.add(error);
+        } else {
+            logger.error(error.getLine(), error.getColumn(), error.getMessage());
+        }
+    }
+
+    /**
+     * Pass the errors collected by this buffer on to the handler it was
+     * created from.
+     */
+    public void flush() {
+        assert buffer != null;
+        for (var error : buffer) {
+            parent.receive(error);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Pass the errors collected by the given buffers on to this handler,
+     * sorted by their position. Errors at the same position are passed on in
+     * the order of the buffers.
+     */
+    public void flushSorted(List<ErrorHandler> buffers) {
+        List<SemanticError> errors = new ArrayList<>();
+        for (var buffer : buffers) {
+            assert buffer.parent == this;
+            errors.addAll(buffer.buffer);
+            buffer.buffer.clear();
+        }
+        errors.sort(Comparator.comparingInt(SemanticError::getLine)
+            .thenComparingInt(SemanticError::getColumn));
+
+        for (var error : errors) {
+            receive(error);
+        }
     }
 
     public boolean hasError() {
@@ -0,0 +1,183 @@
+package edu.kit.compiler.semantic;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from identifiers (indices of the StringTable) to values, that does
+ * not box its keys. The entries are iterated in insertion order. Removing
+ * entries is not supported.
+ *
+ * The keys are stored in an open addressing hash table with linear probing.
+ * As identifiers are dense indices, the identifier itself is used as hash.
+ * The primitive overloads of get, put and containsKey should be preferred,
+ * the methods of the Map interface only exist for compatibility.
+ */
+public final class IdentifierMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY = -1;
+
+    /**
+     * Index of the entry for each slot, or EMPTY. The length is a power of
+     * two and at least twice the number of entries.
+     */
+    private int[] slots;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    public IdentifierMap() {
+        slots = new int[2 * INITIAL_CAPACITY];
+        Arrays.fill(slots, EMPTY);
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Return the value for the given identifier, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = slots[findSlot(key)];
+        return index == EMPTY ? null : (V) values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return slots[findSlot(key)] != EMPTY;
+    }
+
+    /**
+     * Associate the given value with the given identifier.
+     *
+     * @return the previous value for the identifier, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int slot = findSlot(key);
+        int index = slots[slot];
+        if (index != EMPTY) {
+            V previous = (V) values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        if (size == keys.length) {
+            grow();
+            slot = findSlot(key);
+        }
+        slots[slot] = size;
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey((int) (Integer) key);
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put((int) key, value);
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    protected V get(int index) {
+                        return (V) values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<Entry<Integer, V>>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new EntryIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    protected Entry<Integer, V> get(int index) {
+                        return new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int findSlot(int key) {
+        int mask = slots.length - 1;
+        int slot = key & mask;
+        while (slots[slot] != EMPTY && keys[slots[slot]] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, 2 * keys.length);
+        values = Arrays.copyOf(values, 2 * values.length);
+
+        slots = new int[2 * keys.length];
+        Arrays.fill(slots, EMPTY);
+        for (int index = 0; index < size; ++index) {
+            slots[findSlot(keys[index])] = index;
+        }
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int index = 0;
+
+        protected abstract T get(int index);
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public T next() {
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            return get(index++);
+        }
+    }
+}
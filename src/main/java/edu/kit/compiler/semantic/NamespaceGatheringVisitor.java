@@ -16,8 +16,6 @@ import lombok.Getter;
 import lombok.NonNull;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 // todo we really need a map for static methods?
@@ -79,21 +77,38 @@ public final class NamespaceGatheringVisitor implements AstVisitor<Void> {
     @Override
     public Void visit(ProgramNode program) {
         for (var classNode: program.getClasses()) {
-            if (namespaceMapper.containsClassNamespace(classNode.getName())) {
-                semanticError(classNode, "duplicate class %s",
-                        stringTable.retrieve(classNode.getName()));
-            } else {
-                var namespace = namespaceMapper.insertClassNode(classNode);
-                var visitor = new ClassGatherer(namespace);
-                classNode.accept(visitor);
-            }
+            classNode.accept(this);
         }
 
+        checkMainMethod(program);
+        return (Void) null;
+    }
+
+    /**
+     * Gather a single class. Classes must be visited in the order of the
+     * program, see visit(ProgramNode).
+     */
+    @Override
+    public Void visit(ClassNode classNode) {
+        if (namespaceMapper.containsClassNamespace(classNode.getName())) {
+            semanticError(classNode, "duplicate class %s",
+                    stringTable.retrieve(classNode.getName()));
+        } else {
+            var namespace = namespaceMapper.insertClassNode(classNode);
+            var visitor = new ClassGatherer(namespace);
+            classNode.accept(visitor);
+        }
+        return (Void) null;
+    }
+
+    /**
+     * Check that a main method was found, after all classes of the program
+     * have been visited.
+     */
+    public void checkMainMethod(ProgramNode program) {
         if (mainMethod.isEmpty()) {
             semanticError(program, "the program must contain a static method with name main");
         }
-
-        return (Void) null;
     }
 
     private void semanticError(AstObject object, String format, Object... args) {
@@ -107,9 +122,9 @@ public final class NamespaceGatheringVisitor implements AstVisitor<Void> {
 
     private final class ClassGatherer implements AstVisitor<Void> {
         private final ClassNode classNode;
-        private final Map<Integer, ClassNodeField> fields;
-        private final Map<Integer, StaticMethodNode> staticMethods;
-        private final Map<Integer, DynamicMethodNode> dynamicMethods;
+        private final IdentifierMap<ClassNodeField> fields;
+        private final IdentifierMap<StaticMethodNode> staticMethods;
+        private final IdentifierMap<DynamicMethodNode> dynamicMethods;
 
         public ClassGatherer(ClassNamespace namespace) {
             classNode = namespace.getClassNodeRef();
@@ -177,7 +192,7 @@ public final class NamespaceGatheringVisitor implements AstVisitor<Void> {
         }
 
         private void visitMethodNode(MethodNode method) {
-            var parameters = new HashMap<Integer, AstObject>();
+            var parameters = new IdentifierMap<AstObject>();
             for (var parameter : method.getParameters()) {
                 // Set `hasError` on the previous parameter with the same name (if one exists)
                 var previousDefinition = parameters.put(parameter.getName(), parameter);
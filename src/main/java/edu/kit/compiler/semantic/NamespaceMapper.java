@@ -5,20 +5,18 @@ import edu.kit.compiler.data.ast_nodes.MethodNode;
 import lombok.Data;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class NamespaceMapper {
 
-    private final Map<Integer, ClassNamespace> namespaceMap = new LinkedHashMap<>();
+    private final IdentifierMap<ClassNamespace> namespaceMap = new IdentifierMap<>();
 
     @Data
     public static class ClassNamespace {
         private final ClassNode classNodeRef;
-        private final Map<Integer, MethodNode.DynamicMethodNode> dynamicMethods = new HashMap<>();
-        private final Map<Integer, MethodNode.StaticMethodNode> staticMethods = new HashMap<>();
-        private final Map<Integer, ClassNode.ClassNodeField> classSymbols = new LinkedHashMap<>();
+        private final IdentifierMap<MethodNode.DynamicMethodNode> dynamicMethods = new IdentifierMap<>();
+        private final IdentifierMap<MethodNode.StaticMethodNode> staticMethods = new IdentifierMap<>();
+        private final IdentifierMap<ClassNode.ClassNodeField> classSymbols = new IdentifierMap<>();
 
         public ClassNamespace(ClassNode classNodeRef) {
             this.classNodeRef = classNodeRef;
@@ -0,0 +1,181 @@
+package edu.kit.compiler.semantic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import edu.kit.compiler.data.ast_nodes.ClassNode;
+import edu.kit.compiler.data.ast_nodes.MethodNode;
+import edu.kit.compiler.data.ast_nodes.ProgramNode;
+import edu.kit.compiler.lexer.StringTable;
+import edu.kit.compiler.logger.TimeReport;
+import edu.kit.compiler.parser.ParseException;
+import edu.kit.compiler.parser.Parser;
+import lombok.Getter;
+
+/**
+ * Parses a program and performs the namespace gathering, the name and type
+ * analysis and the remaining semantic checks on multiple threads.
+ *
+ * The Parser passes each class to a queue as soon as it is complete, from
+ * which the namespaces are gathered while the remaining classes are parsed.
+ * Once all classes are gathered, the global namespace does not change
+ * anymore and the methods are analyzed in parallel, as the analysis of a
+ * method only modifies the nodes of that method. Each method is analyzed
+ * with its own symbol table and error buffer. The errors are reported
+ * sorted by their position, so that the result does not depend on the
+ * scheduling of the threads.
+ */
+public final class PipelinedFrontEnd {
+
+    /**
+     * Marks the end of the queue of parsed classes.
+     */
+    private static final ClassNode END_OF_CLASSES = new ClassNode(-1, -1, -1,
+        Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), false);
+
+    private final NamespaceMapper namespaceMapper;
+    private final StringTable stringTable;
+    private final ErrorHandler errorHandler;
+    private final TimeReport timeReport;
+    private final int jobs;
+
+    /**
+     * The predefined String class, available after parseAndAnalyze.
+     */
+    @Getter
+    private ClassNode stringClass;
+
+    /**
+     * Create a front end that fills the given empty namespace mapper and
+     * reports errors to the given handler.
+     *
+     * @param jobs the number of threads used for the analysis
+     */
+    public PipelinedFrontEnd(NamespaceMapper namespaceMapper, StringTable stringTable,
+            ErrorHandler errorHandler, TimeReport timeReport, int jobs) {
+        this.namespaceMapper = namespaceMapper;
+        this.stringTable = stringTable;
+        this.errorHandler = errorHandler;
+        this.timeReport = timeReport;
+        this.jobs = jobs;
+    }
+
+    /**
+     * Parse the input of the given parser and perform the namespace
+     * gathering, the name and type analysis and the semantic checks.
+     *
+     * @return the AST
+     * @throws ParseException if a syntax error is encountered, no semantic
+     * errors are reported in this case
+     */
+    public ProgramNode parseAndAnalyze(Parser parser) {
+        // both insert names into the string table, so they must be created
+        // before the string table is shared between threads. Errors of the
+        // gathering are buffered, as they must not be reported if parsing
+        // fails later on
+        var gatheringBuffer = errorHandler.createBuffer();
+        var gatheringVisitor = new NamespaceGatheringVisitor(namespaceMapper, stringTable, gatheringBuffer);
+        var standardLibrary = StandardLibrary.create(stringTable);
+
+        var pool = new ForkJoinPool(jobs);
+        try {
+            BlockingQueue<ClassNode> classes = new LinkedBlockingQueue<>();
+            Future<?> gathering = pool.submit(() -> gatherClasses(gatheringVisitor, classes));
+
+            ProgramNode ast;
+            var parserMeasurement = timeReport.measure("Parser");
+            try {
+                ast = parser.parse(classes::add);
+            } finally {
+                parserMeasurement.close();
+                classes.add(END_OF_CLASSES);
+            }
+            join(gathering);
+            gatheringVisitor.checkMainMethod(ast);
+            stringClass = gatheringVisitor.getStringClass();
+            gatheringBuffer.flush();
+
+            // the namespaces are complete, analyze the methods in parallel
+            List<ErrorHandler> buffers = new ArrayList<>();
+            var fieldBuffer = errorHandler.createBuffer();
+            buffers.add(fieldBuffer);
+            var fieldVisitor = new DetailedNameTypeAstVisitor(namespaceMapper, stringTable, standardLibrary, fieldBuffer);
+
+            List<Future<?>> tasks = new ArrayList<>();
+            for (var classNode : ast.getClasses()) {
+                fieldVisitor.checkFields(classNode);
+                for (var method : classNode.getStaticMethods()) {
+                    tasks.add(submitMethod(pool, classNode, method, true, standardLibrary, buffers));
+                }
+                for (var method : classNode.getDynamicMethods()) {
+                    tasks.add(submitMethod(pool, classNode, method, false, standardLibrary, buffers));
+                }
+            }
+            for (var task : tasks) {
+                join(task);
+            }
+            errorHandler.flushSorted(buffers);
+
+            return ast;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Future<?> submitMethod(ForkJoinPool pool, ClassNode classNode, MethodNode method, boolean isStatic,
+            StandardLibrary standardLibrary, List<ErrorHandler> buffers) {
+        var buffer = errorHandler.createBuffer();
+        buffers.add(buffer);
+        return pool.submit(() -> {
+            var analysisMeasurement = timeReport.measure("DetailedNameTypeAstVisitor");
+            try {
+                new DetailedNameTypeAstVisitor(namespaceMapper, stringTable, standardLibrary, buffer)
+                    .analyzeMethod(classNode, method);
+            } finally {
+                analysisMeasurement.close();
+            }
+            var checksMeasurement = timeReport.measure("SemanticChecks");
+            try {
+                SemanticChecks.checkMethod(method, buffer, stringClass, isStatic);
+            } finally {
+                checksMeasurement.close();
+            }
+        });
+    }
+
+    private void gatherClasses(NamespaceGatheringVisitor visitor, BlockingQueue<ClassNode> classes) {
+        try {
+            ClassNode classNode;
+            while ((classNode = classes.take()) != END_OF_CLASSES) {
+                var measurement = timeReport.measure("NamespaceGatheringVisitor");
+                try {
+                    classNode.accept(visitor);
+                } finally {
+                    measurement.close();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Future<?> task) {
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
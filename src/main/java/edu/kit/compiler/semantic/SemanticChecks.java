@@ -54,7 +54,12 @@ public class SemanticChecks {
         }
     }
 
-    private static void checkMethod(MethodNode method, ErrorHandler errorHandler, ClassNode stringClass, boolean isMain) {
+    /**
+     * Apply the checks to a single method, independently of the other methods.
+     *
+     * @param isMain whether the method is the (static) main method
+     */
+    public static void checkMethod(MethodNode method, ErrorHandler errorHandler, ClassNode stringClass, boolean isMain) {
         MethodCheckVisitor visitor = new MethodCheckVisitor(isMain, errorHandler, stringClass);
         boolean returns = method.getStatementBlock().accept(visitor);
         if (!returns && !method.getType().equals(DataType.voidType())) {
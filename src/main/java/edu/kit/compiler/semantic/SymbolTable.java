@@ -5,7 +5,6 @@ import lombok.Data;
 import lombok.RequiredArgsConstructor;
 
 import java.util.ArrayDeque;
-import java.util.LinkedHashMap;
 
 @Data
 public class SymbolTable  {
@@ -46,10 +45,14 @@ public class SymbolTable  {
      * AstNodes do not hold a String reference, they only hold a reference integer to our global string table.
      * Thus the mapping from String to symbol can be simplified by only providing a mapping from
      * Integer -> Symbol instead of String -> Integer -> Symbol
+     *
+     * Symbols are never removed. A symbol without a current definition is
+     * not defined in any scope, but may be reused when its name is defined
+     * again.
      */
     static class SymbolStringTable {
 
-        private final LinkedHashMap<Integer, Symbol> table = new LinkedHashMap<>();
+        private final IdentifierMap<Symbol> table = new IdentifierMap<>();
 
         /**
          * Return the symbol for which this name is mapped.
@@ -74,14 +77,6 @@ public class SymbolTable  {
             return s;
         }
 
-        /**
-         * Remove the symbol for which this name is mapped.
-         * @param name The name of the symbol mapped by our global String table
-         */
-        public void remove(int name) {
-            table.remove(name);
-        }
-
     }
 
     /**
@@ -96,14 +91,10 @@ public class SymbolTable  {
         if (this.currentScope == null) {
             return;
         }
-        // revert all previous changes
+        // revert all previous changes, a symbol that leaves its defining
+        // scope is reset to no definition
         while (changes.size() > currentScope.oldSize) {
             Change c = changes.pop();
-            // check if we leave our defining scope then remove symbol entirely from table
-            if (c.previousScope == null) {
-                symbolStringTable.remove(c.sym.name);
-                continue;
-            }
             c.sym.currentDefinition = c.previousDefinition;
             c.sym.currentScope = c.previousScope;
         }
@@ -122,8 +113,6 @@ public class SymbolTable  {
         }
         if (s == null) {
             s = this.symbolStringTable.insert(name);
-            s.currentDefinition = null;
-            s.currentScope = null;
         }
 
         // last change resets the symbol
@@ -150,7 +139,7 @@ public class SymbolTable  {
      */
     public Definition lookup(int symbol) {
         Symbol s = symbolStringTable.find(symbol);
-        if (symbolStringTable.find(symbol) == null) {
+        if (s == null) {
             return null;
         } else {
             return s.currentDefinition;
@@ -163,7 +152,7 @@ public class SymbolTable  {
      */
     public boolean isDefinedInCurrentScope(int symbol) {
         Symbol s = symbolStringTable.find(symbol);
-        if(s == null) {
+        if(s == null || s.currentDefinition == null) {
             return false;
         }
         return s.currentScope == currentScope;
@@ -175,7 +164,8 @@ public class SymbolTable  {
      * @param symbol The symbol to be checked
      */
     public boolean isDefined(int symbol) {
-        return symbolStringTable.find(symbol) != null;
+        Symbol s = symbolStringTable.find(symbol);
+        return s != null && s.currentDefinition != null;
     }
 
 }
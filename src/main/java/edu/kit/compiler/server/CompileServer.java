@@ -0,0 +1,295 @@
+package edu.kit.compiler.server;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import edu.kit.compiler.JavaEasyCompiler;
+import edu.kit.compiler.Result;
+import edu.kit.compiler.logger.Logger;
+import edu.kit.compiler.transform.JFirmSingleton;
+
+/**
+ * A compile server that keeps a warm compiler process running and executes
+ * compiler calls sent by clients, avoiding the startup cost of the JVM and
+ * libFirm for each compilation.
+ *
+ * The server listens on a TCP port of the loopback interface, so that clients
+ * can be simple shell scripts. Requests are handled one after another, as
+ * libFirm is not thread-safe.
+ *
+ * As any local user can connect to the port, clients have to authenticate
+ * with a secret token. On startup, the server writes a random token to
+ * `~/.compile-server/<port>.token`, which is only readable by the user
+ * running the server. Additionally, the working directory of a request must
+ * be inside the allowed root directory, which is the home directory of the
+ * user unless the environment variable COMPILE_SERVER_ROOT is set.
+ *
+ * A request consists of the following lines: the token, the number of
+ * arguments, the absolute path of the client's working directory and each
+ * argument on a separate line. The server responds with the output of the
+ * compiler, where each line is prefixed with "1 " (stdout) or "2 " (stderr),
+ * followed by a final line "exit <code>".
+ */
+public final class CompileServer {
+
+    private static final String STDOUT_PREFIX = "1 ";
+    private static final String STDERR_PREFIX = "2 ";
+    private static final String EXIT_PREFIX = "exit ";
+
+    private static final String TOKEN_DIRECTORY = ".compile-server";
+    private static final String ROOT_VARIABLE = "COMPILE_SERVER_ROOT";
+    private static final int TOKEN_BYTES = 32;
+    private static final int MAX_ARGUMENTS = 1024;
+
+    private final byte[] token;
+    private final Path root;
+    private final Logger logger;
+
+    private CompileServer(byte[] token, Path root, Logger logger) {
+        this.token = token;
+        this.root = root;
+        this.logger = logger.withName("server");
+    }
+
+    /**
+     * Run a compile server on the given port until the process is killed.
+     *
+     * @param port the port to listen on
+     * @param logger the logger
+     * @return an error result if the server could not be started
+     */
+    public static Result run(String port, Logger logger) {
+        int portNumber;
+        try {
+            portNumber = Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            logger.error("invalid port: %s", port);
+            return Result.CliInputError;
+        }
+
+        try (var socket = new ServerSocket(portNumber, 50, InetAddress.getLoopbackAddress())) {
+            var token = createToken();
+            var tokenFile = writeTokenFile(socket.getLocalPort(), token);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> tokenFile.toFile().delete()));
+
+            var root = getRoot();
+            var server = new CompileServer(token.getBytes(StandardCharsets.UTF_8), root, logger);
+            logger.info("compile server listening on port %d, token in %s, root %s",
+                socket.getLocalPort(), tokenFile, root);
+
+            while (true) {
+                server.handle(socket.accept());
+            }
+        } catch (IOException e) {
+            logger.error("compile server failed: %s", e.getMessage());
+            return Result.ServerError;
+        }
+    }
+
+    private void handle(Socket client) {
+        try (client) {
+            var input = new BufferedReader(new InputStreamReader(
+                client.getInputStream(), StandardCharsets.UTF_8));
+            var output = client.getOutputStream();
+
+            String[] args;
+            File workingDirectory;
+            try {
+                if (!isValidToken(readLine(input))) {
+                    logger.warn("rejected request with invalid token");
+                    writeExit(output, Result.ServerError);
+                    return;
+                }
+
+                int count = Integer.parseInt(readLine(input));
+                if (count < 0 || count > MAX_ARGUMENTS) {
+                    logger.warn("rejected request with %d arguments", count);
+                    writeExit(output, Result.ServerError);
+                    return;
+                }
+                workingDirectory = new File(readLine(input));
+                args = new String[count];
+                for (int i = 0; i < count; ++i) {
+                    args[i] = readLine(input);
+                }
+            } catch (IOException | RuntimeException e) {
+                // a malformed request must not take down the server
+                logger.warn("invalid request: %s", e.getMessage());
+                writeExit(output, Result.ServerError);
+                return;
+            }
+
+            if (!isAllowedDirectory(workingDirectory)) {
+                logger.warn("rejected request with working directory %s", workingDirectory);
+                writeExit(output, Result.ServerError);
+                return;
+            }
+
+            writeExit(output, execute(args, workingDirectory, output));
+        } catch (IOException e) {
+            logger.warn("lost connection to client: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Execute the compiler with the given arguments and forward its output
+     * to the given stream. The Firm program is reset afterwards, so that the
+     * next request starts from a clean state.
+     */
+    private Result execute(String[] args, File workingDirectory, OutputStream output) {
+        var stdout = System.out;
+        var stderr = System.err;
+        var out = new PrintStream(new PrefixedLineStream(output, STDOUT_PREFIX), true, StandardCharsets.UTF_8);
+        var err = new PrintStream(new PrefixedLineStream(output, STDERR_PREFIX), true, StandardCharsets.UTF_8);
+
+        try {
+            System.setOut(out);
+            System.setErr(err);
+
+            return JavaEasyCompiler.run(args, workingDirectory);
+        } catch (RuntimeException | AssertionError e) {
+            // keep the server alive, the client still gets a meaningful result
+            e.printStackTrace(err);
+            return Result.InternalError;
+        } finally {
+            out.close();
+            err.close();
+            System.setOut(stdout);
+            System.setErr(stderr);
+
+            JFirmSingleton.resetProgram();
+        }
+    }
+
+    private boolean isValidToken(String line) {
+        // compare in constant time, so that the token cannot be guessed
+        // byte by byte
+        return MessageDigest.isEqual(token, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns true if the given directory is absolute and (after resolving
+     * `..` and symbolic links) inside the allowed root directory.
+     */
+    private boolean isAllowedDirectory(File directory) {
+        if (!directory.isAbsolute()) {
+            return false;
+        }
+        try {
+            return directory.toPath().toRealPath().startsWith(root);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Path getRoot() throws IOException {
+        var root = System.getenv(ROOT_VARIABLE);
+        if (root == null) {
+            root = System.getProperty("user.home");
+        }
+        return Path.of(root).toRealPath();
+    }
+
+    private static String createToken() {
+        var bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+
+        var token = new StringBuilder(2 * TOKEN_BYTES);
+        for (var b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Write the token to the token file for the given port. The file is
+     * created with permissions 0600 (in a directory with permissions 0700),
+     * so that only the user running the server can read it.
+     */
+    private static Path writeTokenFile(int port, String token) throws IOException {
+        var directory = Path.of(System.getProperty("user.home"), TOKEN_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString("rwx------")));
+        }
+
+        var tokenFile = directory.resolve(port + ".token");
+        Files.deleteIfExists(tokenFile);
+        Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(
+            PosixFilePermissions.fromString("rw-------")));
+        Files.writeString(tokenFile, token + "\n", StandardCharsets.UTF_8);
+        return tokenFile;
+    }
+
+    private static String readLine(BufferedReader input) throws IOException {
+        var line = input.readLine();
+        if (line == null) {
+            throw new IOException("unexpected end of request");
+        }
+        return line;
+    }
+
+    private static void writeExit(OutputStream output, Result result) throws IOException {
+        synchronized (output) {
+            output.write((EXIT_PREFIX + result.getCode() + "\n").getBytes(StandardCharsets.UTF_8));
+            output.flush();
+        }
+    }
+
+    /**
+     * Output stream that forwards complete lines to the target stream, each
+     * prefixed with a fixed string. An incomplete last line is forwarded when
+     * the stream is closed.
+     */
+    private static final class PrefixedLineStream extends OutputStream {
+
+        private final OutputStream target;
+        private final byte[] prefix;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private PrefixedLineStream(OutputStream target, String prefix) {
+            this.target = target;
+            this.prefix = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                writeLine();
+            } else {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (line.size() > 0) {
+                writeLine();
+            }
+        }
+
+        private void writeLine() throws IOException {
+            synchronized (target) {
+                target.write(prefix);
+                line.writeTo(target);
+                target.write('\n');
+                target.flush();
+            }
+            line.reset();
+        }
+    }
+}
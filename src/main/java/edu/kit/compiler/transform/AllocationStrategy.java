@@ -0,0 +1,24 @@
+package edu.kit.compiler.transform;
+
+/**
+ * Represents the runtime function used to allocate memory for new objects
+ * and arrays.
+ */
+public enum AllocationStrategy {
+    /**
+     * Allocate memory with `calloc` of the C standard library.
+     */
+    Calloc,
+    /**
+     * Allocate memory with `mj_alloc` of the MiniJava runtime, a bump pointer
+     * allocator that never frees memory.
+     */
+    Arena,
+    /**
+     * Same as `Arena`, but objects are allocated by bumping the pointer of the
+     * arena inline. Only if the current chunk of the arena is exhausted,
+     * `mj_alloc` is called. Arrays are always allocated with `mj_alloc`, as
+     * their size is not known at compile time.
+     */
+    InlineArena
+}
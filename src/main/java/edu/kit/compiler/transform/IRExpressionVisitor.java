@@ -19,6 +19,10 @@ import firm.nodes.*;
  */
 public class IRExpressionVisitor implements AstVisitor<Node> {
     private static final DataType boolType = new DataType(DataType.DataTypeClass.Boolean);
+    /**
+     * Alignment of allocations by the arena of the standard library.
+     */
+    private static final int ARENA_ALIGNMENT = 8;
     private final TransformContext context;
     private final IRPointerVisitor pointerVisitor;
 
@@ -295,7 +299,11 @@ public class IRExpressionVisitor implements AstVisitor<Node> {
     @Override
     public Node visit(NewObjectExpressionNode newObjectExpressionNode) {
         ClassEntry classNode = context.getTypeMapper().getClassEntry(newObjectExpressionNode.getTypeName());
-        return callCalloc(1, classNode.getClassType().getSize(), classNode.getPointerType());
+        if (context.getAllocationStrategy() == AllocationStrategy.InlineArena) {
+            return allocateInline(classNode.getClassType().getSize(), classNode.getPointerType());
+        } else {
+            return callAllocator(1, classNode.getClassType().getSize(), classNode.getPointerType());
+        }
     }
 
     @Override
@@ -304,11 +312,18 @@ public class IRExpressionVisitor implements AstVisitor<Node> {
         Type arrayType = context.getTypeMapper().getDataType(newArrayExpressionNode.getResultType());
         Type elementType = context.getTypeMapper().getDataType(innerType);
         Node arrayLength = newArrayExpressionNode.getLength().accept(this);
-        return callCalloc(arrayLength, elementType.getSize(), arrayType);
+        return callAllocator(arrayLength, elementType.getSize(), arrayType);
     }
 
-    private Node callCalloc(Node nmemb, int size, Type type) {
-        var entry = StandardLibraryEntities.INSTANCE.getCalloc();
+    /**
+     * Call the allocation function selected by the allocation strategy. All
+     * allocation functions share the signature of calloc.
+     */
+    private Node callAllocator(Node nmemb, int size, Type type) {
+        var entry = switch (context.getAllocationStrategy()) {
+            case Calloc -> StandardLibraryEntities.INSTANCE.getCalloc();
+            case Arena, InlineArena -> StandardLibraryEntities.INSTANCE.getArenaAlloc();
+        };
         Node address = getConstruction().newAddress(entry.getEntity());
         MethodType methodType = entry.getType();
 
@@ -323,9 +338,50 @@ public class IRExpressionVisitor implements AstVisitor<Node> {
         return getConstruction().newProj(tResult, type.getMode(), 0);
     }
 
-    private Node callCalloc(int nmemb, int size, Type type) {
+    private Node callAllocator(int nmemb, int size, Type type) {
         Node nmembNode = getConstruction().newConst(nmemb, Mode.getIs());
-        return callCalloc(nmembNode, size, type);
+        return callAllocator(nmembNode, size, type);
+    }
+
+    /**
+     * Allocate memory of constant size by bumping the pointer of the arena of
+     * the standard library. If the current chunk of the arena does not have
+     * enough space left, the allocation function is called instead, which
+     * also obtains a new chunk. The size is rounded up in the same way as by
+     * `mj_alloc`, so that all objects remain aligned.
+     */
+    private Node allocateInline(int size, Type type) {
+        var con = getConstruction();
+        var heapTop = StandardLibraryEntities.INSTANCE.getHeapTop();
+        var heapEnd = StandardLibraryEntities.INSTANCE.getHeapEnd();
+
+        var fastBlock = con.newBlock();
+        var slowBlock = con.newBlock();
+        var postBlock = con.newBlock();
+
+        // distinct objects must have distinct addresses
+        int alignedSize = (Math.max(size, 1) + ARENA_ALIGNMENT - 1) / ARENA_ALIGNMENT * ARENA_ALIGNMENT;
+
+        var top = loadFromAddress(con.newAddress(heapTop.getEntity()), Mode.getP());
+        var end = loadFromAddress(con.newAddress(heapEnd.getEntity()), Mode.getP());
+        var newTop = con.newAdd(top, con.newConst(alignedSize, Mode.getLs()));
+
+        // pointers are compared unsigned, so this also fails for an empty arena
+        createCompare(newTop, end, Relation.LessEqual, fastBlock, slowBlock);
+
+        fastBlock.mature();
+        con.setCurrentBlock(fastBlock);
+        storeToAddress(con.newAddress(heapTop.getEntity()), newTop, heapTop.getType());
+        postBlock.addPred(con.newJmp());
+
+        slowBlock.mature();
+        con.setCurrentBlock(slowBlock);
+        var result = callAllocator(1, size, type);
+        postBlock.addPred(con.newJmp());
+
+        postBlock.mature();
+        con.setCurrentBlock(postBlock);
+        return con.newPhi(new Node[] { top, result }, type.getMode());
     }
 
     private Construction getConstruction() {
@@ -17,13 +17,20 @@ import java.util.Map;
 public class IRVisitor implements AstVisitor<Void> {
     @Getter
     private final TypeMapper typeMapper;
+    private final AllocationStrategy allocationStrategy;
 
     /**
      * Transform visitor visits the AST recursively and calls our underlying IR visitors that create firm components for the AST
      *
      */
     public IRVisitor(NamespaceMapper namespaceMapper, StringTable stringTable) {
+        this(namespaceMapper, stringTable, AllocationStrategy.Calloc);
+    }
+
+    public IRVisitor(NamespaceMapper namespaceMapper, StringTable stringTable,
+                     AllocationStrategy allocationStrategy) {
         this.typeMapper = new TypeMapper(namespaceMapper, stringTable);
+        this.allocationStrategy = allocationStrategy;
     }
 
     @Override
@@ -40,7 +47,8 @@ public class IRVisitor implements AstVisitor<Void> {
         for (var method : classNode.getDynamicMethods()) {
             // create transform context for this method
             Map<Integer, Integer> variableMapping = LocalVariableCounter.apply(method);
-            TransformContext transformContext = new TransformContext(typeMapper, classNode, method, variableMapping, false);
+            TransformContext transformContext = new TransformContext(
+                typeMapper, classNode, method, variableMapping, false, allocationStrategy);
 
             visitMethod(method, transformContext);
         }
@@ -48,7 +56,8 @@ public class IRVisitor implements AstVisitor<Void> {
         for (var method : classNode.getStaticMethods()) {
             // create transform context for this method
             Map<Integer, Integer> variableMapping = LocalVariableCounter.apply(method);
-            TransformContext transformContext = new TransformContext(typeMapper, classNode, method, variableMapping, true);
+            TransformContext transformContext = new TransformContext(
+                typeMapper, classNode, method, variableMapping, true, allocationStrategy);
 
             visitMethod(method, transformContext);
         }
@@ -1,15 +1,129 @@
 package edu.kit.compiler.transform;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.jna.Pointer;
+
+import firm.CompoundType;
+import firm.Entity;
 import firm.Firm;
+import firm.Graph;
+import firm.MethodType;
+import firm.Program;
+import firm.Type;
+import firm.bindings.binding_typerep;
 
 public class JFirmSingleton {
 
     private static boolean isLinuxInitialized = false;
 
+    /**
+     * Types that exist directly after initializing Firm (e.g. the segment
+     * types), which must never be freed.
+     */
+    private static Set<Pointer> initialTypes;
+
     public static void initializeFirmLinux() {
         if(!isLinuxInitialized) {
             Firm.init("x86_64-linux-gnu", new String[]{"pic=1"});
             isLinuxInitialized = true;
+            initialTypes = getTypePointers(Program.getTypes());
+        }
+    }
+
+    /**
+     * Remove all graphs, all entities of the global type and all types
+     * created since the initialization of Firm, except for the standard
+     * library and the primitive types of the TypeMapper, from the Firm
+     * program. This allows to compile another program in the same process
+     * without reinitializing libFirm (which would invalidate all cached Firm
+     * objects). As the class types and their members are freed as well, the
+     * program does not grow with each compiled program, and types of earlier
+     * programs cannot collide with those of later ones.
+     */
+    public static void resetProgram() {
+        if (!isLinuxInitialized) {
+            return;
+        }
+
+        var graphs = new ArrayList<Graph>();
+        Program.getGraphs().forEach(graphs::add);
+        for (var graph : graphs) {
+            // frees the memory of the graph and removes it from the program
+            graph.free();
+        }
+
+        var globalType = Program.getGlobalType();
+        var keptTypes = new HashSet<>(initialTypes);
+        var entities = new ArrayList<Entity>();
+        for (int i = 0; i < globalType.getNMembers(); ++i) {
+            var entity = globalType.getMember(i);
+            if (StandardLibraryEntities.INSTANCE.isStandardLibraryEntity(entity.getLdName())) {
+                keptTypes.addAll(getTypePointers(getReferencedTypes(entity.getType())));
+            } else {
+                entities.add(entity);
+            }
+        }
+        for (var entity : entities) {
+            binding_typerep.free_entity(entity.ptr);
+        }
+
+        keptTypes.addAll(getTypePointers(List.of(
+            TypeMapper.getBooleanType(), TypeMapper.getIntegerType(), TypeMapper.getPointerType()
+        )));
+
+        // free the members of all types first, as they may refer to any of
+        // the types that are freed
+        var types = new ArrayList<Type>();
+        for (var type : Program.getTypes()) {
+            if (!keptTypes.contains(type.ptr)) {
+                types.add(type);
+            }
+        }
+        for (var type : types) {
+            if (type instanceof CompoundType) {
+                var compound = (CompoundType) type;
+                var members = new ArrayList<Entity>();
+                for (int i = 0; i < compound.getNMembers(); ++i) {
+                    members.add(compound.getMember(i));
+                }
+                for (var member : members) {
+                    binding_typerep.free_entity(member.ptr);
+                }
+            }
+        }
+        for (var type : types) {
+            binding_typerep.free_type(type.ptr);
+        }
+    }
+
+    /**
+     * Returns the given type and, for method types, its parameter and
+     * result types.
+     */
+    private static List<Type> getReferencedTypes(Type type) {
+        var types = new ArrayList<Type>();
+        types.add(type);
+        if (type instanceof MethodType) {
+            var methodType = (MethodType) type;
+            for (int i = 0; i < methodType.getNParams(); ++i) {
+                types.add(methodType.getParamType(i));
+            }
+            for (int i = 0; i < methodType.getNRess(); ++i) {
+                types.add(methodType.getResType(i));
+            }
+        }
+        return types;
+    }
+
+    private static Set<Pointer> getTypePointers(Iterable<? extends Type> types) {
+        var pointers = new HashSet<Pointer>();
+        for (var type : types) {
+            pointers.add(type.ptr);
         }
+        return pointers;
     }
 }
@@ -15,7 +15,9 @@ import java.util.Set;
 
 /**
  * A Singleton holding reference to the standard library methods.
- * Each method is a Entity in the global type of the program.
+ * Each method is a Entity in the global type of the program. Additionally,
+ * the bounds of the current chunk of the arena allocator are global variables
+ * of the standard library.
  */
 public enum StandardLibraryEntities {
     INSTANCE;
@@ -30,6 +32,12 @@ public enum StandardLibraryEntities {
     private final TypedEntity<MethodType> flush;
     @Getter
     private final TypedEntity<MethodType> calloc;
+    @Getter
+    private final TypedEntity<MethodType> arenaAlloc;
+    @Getter
+    private final TypedEntity<PrimitiveType> heapTop;
+    @Getter
+    private final TypedEntity<PrimitiveType> heapEnd;
     private final Set<String> entityNames;
 
     /**
@@ -80,19 +88,34 @@ public enum StandardLibraryEntities {
         this.calloc = new TypedEntity<>(
             new Entity(globalType, Ident.mangleGlobal("calloc"), callocType), callocType
         );
+        this.arenaAlloc = new TypedEntity<>(
+            new Entity(globalType, Ident.mangleGlobal("mj_alloc"), callocType), callocType
+        );
+        this.heapTop = new TypedEntity<>(
+            new Entity(globalType, Ident.mangleGlobal("mj_heap_top"), ptrType), ptrType
+        );
+        this.heapEnd = new TypedEntity<>(
+            new Entity(globalType, Ident.mangleGlobal("mj_heap_end"), ptrType), ptrType
+        );
 
         read.getEntity().setVisibility(ir_visibility.ir_visibility_external);
         print.getEntity().setVisibility(ir_visibility.ir_visibility_external);
         write.getEntity().setVisibility(ir_visibility.ir_visibility_external);
         flush.getEntity().setVisibility(ir_visibility.ir_visibility_external);
         calloc.getEntity().setVisibility(ir_visibility.ir_visibility_external);
+        arenaAlloc.getEntity().setVisibility(ir_visibility.ir_visibility_external);
+        heapTop.getEntity().setVisibility(ir_visibility.ir_visibility_external);
+        heapEnd.getEntity().setVisibility(ir_visibility.ir_visibility_external);
 
         this.entityNames = Set.of(
                 read.getEntity().getLdName(),
                 print.getEntity().getLdName(),
                 write.getEntity().getLdName(),
                 flush.getEntity().getLdName(),
-                calloc.getEntity().getLdName()
+                calloc.getEntity().getLdName(),
+                arenaAlloc.getEntity().getLdName(),
+                heapTop.getEntity().getLdName(),
+                heapEnd.getEntity().getLdName()
         );
     }
 
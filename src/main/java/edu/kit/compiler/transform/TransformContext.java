@@ -61,8 +61,20 @@ public class TransformContext {
     @Getter
     private Node thisNode;
 
+    /**
+     * Runtime function used to allocate new objects and arrays.
+     */
+    @Getter
+    private AllocationStrategy allocationStrategy;
+
     public TransformContext(TypeMapper typeMapper, ClassNode classNode, MethodNode methodNode,
                             Map<Integer, Integer> variableMapping, boolean isStatic) {
+        this(typeMapper, classNode, methodNode, variableMapping, isStatic, AllocationStrategy.Calloc);
+    }
+
+    public TransformContext(TypeMapper typeMapper, ClassNode classNode, MethodNode methodNode,
+                            Map<Integer, Integer> variableMapping, boolean isStatic,
+                            AllocationStrategy allocationStrategy) {
         ClassEntry classEntry = typeMapper.getClassEntry(classNode);
         this.typeMapper = typeMapper;
         this.classNode = classNode;
@@ -70,6 +82,7 @@ public class TransformContext {
         this.methodEntity = classEntry.getMethod(methodNode).getEntity();
         this.variableMapping = variableMapping;
         this.isStatic = isStatic;
+        this.allocationStrategy = allocationStrategy;
         this.returnType = Optional.empty();
         if (!methodNode.getType().equals(DataType.voidType())) {
             this.returnType = Optional.of(typeMapper.getDataType(methodNode.getType()));
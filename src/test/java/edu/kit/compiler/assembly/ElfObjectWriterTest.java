@@ -0,0 +1,60 @@
+package edu.kit.compiler.assembly;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ElfObjectWriterTest {
+
+    @Test
+    public void testHeader() {
+        var object = write();
+
+        assertEquals(0x7f, object.get(0));
+        assertEquals('E', object.get(1));
+        assertEquals('L', object.get(2));
+        assertEquals('F', object.get(3));
+        assertEquals(1, object.getShort(16)); // relocatable
+        assertEquals(62, object.getShort(18)); // x86-64
+        assertEquals(7, object.getShort(60)); // number of sections
+    }
+
+    @Test
+    public void testFunctionsAreAligned() {
+        var object = write(
+            new FunctionInstructions("first", List.of("ret")),
+            new FunctionInstructions("second", List.of("ret"))
+        );
+
+        // the text section starts at offset 64
+        assertEquals((byte) 0xc3, object.get(64));
+        assertEquals((byte) 0x90, object.get(65));
+        assertEquals((byte) 0xc3, object.get(64 + 16));
+    }
+
+    @Test
+    public void testSymbolNames() {
+        var output = new ByteArrayOutputStream();
+        new ElfObjectWriter().writeAssembly(Arrays.asList(
+            new FunctionInstructions("myFunction", List.of("call print", "ret"))
+        ), output);
+
+        var content = output.toString();
+        assertTrue(content.contains("\0myFunction\0"));
+        assertTrue(content.contains("\0print\0"));
+        assertTrue(content.contains("\0.rela.text\0"));
+    }
+
+    private static ByteBuffer write(FunctionInstructions... functions) {
+        var output = new ByteArrayOutputStream();
+        new ElfObjectWriter().writeAssembly(Arrays.asList(functions), output);
+        return ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
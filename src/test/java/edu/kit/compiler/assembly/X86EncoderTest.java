@@ -0,0 +1,145 @@
+package edu.kit.compiler.assembly;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.assembly.X86Encoder.EncodedFunction;
+import edu.kit.compiler.assembly.X86Encoder.Relocation;
+
+public class X86EncoderTest {
+
+    // expected encodings as produced by the GNU assembler
+
+    @Test
+    public void testMoveImmediate() {
+        assertEncoding("b805000000", "movl $5, %eax");
+        assertEncoding("49c7c4ffffffff", "movq $-1, %r12");
+        assertEncoding("49baefcdab8967452301", "movq $81985529216486895, %r10");
+        assertEncoding("41b001", "movb $1, %r8b");
+        assertEncoding("40b601", "movb $1, %sil");
+    }
+
+    @Test
+    public void testMoveRegister() {
+        assertEncoding("4189c7", "movl %eax, %r15d");
+        assertEncoding("4088f3", "movb %sil, %bl");
+        assertEncoding("4c89d7", "mov %r10, %rdi # comment");
+        assertEncoding("4863c0", "movslq %eax, %rax");
+    }
+
+    @Test
+    public void testMemoryOperands() {
+        assertEncoding("488b45f8", "movq -8(%rbp), %rax");
+        assertEncoding("8b0424", "movl (%rsp), %eax");
+        assertEncoding("418b0424", "movl (%r12), %eax");
+        assertEncoding("418b4500", "movl (%r13), %eax");
+        assertEncoding("468b14c8", "movl (%rax,%r9,8), %r10d");
+        assertEncoding("8b0c8500000000", "movl (,%rax,4), %ecx");
+        assertEncoding("48634df4", "movslq -12(%rbp), %rcx");
+        assertEncoding("488d45f8", "leaq -8(%rbp), %rax");
+        assertEncoding("41ff7510", "pushq 16(%r13)");
+    }
+
+    @Test
+    public void testArithmetic() {
+        assertEncoding("05e8030000", "addl $1000, %eax");
+        assertEncoding("01c3", "addl %eax, %ebx");
+        assertEncoding("83f800", "cmpl $0, %eax");
+        assertEncoding("4038c6", "cmpb %al, %sil");
+        assertEncoding("a901000000", "testl $1, %eax");
+        assertEncoding("0faf45f8", "imull -8(%rbp), %eax");
+        assertEncoding("69c9e8030000", "imull $1000, %ecx");
+        assertEncoding("6bcb0a", "imull $10, %ebx, %ecx");
+        assertEncoding("c1e002", "shll $2, %eax");
+        assertEncoding("41c1e903", "shrl $3, %r9d");
+        assertEncoding("49f7db", "negq %r11");
+        assertEncoding("99", "cltd");
+    }
+
+    @Test
+    public void testStack() {
+        assertEncoding("55", "pushq %rbp");
+        assertEncoding("415f", "popq %r15");
+        assertEncoding("c9", "leave");
+        assertEncoding("c3", "ret");
+    }
+
+    @Test
+    public void testShortJumps() {
+        assertEncoding("eb00" + "7402" + "eb02" + "75fe",
+            "jmp .L1", ".L1:", "je .L2", "jmp .L3", ".L2:", "jnz .L2", ".L3:");
+    }
+
+    @Test
+    public void testLongJump() {
+        var lines = new ArrayList<String>();
+        lines.add("jg .L1");
+        for (int i = 0; i < 64; ++i) {
+            lines.add("movl %eax, %ebx");
+        }
+        lines.add(".L1:");
+
+        var code = encode(lines.toArray(String[]::new)).getCode();
+        assertEquals("0f8f80000000", hex(Arrays.copyOf(code, 6)));
+    }
+
+    @Test
+    public void testCall() {
+        var function = encode("call print", "call \"other\"");
+
+        assertEquals("e800000000e800000000", hex(function.getCode()));
+        assertEquals(2, function.getRelocations().size());
+        assertEquals(1, function.getRelocations().get(0).getOffset());
+        assertEquals("print", function.getRelocations().get(0).getSymbol());
+        assertEquals(-4, function.getRelocations().get(0).getAddend());
+        assertEquals("other", function.getRelocations().get(1).getSymbol());
+        assertEquals(Relocation.Kind.Call, function.getRelocations().get(1).getKind());
+    }
+
+    @Test
+    public void testGlobalVariables() {
+        var function = encode("movq mj_heap_top(%rip), %rax", "movl $5, x(%rip)");
+
+        assertEquals("488b0500000000" + "c7050000000005000000", hex(function.getCode()));
+        assertEquals(2, function.getRelocations().size());
+        assertEquals(3, function.getRelocations().get(0).getOffset());
+        assertEquals("mj_heap_top", function.getRelocations().get(0).getSymbol());
+        assertEquals(-4, function.getRelocations().get(0).getAddend());
+        assertEquals(Relocation.Kind.Data, function.getRelocations().get(0).getKind());
+        assertEquals(9, function.getRelocations().get(1).getOffset());
+        assertEquals(-8, function.getRelocations().get(1).getAddend());
+    }
+
+    @Test
+    public void testUnknownLabel() {
+        assertThrows(IllegalArgumentException.class, () -> encode("jmp .L1"));
+    }
+
+    @Test
+    public void testUnsupportedInstruction() {
+        assertThrows(IllegalArgumentException.class, () -> encode("cpuid"));
+        assertThrows(IllegalArgumentException.class, () -> encode("movl $5, %foo"));
+    }
+
+    private static void assertEncoding(String expected, String... lines) {
+        assertEquals(expected, hex(encode(lines).getCode()));
+    }
+
+    private static EncodedFunction encode(String... lines) {
+        return new X86Encoder().encode(new FunctionInstructions("function", List.of(lines)));
+    }
+
+    private static String hex(byte[] bytes) {
+        var builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package edu.kit.compiler.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class CliTest {
+
+    @Test
+    public void testSplitWhitespace() {
+        assertSplit("  -O0\t tests/a.java  ", "-O0", "tests/a.java");
+        assertSplit("");
+    }
+
+    @Test
+    public void testSplitQuoted() {
+        assertSplit("\"my tests/a.java\" -o 'out dir/a'", "my tests/a.java", "-o", "out dir/a");
+        assertSplit("a\"b c\"d", "ab cd");
+        assertSplit("'' \"\"", "", "");
+        assertSplit("'a\\b' \"it's\"", "a\\b", "it's");
+    }
+
+    @Test
+    public void testSplitEscaped() {
+        assertSplit("my\\ tests/a.java \\\"", "my tests/a.java", "\"");
+        assertSplit("\"a\\\"b\"", "a\"b");
+    }
+
+    @Test
+    public void testSplitInvalid() {
+        assertTrue(Cli.splitArguments("\"a").isEmpty());
+        assertTrue(Cli.splitArguments("'a").isEmpty());
+        assertTrue(Cli.splitArguments("a\\").isEmpty());
+    }
+
+    private static void assertSplit(String line, String... expected) {
+        assertArrayEquals(expected, Cli.splitArguments(line).get());
+    }
+}
@@ -0,0 +1,178 @@
+package edu.kit.compiler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class ByteSourceReaderTest {
+
+    @Test
+    public void positionAfterInit() {
+        ByteSourceReader reader = byteReader("");
+
+        assertEquals(1, reader.getLine());
+        assertEquals(1, reader.getColumn());
+    }
+
+    @Test
+    public void peekEndOfStream() {
+        ByteSourceReader reader = byteReader("");
+
+        assertEquals(-1, reader.peek());
+        reader.next();
+        assertEquals(-1, reader.peek());
+    }
+
+    @Test
+    public void peekNonAscii() {
+        ByteSourceReader reader = new ByteSourceReader(new byte[] { (byte) 0xc3 });
+
+        assertEquals(0xc3, reader.peek());
+    }
+
+    @Test
+    public void peekCodePoint() {
+        ByteSourceReader reader = utf8Reader("a\u00e4\u20ac\ud83d\ude00");
+
+        assertEquals('a', reader.peekCodePoint());
+        reader.next();
+        assertEquals(0xe4, reader.peekCodePoint());
+        reader.next();
+        reader.next();
+        assertEquals(0x20ac, reader.peekCodePoint());
+        reader.next();
+        reader.next();
+        reader.next();
+        assertEquals(0x1f600, reader.peekCodePoint());
+        reader.next();
+        assertEquals(0xfffd, reader.peekCodePoint());
+    }
+
+    @Test
+    public void peekCodePointInvalid() {
+        assertEquals(0xfffd, new ByteSourceReader(new byte[] { (byte) 0xc3 }).peekCodePoint());
+        assertEquals(0xfffd, new ByteSourceReader(new byte[] { (byte) 0xc3, 'a' }).peekCodePoint());
+        assertEquals(0xfffd, new ByteSourceReader(new byte[] { (byte) 0xff }).peekCodePoint());
+    }
+
+    @Test
+    public void testNext() {
+        ByteSourceReader reader = byteReader("abc");
+
+        assertEquals('a', reader.peek());
+        assertEquals('b', reader.getNext());
+        reader.next();
+        assertEquals('c', reader.peek());
+        assertEquals(-1, reader.getNext());
+    }
+
+    @Test
+    public void previewNext() {
+        ByteSourceReader reader = byteReader("/*");
+
+        assertEquals('*', reader.previewNext());
+        reader.next();
+        assertEquals(-1, reader.previewNext());
+    }
+
+    @Test
+    public void nextIncreaseLine() {
+        ByteSourceReader reader = byteReader("a\nbc\n\nd");
+
+        reader.next();
+        reader.next();
+        reader.next();
+        assertEquals(2, reader.getLine());
+        assertEquals(2, reader.getColumn());
+        reader.next();
+        reader.next();
+        reader.next();
+        assertEquals(4, reader.getLine());
+        assertEquals(1, reader.getColumn());
+    }
+
+    @Test
+    public void skipManyLines() {
+        // the position is only requested after many lines have been skipped
+        ByteSourceReader reader = byteReader("a\n".repeat(1000) + "b");
+
+        while (reader.peek() != 'b') {
+            reader.next();
+        }
+        assertEquals(1001, reader.getLine());
+        assertEquals(1, reader.getColumn());
+    }
+
+    @Test
+    public void readRange() {
+        byte[] input = "a\nbc\nd\nef".getBytes(StandardCharsets.US_ASCII);
+        ByteSourceReader reader = new ByteSourceReader(input, 2, 7, 2);
+
+        assertEquals('b', reader.peek());
+        assertEquals(2, reader.getLine());
+        assertEquals(1, reader.getColumn());
+        reader.next();
+        reader.next();
+        reader.next();
+        assertEquals('d', reader.peek());
+        assertEquals(3, reader.getLine());
+        assertEquals(1, reader.getColumn());
+        assertEquals('\n', reader.previewNext());
+        reader.next();
+        assertEquals(-1, reader.getNext());
+        assertEquals(4, reader.getLine());
+    }
+
+    @Test
+    public void sameAsSourceLocationReader() {
+        String input = "class A {\n  /* comment */\r\n\n  public int x;\n}\n\n";
+        ByteSourceReader bytes = byteReader(input);
+        SourceLocationReader chars = new SourceLocationReader(new StringReader(input));
+
+        do {
+            assertEquals(chars.peek(), bytes.peek());
+            assertEquals(chars.previewNext(), bytes.previewNext());
+            assertEquals(chars.getLine(), bytes.getLine());
+            assertEquals(chars.getColumn(), bytes.getColumn());
+            chars.next();
+            bytes.next();
+        } while (chars.peek() != -1);
+
+        assertEquals(chars.getLine(), bytes.getLine());
+        assertEquals(chars.getColumn(), bytes.getColumn());
+    }
+
+    @Test
+    public void columnAfterMultiByteCharacters() {
+        String input = "/* \u00e4\u20ac */ a\n\u00e4\nb";
+        ByteSourceReader bytes = utf8Reader(input);
+        SourceLocationReader chars = new SourceLocationReader(new StringReader(input));
+
+        // compare the positions of all ASCII characters
+        do {
+            if (bytes.peek() < 0x80) {
+                assertEquals(chars.peek(), bytes.peek());
+                assertEquals(chars.getLine(), bytes.getLine());
+                assertEquals(chars.getColumn(), bytes.getColumn());
+                chars.next();
+            } else if ((bytes.peek() & 0xc0) != 0x80) {
+                chars.next();
+            }
+            bytes.next();
+        } while (bytes.peek() != -1);
+
+        assertEquals(chars.getLine(), bytes.getLine());
+        assertEquals(chars.getColumn(), bytes.getColumn());
+    }
+
+    private static ByteSourceReader utf8Reader(String input) {
+        return new ByteSourceReader(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteSourceReader byteReader(String input) {
+        return new ByteSourceReader(input.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,118 @@
+package edu.kit.compiler.io;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import edu.kit.compiler.data.Token;
+import edu.kit.compiler.data.TokenType;
+import edu.kit.compiler.lexer.Lexer;
+import edu.kit.compiler.parser.Parser;
+
+/**
+ * Microbenchmark comparing the LookaheadIterator implementations when used
+ * by the Parser. The tokens of a large generated program are lexed once in
+ * advance, so that only parsing is measured.
+ *
+ * Not run as part of the tests, run the main method instead:
+ * java -cp target/classes:target/test-classes edu.kit.compiler.io.LookaheadIteratorBenchmark [classes]
+ */
+public class LookaheadIteratorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int classes = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        List<Token> tokens = lex(generateProgram(classes));
+        System.out.printf("%d tokens%n", tokens.size());
+
+        for (int i = 0; i < 3; i++) {
+            measure("parse", "BufferedLookaheadIterator", tokens, BufferedLookaheadIterator::new,
+                LookaheadIteratorBenchmark::parse);
+            measure("parse", "RingBufferLookaheadIterator", tokens, RingBufferLookaheadIterator::new,
+                LookaheadIteratorBenchmark::parse);
+        }
+        for (int i = 0; i < 3; i++) {
+            measure("lookahead", "BufferedLookaheadIterator", tokens, BufferedLookaheadIterator::new,
+                LookaheadIteratorBenchmark::lookahead);
+            measure("lookahead", "RingBufferLookaheadIterator", tokens, RingBufferLookaheadIterator::new,
+                LookaheadIteratorBenchmark::lookahead);
+        }
+    }
+
+    private static void measure(String task, String name, List<Token> tokens,
+            Function<Iterator<Token>, LookaheadIterator<Token>> factory,
+            Function<LookaheadIterator<Token>, Object> action) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            action.apply(factory.apply(tokens.iterator()));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            action.apply(factory.apply(tokens.iterator()));
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        System.out.printf("%-10s %-30s %8.2f ms%n", task, name, millis);
+    }
+
+    private static Object parse(LookaheadIterator<Token> tokens) {
+        return new Parser(tokens).parse();
+    }
+
+    /**
+     * Only the lookahead pattern of the parser: look at the next three
+     * tokens at every position.
+     */
+    private static Object lookahead(LookaheadIterator<Token> tokens) {
+        int count = 0;
+        while (tokens.get().getType() != TokenType.EndOfStream) {
+            for (int pos = 0; pos < 3; pos++) {
+                if (tokens.has(pos) && tokens.get(pos).getType() == TokenType.Identifier) {
+                    count++;
+                }
+            }
+            tokens.next();
+        }
+        return count;
+    }
+
+    private static List<Token> lex(String program) {
+        var lexer = new Lexer(new StringReader(program));
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.getNextToken();
+            tokens.add(token);
+        } while (token.getType() != TokenType.EndOfStream);
+        return tokens;
+    }
+
+    /**
+     * Generate a program with the given number of classes, each containing
+     * fields, local variables, nested expressions and method calls.
+     */
+    static String generateProgram(int classes) {
+        var builder = new StringBuilder();
+        builder.append("class Main { public static void main(String[] args) { } }\n");
+        for (int i = 0; i < classes; i++) {
+            builder.append("class C").append(i).append(" {\n")
+                .append("    public int x;\n")
+                .append("    public int[] values;\n")
+                .append("    public int compute(int a, int b) {\n")
+                .append("        int[] local = new int[a + 1];\n")
+                .append("        int i = 0;\n")
+                .append("        while (i < a && (b > 0 || !(i == 3))) {\n")
+                .append("            local[i] = (a * b + i) % 7 - -x;\n")
+                .append("            if (local[i] != values[i]) x = this.compute(i, b - 1) + local[i];\n")
+                .append("            i = i + 1;\n")
+                .append("        }\n")
+                .append("        return x + new C").append(i).append("().x;\n")
+                .append("    }\n")
+                .append("}\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package edu.kit.compiler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class RingBufferLookaheadIteratorTest {
+
+    @Test
+    public void hasFirst() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertTrue(iterator.has(0));
+    }
+
+    @Test
+    public void hasNoFirst() {
+        List<Character> source = Arrays.asList();
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertFalse(iterator.has(0));
+    }
+
+    @Test
+    public void hasSome() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertTrue(iterator.has(2));
+    }
+
+    @Test
+    public void hasNotSome() {
+        List<Character> source = Arrays.asList('a');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertFalse(iterator.has(2));
+    }
+
+    @Test
+    public void hasDoesNotMove() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.has(1);
+
+        assertEquals('a', iterator.get(0));
+    }
+
+    @Test
+    public void getFirst() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertEquals('a', iterator.get(0));
+    }
+
+    @Test
+    public void getSome() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertEquals('c', iterator.get(2));
+    }
+
+    @Test
+    public void getAfterHas() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.has(2);
+
+        assertEquals('b', iterator.get(1));
+    }
+
+    @Test
+    public void getDoesNotMove() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.get(2);
+
+        assertEquals('a', iterator.get(0));
+    }
+
+    @Test
+    public void nextMove() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.next(1);
+
+        assertEquals('b', iterator.get(0));
+    }
+
+    @Test
+    public void nextMoveAfterHas() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.has(0);
+        iterator.next(1);
+
+        assertEquals('b', iterator.get(0));
+    }
+
+    @Test
+    public void nextMoveAfterGet() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.get(1);
+        iterator.next(1);
+
+        assertEquals('b', iterator.get(0));
+    }
+
+    @Test
+    public void nextMoveMultipleSteps() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.next(2);
+
+        assertEquals('c', iterator.get(0));
+    }
+
+    @Test
+    public void nextMoveMultipleCalls() {
+        List<Character> source = Arrays.asList('a', 'b', 'c');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.next(1); iterator.next(1);
+
+        assertEquals('c', iterator.get(0));
+    }
+
+    @Test
+    public void wrapAround() {
+        List<Integer> source = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        LookaheadIterator<Integer> iterator = new RingBufferLookaheadIterator<Integer>(source.iterator());
+
+        for (int i = 0; i < 97; i++) {
+            assertEquals(i + 2, iterator.get(2));
+            assertEquals(i, iterator.get(0));
+            iterator.next(1);
+        }
+        assertFalse(iterator.has(3));
+    }
+
+    @Test
+    public void growWhileWrapped() {
+        List<Integer> source = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        LookaheadIterator<Integer> iterator = new RingBufferLookaheadIterator<Integer>(source.iterator());
+
+        iterator.get(5);
+        iterator.next(5);
+        assertEquals(50, iterator.get(45));
+        for (int i = 5; i < 100; i++) {
+            assertEquals(i, iterator.get(0));
+            iterator.next(1);
+        }
+        assertFalse(iterator.has(0));
+    }
+
+    @Test
+    public void nextBeyondBuffer() {
+        List<Character> source = Arrays.asList('a', 'b', 'c', 'd');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        iterator.get(0);
+        iterator.next(3);
+
+        assertEquals('d', iterator.get(0));
+    }
+
+    @Test
+    public void getBeyondEnd() {
+        List<Character> source = Arrays.asList('a');
+        LookaheadIterator<Character> iterator = new RingBufferLookaheadIterator<Character>(source.iterator());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> iterator.get(1));
+    }
+
+}
@@ -0,0 +1,88 @@
+package edu.kit.compiler.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.kit.compiler.logger.Logger;
+
+public class StandardLibraryCacheTest {
+
+    private static final String VERSION = "12.2.0 x86_64-linux-gnu";
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testSameSourceSameName() {
+        var first = StandardLibraryCache.getObjectName(VERSION, bytes("void flush() {}"));
+        var second = StandardLibraryCache.getObjectName(VERSION, bytes("void flush() {}"));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void testDifferentSourceDifferentName() {
+        var first = StandardLibraryCache.getObjectName(VERSION, bytes("void flush() {}"));
+        var second = StandardLibraryCache.getObjectName(VERSION, bytes("void flush() { }"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testDifferentCompilerDifferentName() {
+        var first = StandardLibraryCache.getObjectName(VERSION, bytes("void flush() {}"));
+        var second = StandardLibraryCache.getObjectName("12.3.0 x86_64-linux-gnu", bytes("void flush() {}"));
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testObjectFileName() {
+        var name = StandardLibraryCache.getObjectName(VERSION, bytes(""));
+
+        assertTrue(name.startsWith("stdlib-"));
+        assertTrue(name.endsWith(".o"));
+    }
+
+    @Test
+    public void testGetObject() throws IOException, InterruptedException {
+        var cache = new StandardLibraryCache(directory.resolve("cache"), Logger.nullLogger());
+        var source = directory.resolve("stdlib.c");
+        Files.writeString(source, "int flush() { return 0; }\n");
+
+        var object = cache.getObject(source.toFile()).toPath();
+        assertTrue(isElfFile(object));
+
+        // a cached object is returned without compiling it again
+        Files.writeString(object, "cached");
+        assertEquals(object, cache.getObject(source.toFile()).toPath());
+        assertEquals("cached", Files.readString(object));
+
+        // a changed source is compiled again
+        Files.writeString(source, "int flush() { return 1; }\n");
+        var changed = cache.getObject(source.toFile()).toPath();
+        assertNotEquals(object, changed);
+        assertTrue(isElfFile(changed));
+        try (var files = Files.list(directory.resolve("cache"))) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private static boolean isElfFile(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        return content.length > 4 && content[0] == 0x7f && content[1] == 'E' && content[2] == 'L' && content[3] == 'F';
+    }
+
+    private static byte[] bytes(String source) {
+        return source.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -2,12 +2,16 @@ package edu.kit.compiler.lexer;
 
 import edu.kit.compiler.data.Literal;
 import edu.kit.compiler.data.Token;
+import edu.kit.compiler.data.TokenType;
+import edu.kit.compiler.io.ByteSourceReader;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 
 import static edu.kit.compiler.data.TokenType.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -196,6 +200,32 @@ public class LexerTest {
         assertEquals(new Token(Keyword_Abstract, 1, 1), lexer.getNextToken());
     }
 
+    @Test
+    public void testAllKeywords() {
+        for (var type : TokenType.values()) {
+            if (!type.name().startsWith("Keyword_") || type == Keyword_String) {
+                continue;
+            }
+
+            var keyword = new Token(type, 1, 1).getStringRepresentation(null);
+            var lexer = new Lexer(getReader(keyword + " " + keyword + "_ " + keyword.substring(1)));
+            assertEquals(new Token(type, 1, 1), lexer.getNextToken());
+            assertEquals(Identifier, lexer.getNextToken().getType());
+            assertEquals(Identifier, lexer.getNextToken().getType());
+            assertEquals(keyword + "_", lexer.getStringTable().retrieve(0));
+        }
+    }
+
+    @Test
+    public void testKeywordLikeIdentifiers() {
+        var lexer = new Lexer(getReader("String Class whilE i in intint d"));
+        for (int i = 0; i < 7; ++i) {
+            var token = lexer.getNextToken();
+            assertEquals(Identifier, token.getType());
+            assertEquals(i, token.getIntValue().get());
+        }
+    }
+
     @Test
     public void testBasicIdentifiers() {
         var lexer = new Lexer(getReader("foo"));
@@ -207,6 +237,15 @@ public class LexerTest {
         assertEquals("Ab_c1__234a", lexer.getStringTable().retrieve(0));
     }
 
+    @Test
+    public void testLongIdentifier() {
+        var input = "a_1".repeat(100);
+        var lexer = new Lexer(getReader(input + " " + input));
+        assertEquals(new Token(Identifier, 1, 1, 0), lexer.getNextToken());
+        assertEquals(new Token(Identifier, 1, 302, 0), lexer.getNextToken());
+        assertEquals(input, lexer.getStringTable().retrieve(0));
+    }
+
     @Test
     public void testWeirdComment() {
         var lexer = new Lexer(getReader("/***/"));
@@ -253,6 +292,61 @@ public class LexerTest {
         assertEquals(new Token(EndOfStream, 12, 1), lexer.getNextToken());
     }
 
+    @Test
+    public void testByteSourceReader() throws IOException {
+        var stream = classLoader.getResourceAsStream("edu/kit/compiler/lexer/example.java");
+        var bytes = stream.readAllBytes();
+        var charLexer = new Lexer(new StringReader(new String(bytes, StandardCharsets.US_ASCII)));
+        var byteLexer = new Lexer(new ByteSourceReader(bytes));
+
+        Token token;
+        do {
+            token = charLexer.getNextToken();
+            assertEquals(token, byteLexer.getNextToken());
+        } while (token.getType() != EndOfStream);
+    }
+
+    @Test
+    public void testByteSourceReaderUtf8() {
+        var bytes = "/* \u00e4\u20ac\ud83d\ude00 */ x\n  \u00e4".getBytes(StandardCharsets.UTF_8);
+        var lexer = new Lexer(new ByteSourceReader(bytes));
+
+        var x = lexer.getStringTable().insert("x");
+        assertEquals(new Token(Identifier, 1, 11, x), lexer.getNextToken());
+        var exception = assertThrows(LexException.class, () -> lexer.getNextToken());
+        assertEquals(2, exception.getLine());
+        assertEquals(3, exception.getColumn());
+        assertEquals("unexpected character '\u00e4'", exception.getMessage());
+    }
+
+    @Test
+    public void testRemainingTokens() {
+        var lexer = new Lexer(getReader("x = 0 + 2147483647 - 2147483648 - 99999999999;\nx"));
+        var x = lexer.getStringTable().insert("x");
+        var tokens = lexer.getRemainingTokens();
+
+        assertEquals(12, tokens.size());
+        assertEquals(new Token(Identifier, 1, 1, x), tokens.getToken(0));
+        assertEquals(new Token(Operator_Equal, 1, 3), tokens.getToken(1));
+        assertEquals(new Token(IntegerLiteral, 1, 5, Literal.ofValue(0)), tokens.getToken(2));
+        assertEquals(new Token(IntegerLiteral, 1, 9, new Literal("2147483647")), tokens.getToken(4));
+        assertEquals(new Token(IntegerLiteral, 1, 22, new Literal("2147483648")), tokens.getToken(6));
+        assertEquals(new Token(IntegerLiteral, 1, 35, new Literal("99999999999")), tokens.getToken(8));
+        assertEquals(new Token(Identifier, 2, 1, x), tokens.getToken(10));
+        assertEquals(new Token(EndOfStream, 2, 2), tokens.getToken(11));
+    }
+
+    @Test
+    public void testRemainingTokensGrow() {
+        var lexer = new Lexer(getReader("a ".repeat(5000)));
+        var tokens = lexer.getRemainingTokens();
+
+        assertEquals(5001, tokens.size());
+        assertEquals(Identifier, tokens.getType(4999));
+        assertEquals(9999, tokens.getColumn(4999));
+        assertEquals(EndOfStream, tokens.getType(5000));
+    }
+
     private static Reader getReader(String input) {
         return new StringReader(input);
     }
@@ -0,0 +1,98 @@
+package edu.kit.compiler.lexer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.io.ByteSourceReader;
+import edu.kit.compiler.logger.Logger;
+
+public class ParallelLexerTest {
+
+    @Test
+    public void testSplitAtNewlines() {
+        var source = bytes("a\nb\nc\nd\n");
+        var chunks = ParallelLexer.split(source, 4);
+
+        assertEquals(4, chunks.size());
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(2 * i, chunks.get(i).getStart());
+            assertEquals(2 * i + 2, chunks.get(i).getEnd());
+            assertEquals(i + 1, chunks.get(i).getFirstLine());
+        }
+    }
+
+    @Test
+    public void testSplitNotInComment() {
+        var source = bytes("a\n/* b\nc\n*/ d\ne\nf");
+        var chunks = ParallelLexer.split(source, 3);
+
+        assertEquals(3, chunks.size());
+        assertEquals(14, chunks.get(0).getEnd());
+        assertEquals(5, chunks.get(1).getFirstLine());
+        assertEquals(16, chunks.get(1).getEnd());
+        assertEquals(6, chunks.get(2).getFirstLine());
+        assertEquals(source.length, chunks.get(2).getEnd());
+    }
+
+    @Test
+    public void testSplitUnclosedComment() {
+        var source = bytes("a\nb\n/*/ c\nd\n");
+        var chunks = ParallelLexer.split(source, 4);
+
+        assertEquals(2, chunks.size());
+        assertEquals(4, chunks.get(1).getStart());
+        assertEquals(source.length, chunks.get(1).getEnd());
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        var source = bytes(generateProgram(40000));
+        assertTrue(source.length > 4 * ParallelLexer.MIN_CHUNK_SIZE);
+
+        var sequentialTable = new StringTable();
+        var sequential = new Lexer(new ByteSourceReader(source), sequentialTable, Logger.nullLogger())
+            .getRemainingTokens();
+        var parallelTable = new StringTable();
+        var parallel = new ParallelLexer(source, parallelTable, Logger.nullLogger()).getTokens(4);
+
+        assertEquals(sequentialTable.toList(), parallelTable.toList());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); ++i) {
+            assertEquals(sequential.getToken(i), parallel.getToken(i));
+        }
+    }
+
+    @Test
+    public void testFirstError() {
+        var program = generateProgram(40000);
+        int middle = program.indexOf('\n', program.length() / 2);
+        var source = bytes(program.substring(0, middle) + " # " + program.substring(middle) + " $");
+
+        var exception = assertThrows(LexException.class,
+            () -> new ParallelLexer(source, new StringTable(), Logger.nullLogger()).getTokens(4));
+        var expected = assertThrows(LexException.class,
+            () -> new Lexer(new ByteSourceReader(source)).getRemainingTokens());
+        assertEquals(expected.getLine(), exception.getLine());
+        assertEquals(expected.getColumn(), exception.getColumn());
+    }
+
+    private static String generateProgram(int classes) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < classes; ++i) {
+            builder.append("class C").append(i).append(" {\n")
+                .append("    /* field\n     * of C").append(i).append(" */ public int x").append(i % 100).append(";\n")
+                .append("    public int m(int a) { return a * ").append(i).append(" + 2147483648; }\n")
+                .append("}\n");
+        }
+        return builder.toString();
+    }
+
+    private static byte[] bytes(String input) {
+        return input.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,103 @@
+package edu.kit.compiler.logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TimeReportTest {
+
+    @Test
+    public void testDisabled() {
+        var report = TimeReport.disabled();
+
+        report.measure("phase").close();
+
+        assertFalse(report.isEnabled());
+        assertTrue(report.getPhases().isEmpty());
+    }
+
+    @Test
+    public void testCalls() {
+        var report = new TimeReport();
+
+        for (int i = 0; i < 3; ++i) {
+            report.measure("phase").close();
+        }
+
+        assertEquals(1, report.getPhases().size());
+        assertEquals("phase", report.getPhases().get(0).getName());
+        assertEquals(3, report.getPhases().get(0).getCalls());
+    }
+
+    @Test
+    public void testNestedIsExclusive() throws InterruptedException {
+        var report = new TimeReport();
+
+        var outer = report.measure("outer");
+        try {
+            var inner = report.measure("inner");
+            try {
+                Thread.sleep(20);
+            } finally {
+                inner.close();
+            }
+        } finally {
+            outer.close();
+        }
+
+        var phases = report.getPhases();
+        assertEquals("outer", phases.get(0).getName());
+        assertEquals("inner", phases.get(1).getName());
+        assertTrue(phases.get(1).getWallNanos() >= 20_000_000);
+        assertTrue(phases.get(0).getWallNanos() < phases.get(1).getWallNanos());
+    }
+
+    @Test
+    public void testJson() {
+        var report = new TimeReport();
+        report.measure("phase").close();
+
+        var stream = new ByteArrayOutputStream();
+        report.printJson(new PrintStream(stream));
+        var json = stream.toString();
+
+        assertTrue(json.contains("\"name\": \"phase\""));
+        assertTrue(json.contains("\"total\""));
+    }
+
+    @Test
+    public void testCounters() {
+        var report = new TimeReport();
+        report.count("b", 2);
+        report.count("a", 1);
+        report.count("b", 3);
+
+        assertEquals(List.of("b", "a"), List.copyOf(report.getCounters().keySet()));
+        assertEquals(5, report.getCounters().get("b"));
+
+        var stream = new ByteArrayOutputStream();
+        report.printJson(new PrintStream(stream));
+        var json = stream.toString();
+        assertTrue(json.contains("\"counters\": {"));
+        assertTrue(json.contains("\"b\": 5,"));
+        assertTrue(json.contains("\"a\": 1\n") || json.contains("\"a\": 1\r\n"));
+
+        stream.reset();
+        report.printTable(new PrintStream(stream));
+        assertTrue(stream.toString().contains("counter"));
+    }
+
+    @Test
+    public void testDisabledCounters() {
+        var report = TimeReport.disabled();
+        report.count("a", 1);
+
+        assertTrue(report.getCounters().isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.kit.compiler.optimizations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.transform.JFirmSingleton;
+
+import firm.Construction;
+import firm.Entity;
+import firm.Graph;
+import firm.MethodType;
+import firm.Program;
+import firm.Type;
+import firm.nodes.Node;
+
+public class AnalysisManagerTest {
+
+    @BeforeAll
+    public static void setupAll() {
+        JFirmSingleton.initializeFirmLinux();
+    }
+
+    private Graph createGraph() {
+        UUID uuid = UUID.randomUUID();
+        MethodType methodType = new MethodType(new Type[] { }, new Type[] { });
+        Entity entity = new Entity(Program.getGlobalType(), "test_" + uuid, methodType);
+        Graph graph = new Graph(entity, 0);
+
+        Construction construction = new Construction(graph);
+        Node returnNode = construction.newReturn(construction.getCurrentMem(), new Node[] { });
+        graph.getEndBlock().addPred(returnNode);
+        construction.finish();
+
+        return graph;
+    }
+
+    @Test
+    public void testCached() {
+        var manager = new AnalysisManager();
+        var graph = createGraph();
+
+        var loops = manager.get(graph, AnalysisManager.LOOPS);
+        assertSame(loops, manager.get(graph, AnalysisManager.LOOPS));
+        assertEquals(manager.get(graph, AnalysisManager.NODE_COUNT), manager.get(graph, AnalysisManager.NODE_COUNT));
+    }
+
+    @Test
+    public void testInvalidate() {
+        var manager = new AnalysisManager();
+        var graph = createGraph();
+
+        var loops = manager.get(graph, AnalysisManager.LOOPS);
+        var constants = manager.get(graph, AnalysisManager.CONSTANTS);
+
+        manager.invalidate(graph, Set.of(AnalysisManager.LOOPS));
+        assertSame(loops, manager.get(graph, AnalysisManager.LOOPS));
+        assertNotSame(constants, manager.get(graph, AnalysisManager.CONSTANTS));
+
+        manager.invalidate(graph);
+        assertNotSame(loops, manager.get(graph, AnalysisManager.LOOPS));
+    }
+
+    @Test
+    public void testSeparateGraphs() {
+        var manager = new AnalysisManager();
+        var graph1 = createGraph();
+        var graph2 = createGraph();
+
+        var loops1 = manager.get(graph1, AnalysisManager.LOOPS);
+        var loops2 = manager.get(graph2, AnalysisManager.LOOPS);
+        assertNotSame(loops1, loops2);
+
+        manager.invalidate(graph2);
+        assertSame(loops1, manager.get(graph1, AnalysisManager.LOOPS));
+    }
+}
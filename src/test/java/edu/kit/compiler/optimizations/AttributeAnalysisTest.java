@@ -29,6 +29,7 @@ import edu.kit.compiler.semantic.ErrorHandler;
 import edu.kit.compiler.semantic.NamespaceGatheringVisitor;
 import edu.kit.compiler.semantic.NamespaceMapper;
 import edu.kit.compiler.semantic.SemanticChecks;
+import edu.kit.compiler.transform.AllocationStrategy;
 import edu.kit.compiler.transform.IRVisitor;
 import edu.kit.compiler.transform.JFirmSingleton;
 import edu.kit.compiler.transform.Lower;
@@ -43,6 +44,7 @@ public class AttributeAnalysisTest {
     private Collection<String> members = new LinkedList<>();
     private AttributeAnalysis analysis;
     private String className;
+    private AllocationStrategy allocationStrategy = AllocationStrategy.Calloc;
 
     @BeforeAll
     public static void setupAll() {
@@ -389,6 +391,31 @@ public class AttributeAnalysisTest {
         assertTrue(foo.isMalloc());
     }
 
+    @Test
+    public void testMallocArena() {
+        allocationStrategy = AllocationStrategy.Arena;
+        addIntToArr("foo", 0, "return new int[4];");
+        buildIR();
+
+        var foo = getAttributes("foo");
+        assertFalse(foo.isConst());
+        assertTrue(foo.isPure());
+        assertTrue(foo.isTerminates());
+        assertTrue(foo.isMalloc());
+    }
+
+    @Test
+    public void testMallocInlineArena() {
+        allocationStrategy = AllocationStrategy.InlineArena;
+        members.add(String.format("public %s foo() { return new %s(); }", className, className));
+        buildIR();
+
+        // the pointer of the arena is updated by the function itself
+        var foo = getAttributes("foo");
+        assertFalse(foo.isPure());
+        assertTrue(foo.isMalloc());
+    }
+
     @Test
     public void testMallocBranch() {
         addIntToArr("foo", 1, "if (x0 < 0) return new int[8]; else return new int[4];");
@@ -527,7 +554,7 @@ public class AttributeAnalysisTest {
         ast.accept(nameTypeVisitor);
         SemanticChecks.applyChecks(ast, errorHandler, gatheringVisitor.getStringClass());
         errorHandler.checkForErrors();
-        var irVisitor = new IRVisitor(namespaceMapper, stringTable);
+        var irVisitor = new IRVisitor(namespaceMapper, stringTable, allocationStrategy);
         ast.accept(irVisitor);
         Lower.lower(irVisitor.getTypeMapper());
     }
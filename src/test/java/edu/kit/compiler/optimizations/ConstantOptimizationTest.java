@@ -133,7 +133,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertContainsOpCode(getNodes(graph), ir_opcode.iro_Add);
     }
@@ -148,7 +148,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertContainsOpCode(getNodes(graph), ir_opcode.iro_Const);
     }
@@ -165,7 +165,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Minus);
     }
@@ -183,7 +183,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Add);
     }
@@ -205,7 +205,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Add);
     }
@@ -230,7 +230,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Add);
     }
@@ -250,7 +250,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
         assertDoesNotContainOpCode(nodes, ir_opcode.iro_Add);
@@ -270,7 +270,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Div);
     }
@@ -290,7 +290,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> callArgs = getNodes(graph);
         callArgs = callArgs.stream()
@@ -315,7 +315,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
         nodes = nodes.stream().filter(node -> node instanceof Const).collect(Collectors.toList());
@@ -354,7 +354,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Phi);
     }
@@ -385,7 +385,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsPhi = getNodes(graph).stream().anyMatch(node ->
             node instanceof Phi &&
@@ -424,7 +424,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(3, Mode.getIs())))
@@ -460,7 +460,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(2, Mode.getIs())))
@@ -496,7 +496,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(3, Mode.getIs())))
@@ -532,7 +532,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(2, Mode.getIs())))
@@ -568,7 +568,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(2, Mode.getIs())))
@@ -604,7 +604,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(3, Mode.getIs())))
@@ -640,7 +640,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         boolean containsConstFromDiscardedBranch = getNodes(graph).stream()
             .filter(node -> node instanceof Const && ((Const)node).getTarval().equals(new TargetValue(2, Mode.getIs())))
@@ -679,7 +679,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
         assertDoesNotContainOpCode(nodes, ir_opcode.iro_Cond);
@@ -715,7 +715,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
         assertDoesNotContainOpCode(nodes, ir_opcode.iro_Cond);
@@ -757,7 +757,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
         assertDoesNotContainOpCode(nodes, ir_opcode.iro_Cond);
@@ -802,7 +802,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        while (optimization.optimize(graph, null)) { }
+        while (optimization.optimize(graph, new OptimizationState())) { }
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Add);
     }
@@ -829,7 +829,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         assertDoesNotContainOpCode(getNodes(graph), ir_opcode.iro_Cond);
     }
@@ -889,7 +889,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        while (optimization.optimize(graph, null));
+        while (optimization.optimize(graph, new OptimizationState()));
 
         List<Node> nodes = getNodes(graph);
 
@@ -934,7 +934,7 @@ public class ConstantOptimizationTest {
         ));
 
         ConstantOptimization optimization = new ConstantOptimization();
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         List<Node> nodes = getNodes(graph);
 
@@ -101,7 +101,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block2, cond2.getBlock());
@@ -165,7 +165,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block2, cond2.getBlock());
@@ -229,7 +229,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block2, cond2.getBlock());
@@ -321,7 +321,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block2, cond2.getBlock());
@@ -413,7 +413,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block5, cond5.getBlock());
@@ -504,7 +504,7 @@ public class LoopInvariantOptimizationTest {
         // run optimization
         LoopInvariantOptimization optimization = new LoopInvariantOptimization();
         optimization.setMoveInvariantStrategy(Optional.of(new MoveInvariantStrategies.MoveAlways()));
-        optimization.optimize(graph, null);
+        optimization.optimize(graph, new OptimizationState());
 
         // make assertions
         assertEquals(block2, cond2.getBlock());
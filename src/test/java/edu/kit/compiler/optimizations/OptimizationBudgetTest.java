@@ -0,0 +1,62 @@
+package edu.kit.compiler.optimizations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class OptimizationBudgetTest {
+
+    @Test
+    public void testUnlimited() {
+        var budget = OptimizationBudget.unlimited();
+        for (int i = 0; i < 1000; ++i) {
+            assertTrue(budget.consume());
+        }
+        assertFalse(budget.isExhausted());
+        assertEquals(1000, budget.getConsumedFuel());
+    }
+
+    @Test
+    public void testFuel() {
+        var budget = new OptimizationBudget(3, OptimizationBudget.UNLIMITED);
+        assertTrue(budget.consume());
+        assertTrue(budget.consume());
+        assertFalse(budget.isExhausted());
+        assertTrue(budget.consume());
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.consume());
+        assertFalse(budget.consume());
+        assertEquals(3, budget.getConsumedFuel());
+    }
+
+    @Test
+    public void testNoFuel() {
+        var budget = new OptimizationBudget(0, OptimizationBudget.UNLIMITED);
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.consume());
+        assertEquals(0, budget.getConsumedFuel());
+    }
+
+    @Test
+    public void testTimeLimit() throws InterruptedException {
+        var budget = new OptimizationBudget(OptimizationBudget.UNLIMITED, 0);
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.consume());
+
+        budget = new OptimizationBudget(OptimizationBudget.UNLIMITED, 10);
+        Thread.sleep(20);
+        assertTrue(budget.isExhausted());
+        assertFalse(budget.consume());
+    }
+
+    @Test
+    public void testNegative() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new OptimizationBudget(-1, OptimizationBudget.UNLIMITED));
+        assertThrows(IllegalArgumentException.class,
+            () -> new OptimizationBudget(OptimizationBudget.UNLIMITED, -1));
+    }
+}
@@ -0,0 +1,243 @@
+package edu.kit.compiler.optimizations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.lexer.Lexer;
+import edu.kit.compiler.logger.Logger;
+import edu.kit.compiler.parser.Parser;
+import edu.kit.compiler.semantic.DetailedNameTypeAstVisitor;
+import edu.kit.compiler.semantic.ErrorHandler;
+import edu.kit.compiler.semantic.NamespaceGatheringVisitor;
+import edu.kit.compiler.semantic.NamespaceMapper;
+import edu.kit.compiler.semantic.SemanticChecks;
+import edu.kit.compiler.transform.IRVisitor;
+import edu.kit.compiler.transform.JFirmSingleton;
+import edu.kit.compiler.transform.Lower;
+import firm.Graph;
+import firm.Program;
+import firm.bindings.binding_irnode.ir_opcode;
+import firm.nodes.Node;
+import firm.nodes.NodeVisitor;
+import firm.nodes.Proj;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+public class ScalarReplacementOptimizationTest {
+
+    private static final String TEMPLATE = "class Main_%1$s { public static void main(String[] args) { } %2$s } "
+            + "class Point_%1$s { public int x; public int y; }";
+
+    private Optimization.Local optimization = new ScalarReplacementOptimization();
+    private Optimization.Local pureFunctionOptimization = new PureFunctionOptimization();
+    private Set<Graph> oldGraphs = new HashSet<>();
+    private Collection<String> members = new LinkedList<>();
+    private String uuid;
+
+    @BeforeAll
+    public static void setupAll() {
+        JFirmSingleton.initializeFirmLinux();
+    }
+
+    @BeforeEach
+    public void setup() {
+        collectGraphs(oldGraphs);
+        uuid = UUID.randomUUID().toString().replace("-", "_");
+    }
+
+    @AfterEach
+    public void teardown() {
+        getNewGraphs().forEach(graph -> {
+            var entity = graph.getEntity();
+            graph.free();
+            entity.free();
+        });
+    }
+
+    @Test
+    public void testFields() {
+        addIntToInt("foo", 2, "Point p = new Point(); p.x = x0; p.y = x1; return p.x + p.y;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Store));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testZeroInitialized() {
+        addIntToInt("foo", 0, "Point p = new Point(); return p.x;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testBranch() {
+        addIntToInt("foo", 1, "Point p = new Point(); if (x0 < 0) p.x = 1; else p.y = 2; return p.x + p.y;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Store));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testLoop() {
+        addIntToInt("foo", 1,
+                "Point p = new Point(); int i = 0; while (i < x0) { p.x = p.x + i; i = i + 1; } return p.x;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Store));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testAllocationInLoop() {
+        addIntToInt("foo", 1,
+                "int sum = 0; while (sum < x0) { Point p = new Point(); p.x = sum; sum = sum + p.x + 1; } return sum;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(0, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testEscapeReturn() {
+        members.add("public Point foo(int x0) { Point p = new Point(); p.x = x0; return p; }");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(1, Counter.count(foo, ir_opcode.iro_Store));
+        assertEquals(1, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testEscapeCall() {
+        members.add("public int bar(Point p) { return p.x; }");
+        addIntToInt("foo", 1, "Point p = new Point(); p.x = x0; return bar(p);");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(1, Counter.count(foo, ir_opcode.iro_Store));
+        assertEquals(2, Counter.count(foo, ir_opcode.iro_Call));
+    }
+
+    @Test
+    public void testEscapeStore() {
+        members.add("public Point field;");
+        addIntToInt("foo", 1, "Point p = new Point(); p.x = x0; field = p; return p.x;");
+        buildOptIR();
+
+        var foo = getFunction("foo");
+        assertEquals(1, Counter.count(foo, ir_opcode.iro_Load));
+        assertEquals(2, Counter.count(foo, ir_opcode.iro_Store));
+    }
+
+    private void addIntToInt(String name, int numParams, String body) {
+        var params = IntStream.range(0, numParams).mapToObj(n -> "int x" + n).collect(Collectors.joining(", "));
+        members.add(String.format("public int %s(%s) { %s }", name, params, body));
+    }
+
+    private Graph getFunction(String name) {
+        for (var graph : getNewGraphs()) {
+            if (graph.getEntity().getLdName().contains(name)) {
+                return graph;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private Collection<Graph> getNewGraphs() {
+        var newGraphs = new HashSet<Graph>();
+        collectGraphs(newGraphs);
+        newGraphs.removeAll(oldGraphs);
+        return newGraphs;
+    }
+
+    private void collectGraphs(Collection<Graph> collection) {
+        Program.getGraphs().forEach(collection::add);
+    }
+
+    private void buildOptIR() {
+        var logger = Logger.nullLogger();
+        var errorHandler = new ErrorHandler(logger);
+
+        var functions = this.members.stream()
+                .map(member -> member.replace("Point", "Point_" + uuid))
+                .collect(Collectors.joining(" "));
+        var lexer = new Lexer(new StringReader(String.format(TEMPLATE, uuid, functions)));
+
+        var stringTable = lexer.getStringTable();
+        var parser = new Parser(lexer);
+        var ast = parser.parse();
+        var namespaceMapper = new NamespaceMapper();
+        var gatheringVisitor = new NamespaceGatheringVisitor(namespaceMapper, stringTable, errorHandler);
+        ast.accept(gatheringVisitor);
+        var nameTypeVisitor = new DetailedNameTypeAstVisitor(namespaceMapper, stringTable, errorHandler);
+        ast.accept(nameTypeVisitor);
+        SemanticChecks.applyChecks(ast, errorHandler, gatheringVisitor.getStringClass());
+        errorHandler.checkForErrors();
+        var irVisitor = new IRVisitor(namespaceMapper, stringTable);
+        ast.accept(irVisitor);
+        Lower.lower(irVisitor.getTypeMapper());
+
+        var graphs = getNewGraphs();
+        var state = new OptimizationState();
+        graphs.forEach(graph -> {
+            optimization.optimize(graph, state);
+            state.getAttributeAnalysis().invalidate(graph);
+            pureFunctionOptimization.optimize(graph, state);
+        });
+
+        graphs.forEach(graph -> {
+            graph.walkPostorder(new NodeVisitor.Default() {
+                public void visit(Proj node) {
+                    Util.skipTuple(node);
+                }
+            });
+        });
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Counter extends NodeVisitor.Default {
+
+        private final ir_opcode opcode;
+
+        private List<Node> buffer = new LinkedList<>();
+
+        public static int count(Graph graph, ir_opcode opcode) {
+            var visitor = new Counter(opcode);
+            graph.walk(visitor);
+            return visitor.buffer.size();
+        }
+
+        @Override
+        public void defaultVisit(Node node) {
+            if (node.getOpCode() == opcode) {
+                buffer.add(node);
+            }
+        }
+    }
+}
@@ -180,6 +180,91 @@ public class ParserTest {
         );
     }
 
+    @Test
+    public void testAssociativityAst() {
+        Lexer lexer = new Lexer(getReader(
+            "class Test {"
+            + "public void m(){"
+            + "  a = b = !-c.d || - -1 * -(e)[0] && !(f + g).h(i = j, k) % 2;"
+            + "} }"
+        ));
+
+        StringTable stringTable = lexer.getStringTable();
+        PrettyPrintAstVisitor visitor = new PrettyPrintAstVisitor(stringTable);
+
+        var parser = new Parser(lexer);
+        parser.parse().accept(visitor);
+        String result = stream.toString();
+
+        assertEquals(
+            "class Test {\n"
+            + "\tpublic void m() {\n"
+            + "\t\ta = (b = ((!(-(c.d))) || (((-(-1)) * (-(e[0]))) && ((!((f + g).h(i = j, k))) % 2))));\n"
+            + "\t}\n"
+            + "}\n",
+            result
+        );
+    }
+
+    @Test
+    public void testDeeplyNestedExpression() {
+        int depth = 100000;
+        String input = "class Test { public void m() {"
+            + " x = " + "(-".repeat(depth) + "1" + ")".repeat(depth) + ";"
+            + " x = " + "!".repeat(depth) + "x;"
+            + " x = " + "x = ".repeat(depth) + "x;"
+            + " x = x" + " + 1 * (x - 2)".repeat(depth) + ";"
+            + " } }";
+
+        new Parser(new Lexer(getReader(input)).getRemainingTokens()).parse();
+    }
+
+    @Test
+    public void testUnclosedParenthesis() {
+        var parser = new Parser(new Lexer(getReader(
+            "class Test { public void m() { x = ((1 + 2) * 3; } }"
+        )).getRemainingTokens());
+        var exception = assertThrows(ParseException.class, parser::parse);
+        assertEquals(1, exception.getLine());
+        assertEquals(48, exception.getColumn());
+    }
+
+    @Test
+    public void testTokenBuffer() {
+        String input = "class Test {"
+            + "public int i;"
+            + "public static void main(String[] args) throws E {"
+            + "  int[] j = new int[2147483647][];"
+            + "  if (-2147483648 < i) { j[0] = new Test().m(i, 1)[-1]; }"
+            + "}"
+            + "public int[] m(int x, boolean y) { while (!y) y = x != 42 || y; return null; } }";
+
+        Lexer iteratorLexer = new Lexer(getReader(input));
+        new Parser(iteratorLexer).parse().accept(new PrintAstVisitor(iteratorLexer.getStringTable()));
+        String expected = stream.toString();
+        stream.reset();
+
+        Lexer bufferLexer = new Lexer(getReader(input));
+        new Parser(bufferLexer.getRemainingTokens()).parse().accept(new PrintAstVisitor(bufferLexer.getStringTable()));
+        assertEquals(expected, stream.toString());
+    }
+
+    @Test
+    public void testTokenBufferInvalid() {
+        var parser = new Parser(new Lexer(getReader(
+            "class Test { public void m() { int x = ; } }"
+        )).getRemainingTokens());
+        var exception = assertThrows(ParseException.class, parser::parse);
+        assertEquals(1, exception.getLine());
+        assertEquals(40, exception.getColumn());
+    }
+
+    @Test
+    public void testTokenBufferIncomplete() {
+        var parser = new Parser(new Lexer(getReader("class Test {")).getRemainingTokens());
+        assertThrows(ParseException.class, parser::parse);
+    }
+
     private static Reader getReader(String input) {
         return new StringReader(input);
     }
@@ -0,0 +1,79 @@
+package edu.kit.compiler.semantic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IdentifierMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        var map = new IdentifierMap<String>();
+
+        assertNull(map.put(3, "a"));
+        assertNull(map.put(19, "b"));
+        assertEquals("a", map.put(3, "c"));
+
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(3));
+        assertEquals("b", map.get(19));
+        assertNull(map.get(4));
+        assertTrue(map.containsKey(19));
+        assertFalse(map.containsKey(35));
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        var map = new IdentifierMap<String>();
+        for (int i = 0; i < 100; ++i) {
+            map.put(i * 1024, String.valueOf(i));
+        }
+
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(String.valueOf(i), map.get(i * 1024));
+        }
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        var map = new IdentifierMap<String>();
+        List<Integer> expectedKeys = new ArrayList<>();
+        List<String> expectedValues = new ArrayList<>();
+        for (int key : new int[] { 42, 7, 1000, 0, 13, 8, 999, 64, 5 }) {
+            map.put(key, String.valueOf(key));
+            expectedKeys.add(key);
+            expectedValues.add(String.valueOf(key));
+        }
+
+        assertEquals(expectedKeys, new ArrayList<>(map.keySet()));
+        assertEquals(expectedValues, new ArrayList<>(map.values()));
+    }
+
+    @Test
+    public void testSameAsHashMap() {
+        var random = new Random(0);
+        var map = new IdentifierMap<String>();
+        Map<Integer, String> expected = new HashMap<>();
+
+        for (int i = 0; i < 10000; ++i) {
+            int key = random.nextInt(5000);
+            assertEquals(expected.put(key, String.valueOf(i)), map.put(key, String.valueOf(i)));
+        }
+
+        assertEquals(expected, map);
+        for (int key = 0; key < 5000; ++key) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}
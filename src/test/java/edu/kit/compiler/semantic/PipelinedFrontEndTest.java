@@ -0,0 +1,212 @@
+package edu.kit.compiler.semantic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.data.DataType.DataTypeClass;
+import edu.kit.compiler.data.ast_nodes.ProgramNode;
+import edu.kit.compiler.data.ast_nodes.StatementNode.ReturnStatementNode;
+import edu.kit.compiler.lexer.Lexer;
+import edu.kit.compiler.lexer.StringTable;
+import edu.kit.compiler.logger.Logger;
+import edu.kit.compiler.logger.TimeReport;
+import edu.kit.compiler.parser.ParseException;
+import edu.kit.compiler.parser.Parser;
+
+public class PipelinedFrontEndTest {
+
+    private static final String INVALID_PROGRAM =
+        "class Main {\n" +
+        "    public static void main(String[] args) {\n" +
+        "        A a = new A();\n" +
+        "        a.x = true;\n" +
+        "        a.m(unknown);\n" +
+        "    }\n" +
+        "}\n" +
+        "class A {\n" +
+        "    public int x;\n" +
+        "    public B m(int y) { return y; }\n" +
+        "}\n" +
+        "class A { }\n" +
+        "class C {\n" +
+        "    public int x;\n" +
+        "    public int x;\n" +
+        "    public boolean n() { return 1 + this; }\n" +
+        "    public void[] v;\n" +
+        "    public int r(boolean b) { if (b) return 1; 1; }\n" +
+        "    public static void main2(String[] args) { new String(); }\n" +
+        "}\n";
+
+    @BeforeEach
+    public void setup() {
+        stream = new ByteArrayOutputStream();
+        syserr = System.err;
+        System.setErr(new PrintStream(stream));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setErr(syserr);
+    }
+
+    private PrintStream syserr;
+    private ByteArrayOutputStream stream;
+
+    @Test
+    public void testSameErrorsAsSequential() {
+        String sequential = analyzeSequential(INVALID_PROGRAM);
+        String pipelined = analyzePipelined(INVALID_PROGRAM, 4);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sortedLines(sequential), sortedLines(pipelined));
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(pipelined, analyzePipelined(INVALID_PROGRAM, 4));
+        }
+    }
+
+    @Test
+    public void testErrorsSortedByPosition() {
+        var lexer = new Lexer(new StringReader(
+            "class A {\n" +
+            "    public int m() { return true; }\n" +
+            "    public void[] f;\n" +
+            "    public static void main(String[] args) { x = 1; }\n" +
+            "    public int n() { }\n" +
+            "}\n"
+        ));
+        var frontEnd = new PipelinedFrontEnd(new NamespaceMapper(), lexer.getStringTable(),
+            new ErrorHandler(new Logger()), TimeReport.disabled(), 4);
+        frontEnd.parseAndAnalyze(new Parser(lexer));
+
+        String[] errors = stream.toString().split("\n");
+        assertEquals(4, errors.length);
+        for (int i = 0; i < errors.length; ++i) {
+            assertTrue(errors[i].contains("line " + (i + 2) + ","), errors[i]);
+        }
+    }
+
+    @Test
+    public void testValidProgram() {
+        var lexer = new Lexer(new StringReader(
+            "class Main {\n" +
+            "    public static void main(String[] args) { System.out.println(new B().m(2)); }\n" +
+            "}\n" +
+            "class A { public int x; }\n" +
+            "class B { public A a; public int m(int y) { a = new A(); return a.x + y; } }\n"
+        ));
+        var errorHandler = new ErrorHandler(new Logger());
+        var frontEnd = new PipelinedFrontEnd(new NamespaceMapper(), lexer.getStringTable(),
+            errorHandler, TimeReport.disabled(), 4);
+
+        ProgramNode ast = frontEnd.parseAndAnalyze(new Parser(lexer));
+
+        assertFalse(errorHandler.hasError());
+        assertNotNull(frontEnd.getStringClass());
+        var method = get(get(ast.getClasses(), 2).getDynamicMethods(), 0);
+        var returnStatement = (ReturnStatementNode) get(method.getStatementBlock().getStatements(), 1);
+        var result = returnStatement.getResult().get();
+        assertEquals(DataTypeClass.Int, result.getResultType().getType());
+    }
+
+    @Test
+    public void testParseError() {
+        var lexer = new Lexer(new StringReader("class A { } class B { public int x }"));
+        var frontEnd = new PipelinedFrontEnd(new NamespaceMapper(), lexer.getStringTable(),
+            new ErrorHandler(new Logger()), TimeReport.disabled(), 4);
+
+        assertThrows(ParseException.class, () -> frontEnd.parseAndAnalyze(new Parser(lexer)));
+    }
+
+    @Test
+    public void testNoSemanticErrorsOnParseError() {
+        var input = new StringBuilder("class A { }\n");
+        for (int i = 0; i < 1000; ++i) {
+            input.append("class A { public int x; }\n");
+        }
+        input.append("class B { public int x }\n");
+
+        for (int i = 0; i < 5; ++i) {
+            stream.reset();
+            var lexer = new Lexer(new StringReader(input.toString()));
+            var errorHandler = new ErrorHandler(new Logger());
+            var frontEnd = new PipelinedFrontEnd(new NamespaceMapper(), lexer.getStringTable(),
+                errorHandler, TimeReport.disabled(), 2);
+
+            assertThrows(ParseException.class, () -> frontEnd.parseAndAnalyze(new Parser(lexer)));
+            assertFalse(errorHandler.hasError());
+            assertEquals("", stream.toString());
+        }
+    }
+
+    @Test
+    public void testErrorBuffer() {
+        var errorHandler = new ErrorHandler(new Logger());
+        var buffer = errorHandler.createBuffer();
+
+        buffer.receive(new SemanticError(1, 2, "first"));
+        buffer.receive(new SemanticError(3, 4, "second"));
+        assertTrue(buffer.hasError());
+        assertFalse(errorHandler.hasError());
+        assertEquals("", stream.toString());
+
+        buffer.flush();
+        assertTrue(errorHandler.hasError());
+        String output = stream.toString();
+        assertTrue(output.indexOf("first") >= 0);
+        assertTrue(output.indexOf("first") < output.indexOf("second"));
+    }
+
+    private static List<String> sortedLines(String output) {
+        var lines = Arrays.asList(output.split("\n"));
+        Collections.sort(lines);
+        return lines;
+    }
+
+    private static <T> T get(Iterable<T> elements, int index) {
+        var iterator = elements.iterator();
+        for (int i = 0; i < index; ++i) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+
+    private String analyzeSequential(String input) {
+        stream.reset();
+        var lexer = new Lexer(new StringReader(input));
+        var stringTable = lexer.getStringTable();
+        var namespaceMapper = new NamespaceMapper();
+        var errorHandler = new ErrorHandler(new Logger());
+
+        ProgramNode ast = new Parser(lexer).parse();
+        var gatheringVisitor = new NamespaceGatheringVisitor(namespaceMapper, stringTable, errorHandler);
+        ast.accept(gatheringVisitor);
+        ast.accept(new DetailedNameTypeAstVisitor(namespaceMapper, stringTable, errorHandler));
+        SemanticChecks.applyChecks(ast, errorHandler, gatheringVisitor.getStringClass());
+        return stream.toString();
+    }
+
+    private String analyzePipelined(String input, int jobs) {
+        stream.reset();
+        var lexer = new Lexer(new StringReader(input));
+        StringTable stringTable = lexer.getStringTable();
+        var errorHandler = new ErrorHandler(new Logger());
+
+        new PipelinedFrontEnd(new NamespaceMapper(), stringTable, errorHandler, TimeReport.disabled(), jobs)
+            .parseAndAnalyze(new Parser(lexer));
+        return stream.toString();
+    }
+}
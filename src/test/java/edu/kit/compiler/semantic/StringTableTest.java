@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 public class StringTableTest {
 
     private StringTable table;
@@ -21,4 +23,67 @@ public class StringTableTest {
 
         Assertions.assertEquals("muhh", s);
     }
+
+    @Test
+    public void testInsertTwice() {
+        int first = table.insert("foo");
+        int second = table.insert("bar");
+
+        Assertions.assertEquals(0, first);
+        Assertions.assertEquals(1, second);
+        Assertions.assertEquals(first, table.insert("foo"));
+        Assertions.assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testInsertCharRange() {
+        int index = table.insert("foo");
+        char[] chars = "xfoobar".toCharArray();
+
+        Assertions.assertEquals(index, table.insert(chars, 1, 3));
+        Assertions.assertEquals(1, table.insert(chars, 1, 2));
+        Assertions.assertEquals("fo", table.retrieve(1));
+        Assertions.assertEquals(2, table.insert(chars, 0, 0));
+        Assertions.assertEquals("", table.retrieve(2));
+    }
+
+    @Test
+    public void testManyStrings() {
+        for (int i = 0; i < 10000; ++i) {
+            Assertions.assertEquals(i, table.insert("id" + i));
+        }
+        for (int i = 0; i < 10000; ++i) {
+            Assertions.assertEquals(i, table.insert(("id" + i).toCharArray(), 0, ("id" + i).length()));
+            Assertions.assertEquals("id" + i, table.retrieve(i));
+        }
+        Assertions.assertEquals(10000, table.size());
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        // "Aa" and "BB" have the same hash
+        int first = table.insert("Aa");
+        int second = table.insert("BB");
+
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals("Aa", table.retrieve(first));
+        Assertions.assertEquals("BB", table.retrieve(second));
+    }
+
+    @Test
+    public void testRetrieveInvalid() {
+        table.insert("foo");
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.retrieve(1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> table.retrieve(-1));
+    }
+
+    @Test
+    public void testToList() {
+        table.insert("b");
+        table.insert("a");
+
+        Assertions.assertEquals(List.of("b", "a"), table.toList());
+        Assertions.assertEquals("{b=0, a=1}", table.toString());
+    }
 }
@@ -155,6 +155,26 @@ public class SymbolTableTest {
         assertFalse(this.symbolTable.isDefined(1));
     }
 
+    @Test
+    public void testReinsertAfterLeaveScope() {
+        Definition definition0 = new StatementNode.LocalVariableDeclarationStatementNode(0, 0, null, 1, null, false);
+        Definition definition1 = new StatementNode.LocalVariableDeclarationStatementNode(0, 0, null, 1, null, false);
+
+        this.symbolTable.enterScope();
+        this.symbolTable.enterScope();
+        this.symbolTable.insert(definition0);
+        this.symbolTable.leaveScope();
+        assertFalse(this.symbolTable.isDefinedInCurrentScope(1));
+
+        this.symbolTable.insert(definition1);
+        assertTrue(this.symbolTable.isDefinedInCurrentScope(1));
+        assertEquals(definition1, this.symbolTable.lookup(1));
+
+        this.symbolTable.leaveScope();
+        assertFalse(this.symbolTable.isDefined(1));
+        assertNull(this.symbolTable.lookup(1));
+    }
+
     @Test
     public void testDoubleInsert() {
         Definition definition0 = new StatementNode.LocalVariableDeclarationStatementNode(0, 0, null, 1, null, false);
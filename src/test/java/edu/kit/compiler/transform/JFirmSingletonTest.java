@@ -0,0 +1,79 @@
+package edu.kit.compiler.transform;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.kit.compiler.data.ast_nodes.ProgramNode;
+import edu.kit.compiler.lexer.Lexer;
+import edu.kit.compiler.logger.Logger;
+import edu.kit.compiler.parser.Parser;
+import edu.kit.compiler.semantic.DetailedNameTypeAstVisitor;
+import edu.kit.compiler.semantic.ErrorHandler;
+import edu.kit.compiler.semantic.NamespaceGatheringVisitor;
+import edu.kit.compiler.semantic.NamespaceMapper;
+
+import firm.ClassType;
+import firm.Program;
+import firm.Type;
+
+public class JFirmSingletonTest {
+
+    private static final String INPUT = "class Main {"
+        + " public int x;"
+        + " public Main next;"
+        + " public static void main(String[] args) { Main m = new Main(); m.x = m.get(3); System.out.println(m.x); }"
+        + " public int get(int y) { return y + x; }"
+        + " }";
+
+    @BeforeEach
+    public void setup() {
+        JFirmSingleton.initializeFirmLinux();
+        JFirmSingleton.resetProgram();
+    }
+
+    @Test
+    public void testResetFreesTypes() throws IOException {
+        int types = countTypes();
+        int globalMembers = Program.getGlobalType().getNMembers();
+
+        for (int i = 0; i < 3; ++i) {
+            lower(INPUT);
+            JFirmSingleton.resetProgram();
+
+            assertEquals(types, countTypes());
+            assertEquals(globalMembers, Program.getGlobalType().getNMembers());
+            assertFalse(Program.getGraphs().iterator().hasNext());
+            for (var type : Program.getTypes()) {
+                assertFalse(type instanceof ClassType && ((ClassType) type).getName().equals("Main"));
+            }
+        }
+    }
+
+    private static void lower(String input) throws IOException {
+        ErrorHandler errorHandler = new ErrorHandler(Logger.nullLogger());
+        Lexer lexer = new Lexer(new StringReader(input));
+        ProgramNode node = new Parser(lexer).parse();
+
+        NamespaceMapper namespaceMapper = new NamespaceMapper();
+        node.accept(new NamespaceGatheringVisitor(namespaceMapper, lexer.getStringTable(), errorHandler));
+        node.accept(new DetailedNameTypeAstVisitor(namespaceMapper, lexer.getStringTable(), errorHandler));
+
+        IRVisitor irv = new IRVisitor(namespaceMapper, lexer.getStringTable(), AllocationStrategy.Calloc);
+        node.accept(irv);
+        Lower.lower(irv.getTypeMapper());
+    }
+
+    private static int countTypes() {
+        int count = 0;
+        for (Type type : Program.getTypes()) {
+            ++count;
+        }
+        return count;
+    }
+}